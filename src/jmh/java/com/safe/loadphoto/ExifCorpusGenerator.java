@@ -0,0 +1,250 @@
+package com.safe.loadphoto;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Genera el corpus de src/jmh/resources/exif-corpus. Se ejecuta a mano solo cuando cambia el corpus:
+ * mvn -Pjmh test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.safe.loadphoto.ExifCorpusGenerator
+ * Las imágenes son sintéticas para no versionar fotos de usuarios; el EXIF se escribe a mano
+ * (IFD0 con Make/Model/DateTime, SubIFD con DateTimeOriginal/Model y GPS) para que ambos
+ * extractores encuentren todos sus tags.
+ */
+public final class ExifCorpusGenerator {
+
+    static final String[] SAMPLES = {
+            "jpeg-640x480.jpg",
+            "jpeg-2048x1536.jpg",
+            "jpeg-4000x3000.jpg",
+            "png-1024x768.png",
+            "heic-like.heic"
+    };
+
+    private static final short ASCII = 2;
+    private static final short LONG = 4;
+    private static final short RATIONAL = 5;
+
+    private ExifCorpusGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Path.of(args.length > 0 ? args[0] : "src/jmh/resources/exif-corpus");
+        Files.createDirectories(dir);
+
+        byte[] tiff = buildTiff();
+        Files.write(dir.resolve(SAMPLES[0]), withExifSegment(jpeg(640, 480), tiff));
+        Files.write(dir.resolve(SAMPLES[1]), withExifSegment(jpeg(2048, 1536), tiff));
+        Files.write(dir.resolve(SAMPLES[2]), withExifSegment(jpeg(4000, 3000), tiff));
+        Files.write(dir.resolve(SAMPLES[3]), withExifChunk(png(1024, 768), tiff));
+        Files.write(dir.resolve(SAMPLES[4]), heicLike());
+    }
+
+    private static BufferedImage image(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(40, 90, 160), width, height, new Color(220, 180, 60)));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return image;
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(0.75f);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image(width, height), null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image(width, height), "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Inserta un segmento APP1 "Exif\0\0" justo después del SOI.
+     */
+    private static byte[] withExifSegment(byte[] jpeg, byte[] tiff) {
+        byte[] header = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+        int segmentLength = 2 + header.length + tiff.length;
+        ByteBuffer buffer = ByteBuffer.allocate(jpeg.length + 2 + segmentLength);
+        buffer.put(jpeg, 0, 2);
+        buffer.put((byte) 0xFF).put((byte) 0xE1).putShort((short) segmentLength);
+        buffer.put(header).put(tiff);
+        buffer.put(jpeg, 2, jpeg.length - 2);
+        return buffer.array();
+    }
+
+    /**
+     * Inserta un chunk eXIf después de IHDR (firma de 8 bytes + IHDR de 25 bytes).
+     */
+    private static byte[] withExifChunk(byte[] png, byte[] tiff) {
+        int afterIhdr = 8 + 25;
+        ByteBuffer buffer = ByteBuffer.allocate(png.length + 12 + tiff.length);
+        buffer.put(png, 0, afterIhdr);
+        writeChunk(buffer, "eXIf", tiff);
+        buffer.put(png, afterIhdr, png.length - afterIhdr);
+        return buffer.array();
+    }
+
+    private static void writeChunk(ByteBuffer buffer, String type, byte[] data) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        buffer.putInt(data.length).put(typeBytes).put(data).putInt((int) crc.getValue());
+    }
+
+    /**
+     * Contenedor ISO-BMFF mínimo con ftyp heic y un meta/hdlr pict. No lleva imagen codificada:
+     * sirve para medir el coste de detectar el formato y recorrer las cajas.
+     */
+    private static byte[] heicLike() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        // ftyp
+        buffer.putInt(24).put(ascii("ftyp")).put(ascii("heic")).putInt(0).put(ascii("mif1")).put(ascii("heic"));
+        // meta (full box) con hdlr
+        int hdlrSize = 8 + 4 + 4 + 4 + 12 + 1;
+        buffer.putInt(12 + hdlrSize).put(ascii("meta")).putInt(0);
+        buffer.putInt(hdlrSize).put(ascii("hdlr")).putInt(0).putInt(0).put(ascii("pict"))
+                .putInt(0).putInt(0).putInt(0).put((byte) 0);
+        byte[] out = new byte[buffer.position()];
+        buffer.flip().get(out);
+        return out;
+    }
+
+    private static byte[] buildTiff() {
+        Ifd ifd0 = new Ifd();
+        ifd0.ascii(0x010F, "SafeBike");
+        ifd0.ascii(0x0110, "Bench Cam 1");
+        ifd0.ascii(0x0132, "2024:05:18 10:42:07");
+        Ifd subIfd = new Ifd();
+        subIfd.ascii(0x0110, "Bench Cam 1");
+        subIfd.ascii(0x9003, "2024:05:18 10:42:07");
+        Ifd gps = new Ifd();
+        gps.ascii(0x0001, "S");
+        gps.rationals(0x0002, 34, 1, 36, 1, 1234, 100);
+        gps.ascii(0x0003, "W");
+        gps.rationals(0x0004, 58, 1, 22, 1, 4567, 100);
+
+        // Los punteros a sub-IFD son LONG en línea, así que los tamaños no dependen de sus valores
+        ifd0.pointer(0x8769);
+        ifd0.pointer(0x8825);
+        int ifd0Offset = 8;
+        int subIfdOffset = ifd0Offset + ifd0.size();
+        int gpsOffset = subIfdOffset + subIfd.size();
+        ifd0.setPointer(0x8769, subIfdOffset);
+        ifd0.setPointer(0x8825, gpsOffset);
+
+        ByteBuffer buffer = ByteBuffer.allocate(gpsOffset + gps.size());
+        buffer.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(ifd0Offset);
+        ifd0.write(buffer, ifd0Offset);
+        subIfd.write(buffer, subIfdOffset);
+        gps.write(buffer, gpsOffset);
+        return buffer.array();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record Entry(int tag, short type, int count, byte[] value) {
+    }
+
+    /**
+     * IFD big-endian: entradas de 12 bytes, valores de más de 4 bytes en el área de datos que sigue.
+     */
+    private static final class Ifd {
+
+        private final List<Entry> entries = new ArrayList<>();
+
+        void ascii(int tag, String value) {
+            byte[] bytes = (value + "\0").getBytes(StandardCharsets.US_ASCII);
+            entries.add(new Entry(tag, ASCII, bytes.length, bytes));
+        }
+
+        void rationals(int tag, int... values) {
+            ByteBuffer buffer = ByteBuffer.allocate(values.length * 4);
+            for (int value : values) {
+                buffer.putInt(value);
+            }
+            entries.add(new Entry(tag, RATIONAL, values.length / 2, buffer.array()));
+        }
+
+        void pointer(int tag) {
+            entries.add(new Entry(tag, LONG, 1, new byte[4]));
+        }
+
+        void setPointer(int tag, int offset) {
+            for (Entry entry : entries) {
+                if (entry.tag() == tag) {
+                    ByteBuffer.wrap(entry.value()).putInt(offset);
+                }
+            }
+        }
+
+        int size() {
+            int size = 2 + entries.size() * 12 + 4;
+            for (Entry entry : entries) {
+                if (entry.value().length > 4) {
+                    size += even(entry.value().length);
+                }
+            }
+            return size;
+        }
+
+        void write(ByteBuffer buffer, int start) {
+            buffer.position(start);
+            int dataOffset = start + 2 + entries.size() * 12 + 4;
+            List<Entry> sorted = new ArrayList<>(entries);
+            sorted.sort((a, b) -> Integer.compare(a.tag(), b.tag()));
+            buffer.putShort((short) sorted.size());
+            List<int[]> deferred = new ArrayList<>();
+            for (Entry entry : sorted) {
+                buffer.putShort((short) entry.tag()).putShort(entry.type()).putInt(entry.count());
+                byte[] value = entry.value();
+                if (value.length <= 4) {
+                    buffer.put(value).put(new byte[4 - value.length]);
+                } else {
+                    buffer.putInt(dataOffset);
+                    deferred.add(new int[]{dataOffset, sorted.indexOf(entry)});
+                    dataOffset += even(value.length);
+                }
+            }
+            buffer.putInt(0);
+            for (int[] slot : deferred) {
+                buffer.position(slot[0]);
+                buffer.put(sorted.get(slot[1]).value());
+            }
+        }
+
+        private static int even(int length) {
+            return (length + 1) & ~1;
+        }
+    }
+}
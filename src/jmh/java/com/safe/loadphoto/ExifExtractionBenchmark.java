@@ -0,0 +1,74 @@
+package com.safe.loadphoto;
+
+import com.safe.loadphoto.domain.model.PhotoExif;
+import com.safe.loadphoto.infrastructure.adapter.ExifAdapter;
+import com.safe.loadphoto.service.PhotoExifService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara los dos extractores EXIF sobre el corpus versionado:
+ * PhotoExifService (JpegMetadataReader + IFD0) y ExifAdapter (ImageMetadataReader + SubIFD).
+ * Con -prof gc el informe incluye gc.alloc.rate.norm (bytes asignados por operación).
+ * <p>
+ * mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="ExifExtraction -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExifExtractionBenchmark {
+
+    @Param({
+            "jpeg-640x480.jpg",
+            "jpeg-2048x1536.jpg",
+            "jpeg-4000x3000.jpg",
+            "png-1024x768.png",
+            "heic-like.heic"
+    })
+    public String sample;
+
+    private byte[] data;
+    private PhotoExifService photoExifService;
+    private ExifAdapter exifAdapter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/exif-corpus/" + sample)) {
+            if (in == null) {
+                throw new IllegalStateException("Sample not found in corpus: " + sample);
+            }
+            data = in.readAllBytes();
+        }
+        // extractExif solo usa los metadatos; el resto de dependencias no se toca en este camino
+        photoExifService = new PhotoExifService(null, null, null, null, null, null, 0,
+                null, null, null, null);
+        exifAdapter = new ExifAdapter();
+    }
+
+    @Benchmark
+    public PhotoExif jpegReaderIfd0() {
+        return photoExifService.extractExif(data);
+    }
+
+    @Benchmark
+    public PhotoExif imageReaderSubIfd() {
+        return exifAdapter.extractExif(data);
+    }
+}
@@ -0,0 +1,160 @@
+package com.safe.report;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.safe.report.domain.model.BikeReportDTO;
+import com.safe.report.infrastructure.adapter.output.pdf.PdfReportServiceAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filas por segundo del render PDF: PdfReportTemplate (celdas, fuentes y formatos armados una vez)
+ * contra la construcción anterior, que creaba celdas de encabezado, colores y un DateTimeFormatter
+ * por fila. La salida se descarta para medir solo el armado del documento.
+ * <p>
+ * mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="PdfReportRender -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(PdfReportRenderBenchmark.ROWS)
+public class PdfReportRenderBenchmark {
+
+    static final int ROWS = 2_000;
+
+    private static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.BLACK);
+    private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.WHITE);
+
+    @Param({"user", "fleet"})
+    public String layout;
+
+    private List<BikeReportDTO> rows;
+    private PdfReportServiceAdapter adapter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new BikeReportDTO((long) i, "Nombre" + (i % 50), "Apellido" + (i % 70),
+                    "Marca" + (i % 12), "Modelo" + (i % 30), i % 3 == 0 ? null : "MTB",
+                    "SN-" + i, i % 5 == 0 ? null : LocalDate.of(2020, 1, 1).plusDays(i % 1500)));
+        }
+        adapter = new PdfReportServiceAdapter();
+    }
+
+    @Benchmark
+    public void template() throws IOException {
+        if ("fleet".equals(layout)) {
+            adapter.writeFleetReport(rows.iterator(), ROWS, OutputStream.nullOutputStream());
+        } else {
+            adapter.writeBikeReport(rows.iterator(), "Nombre Apellido", ROWS, OutputStream.nullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public void perRowCells() throws IOException, DocumentException {
+        writeLegacy(rows.iterator(), "fleet".equals(layout), OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Tabla armada como antes de los templates, con el mismo volcado cada 50 filas. No agrega el bloque
+     * de título: es costo por documento y juega en contra del template, no a favor.
+     */
+    private static void writeLegacy(Iterator<BikeReportDTO> bikeData, boolean withOwner, OutputStream out)
+            throws DocumentException {
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        document.open();
+
+        PdfPTable table = new PdfPTable(withOwner ? 7 : 6);
+        table.setWidthPercentage(100);
+        table.setWidths(withOwner
+                ? new float[]{1f, 2.5f, 2f, 1.5f, 2f, 2.5f, 2f}
+                : new float[]{1f, 2f, 1.5f, 2f, 2.5f, 2f});
+        table.setHeaderRows(1);
+        table.setComplete(false);
+
+        addHeaderCell(table, "ID");
+        if (withOwner) {
+            addHeaderCell(table, "Propietario");
+        }
+        addHeaderCell(table, "Marca");
+        addHeaderCell(table, "Tipo");
+        addHeaderCell(table, "Modelo");
+        addHeaderCell(table, "Número de Serie");
+        addHeaderCell(table, "Fecha de Compra");
+
+        int pendingRows = 0;
+        while (bikeData.hasNext()) {
+            BikeReportDTO bike = bikeData.next();
+            addDataCell(table, bike.bikeId().toString());
+            if (withOwner) {
+                addDataCell(table, bike.getFullName());
+            }
+            addDataCell(table, bike.brand() != null ? bike.brand() : "N/A");
+            addDataCell(table, bike.type() != null ? bike.type() : "N/A");
+            addDataCell(table, bike.model() != null ? bike.model() : "N/A");
+            addDataCell(table, bike.serialNumber() != null ? bike.serialNumber() : "N/A");
+            addDataCell(table, bike.purchaseDate() != null ?
+                    bike.purchaseDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) : "N/A");
+            if (++pendingRows == 50) {
+                document.add(table);
+                pendingRows = 0;
+            }
+        }
+        table.setComplete(true);
+        document.add(table);
+        document.close();
+    }
+
+    private static void addHeaderCell(PdfPTable table, String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, HEADER_FONT));
+        cell.setBackgroundColor(new BaseColor(52, 73, 94));
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        cell.setPadding(8f);
+        table.addCell(cell);
+    }
+
+    private static void addDataCell(PdfPTable table, String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, NORMAL_FONT));
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        cell.setPadding(6f);
+        cell.setBorderColor(BaseColor.GRAY);
+        table.addCell(cell);
+    }
+}
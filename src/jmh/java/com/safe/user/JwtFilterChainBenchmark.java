@@ -0,0 +1,168 @@
+package com.safe.user;
+
+import com.safe.user.config.JwtUtil;
+import com.safe.user.infrastructure.adapters.input.security.JwtAuthenticationFilter;
+import com.safe.user.infrastructure.adapters.input.security.JwtRouteClassifier;
+import com.safe.user.infrastructure.adapters.output.external.InMemoryRevokedTokenStore;
+import com.safe.user.infrastructure.adapters.output.external.TokenBlacklistService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de JwtAuthenticationFilter por tipo de request, pasando por la cadena de filtros completa
+ * (clasificación, token, validación y SecurityContext), contra la selección anterior de rutas y
+ * token: prefijos a mano y, fuera de ellos, header, todas las cookies, sesión y parámetro.
+ * El request de Vaadin trae las cookies de sesión y de preferencias que manda el navegador.
+ * <p>
+ * mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="JwtFilterChain -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterChainBenchmark {
+
+    private static final String SECRET =
+            "MySecretKeyForJWTTokenGenerationThatMustBeAtLeast512BitsLongForHS512AlgorithmToWorkProperlyAndSecurely123456789";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @Param({"static", "push", "heartbeat", "uidl", "api"})
+    public String request;
+
+    private JwtAuthenticationFilter filter;
+    private JwtRouteClassifier classifier;
+    private MockHttpServletRequest httpRequest;
+    private MockHttpServletResponse httpResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 86400, 10_000);
+        TokenBlacklistService blacklist = new TokenBlacklistService(new InMemoryRevokedTokenStore(10_000), jwtUtil,
+                10_000, Duration.ofSeconds(5), Duration.ofSeconds(10), 86400, 100_000, 0.01);
+        classifier = new JwtRouteClassifier(
+                new String[]{"/VAADIN/**", "/frontend/**", "/images/**", "/icons/**", "/login/**", "/register/**",
+                        "/favicon.ico", "/manifest.json", "/manifest.webmanifest", "/sw.js",
+                        "/sw-runtime-resources-precache.js", "/offline.html", "/offline-stub.html"},
+                new String[]{"/api/**"});
+        filter = new JwtAuthenticationFilter(jwtUtil,
+                email -> User.withUsername(email).password("x").authorities("ROLE_USER").build(),
+                blacklist, classifier);
+        String token = jwtUtil.generateToken("ciclista@example.com");
+
+        httpRequest = switch (request) {
+            case "static" -> new MockHttpServletRequest("GET", "/VAADIN/build/indexhtml-6f5b3c.js");
+            case "push" -> new MockHttpServletRequest("POST", "/VAADIN/push");
+            case "heartbeat" -> {
+                MockHttpServletRequest heartbeat = new MockHttpServletRequest("POST", "/");
+                heartbeat.setQueryString("v-r=heartbeat&v-uiId=0");
+                yield heartbeat;
+            }
+            case "uidl" -> {
+                MockHttpServletRequest uidl = new MockHttpServletRequest("POST", "/");
+                uidl.setQueryString("v-r=uidl&v-uiId=0");
+                // Lo mismo que deja AuthenticationHelper.setAuthentication en la sesión HTTP al iniciar sesión
+                MockHttpSession session = new MockHttpSession();
+                session.setAttribute("authToken", token);
+                uidl.setSession(session);
+                uidl.setCookies(new Cookie("JSESSIONID", "8F1C2A"), new Cookie("csrfToken", "a1b2c3"),
+                        new Cookie("vaadin-theme", "lumo-dark"), new Cookie("lang", "es"));
+                yield uidl;
+            }
+            case "api" -> {
+                MockHttpServletRequest api = new MockHttpServletRequest("GET", "/api/bikes");
+                api.addHeader("Authorization", "Bearer " + token);
+                yield api;
+            }
+            default -> throw new IllegalArgumentException("Unknown request type: " + request);
+        };
+        httpResponse = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object filterChain() throws ServletException, IOException {
+        SecurityContextHolder.clearContext();
+        // OncePerRequestFilter marca el request como ya filtrado
+        httpRequest.clearAttributes();
+        filter.doFilter(httpRequest, httpResponse, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public String routeAndToken() {
+        JwtRouteClassifier.RouteClass routeClass = classifier.classify(httpRequest);
+        return routeClass.extractToken(httpRequest);
+    }
+
+    /**
+     * shouldNotFilter y extractTokenFromRequest como estaban antes.
+     */
+    @Benchmark
+    public String legacyRouteAndToken() {
+        return legacyShouldNotFilter(httpRequest) ? null : legacyExtractToken(httpRequest);
+    }
+
+    private static boolean legacyShouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.equals("/") ||
+                path.startsWith("/login") ||
+                path.startsWith("/register") ||
+                path.startsWith("/VAADIN/") ||
+                path.startsWith("/frontend/") ||
+                path.startsWith("/images/") ||
+                path.contains("manifest.json") ||
+                path.contains("sw.js") ||
+                path.contains("favicon.ico");
+    }
+
+    private static String legacyExtractToken(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        if (request.getCookies() != null) {
+            for (var cookie : request.getCookies()) {
+                if ("authToken".equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        var session = request.getSession(false);
+        if (session != null) {
+            Object token = session.getAttribute("authToken");
+            if (token instanceof String) {
+                return (String) token;
+            }
+        }
+        String queryToken = request.getParameter("token");
+        if (queryToken != null && !queryToken.trim().isEmpty()) {
+            return queryToken;
+        }
+        return null;
+    }
+}
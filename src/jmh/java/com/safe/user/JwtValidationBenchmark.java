@@ -0,0 +1,86 @@
+package com.safe.user;
+
+import com.safe.user.config.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de validar el token de un request autenticado en JwtAuthenticationFilter:
+ * <ul>
+ *     <li>threeParses: lo que hacía el filtro antes (validateToken, extractUsername y
+ *     validateToken(token, username)), cada paso con su propia clave y parser.</li>
+ *     <li>singleParse: JwtUtil.parseVerifiedClaims con la caché desactivada, una sola verificación.</li>
+ *     <li>cached: el mismo token ya verificado, resuelto por su SHA-256.</li>
+ * </ul>
+ * mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="JwtValidation -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET =
+            "MySecretKeyForJWTTokenGenerationThatMustBeAtLeast512BitsLongForHS512AlgorithmToWorkProperlyAndSecurely123456789";
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        uncached = new JwtUtil(SECRET, 86400, 0);
+        cached = new JwtUtil(SECRET, 86400, 10_000);
+        token = cached.generateToken("ciclista@example.com");
+        cached.parseVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public String legacyFilter() {
+        if (!legacyValidate(token)) {
+            return null;
+        }
+        String username = legacyClaims(token).getSubject();
+        return username.equals(legacyClaims(token).getSubject()) && legacyValidate(token) ? username : null;
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return uncached.parseVerifiedClaims(token).map(JwtUtil.VerifiedClaims::subject).orElse(null);
+    }
+
+    @Benchmark
+    public String cachedClaims() {
+        return cached.parseVerifiedClaims(token).map(JwtUtil.VerifiedClaims::subject).orElse(null);
+    }
+
+    private static boolean legacyValidate(String token) {
+        legacyClaims(token);
+        return !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,191 @@
+package com.safe.user;
+
+import com.safe.user.infrastructure.adapters.output.persistence.repository.UserJpaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de las búsquedas de usuarios según el tamaño de la tabla: las consultas de
+ * UserJpaRepository con sus índices contra el recorrido anterior (traer todos los usuarios y
+ * filtrar en Java). Con índices la latencia se mantiene casi igual al crecer la tabla.
+ * <p>
+ * Necesita un PostgreSQL con pg_trgm. Usa las mismas variables que la aplicación (DB_USERNAME,
+ * DB_PASSWORD y, opcionalmente, DB_URL) y arma la tabla en un esquema propio que borra al terminar.
+ * <p>
+ * DB_URL=jdbc:postgresql://localhost:5432/safebike mvn -Pjmh test-compile exec:exec@jmh -Djmh.args="UserLookup"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    private static final String SCHEMA = "jmh_user_lookup";
+    // Mismas columnas que usa UserEntity
+    private static final String CREATE_TABLE_SQL = """
+            CREATE TABLE users (
+                id BIGSERIAL PRIMARY KEY,
+                username VARCHAR(50) NOT NULL UNIQUE,
+                email VARCHAR(100) NOT NULL UNIQUE,
+                password VARCHAR(255) NOT NULL,
+                first_name VARCHAR(50) NOT NULL,
+                last_name VARCHAR(50) NOT NULL,
+                role VARCHAR(255) NOT NULL,
+                created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                localidad_id INTEGER,
+                municipio_id INTEGER,
+                provincia_id INTEGER
+            )
+            """;
+    // Uno de cada mil es ADMIN y uno de cada diez está inactivo
+    private static final String SEED_SQL = """
+            INSERT INTO users (username, email, password, first_name, last_name, role)
+            SELECT 'user' || n, 'user' || n || '@mail' || (n % 97) || '.example.com', 'x',
+                   'Nombre' || (n % 500), 'Apellido' || (n % 700),
+                   CASE WHEN n % 1000 = 0 THEN 'ADMIN' WHEN n % 10 = 0 THEN 'INACTIVE' ELSE 'USER' END
+            FROM generate_series(1, ?) AS n
+            """;
+    // Copia de sql/user.sql
+    private static final String[] INDEX_SQL = {
+            "CREATE INDEX idx_users_username_upper ON users (upper(username))",
+            "CREATE INDEX idx_users_email_upper ON users (upper(email))",
+            "CREATE INDEX idx_users_role_normalized ON users (upper(btrim(role)))",
+            "CREATE INDEX idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops)"
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    public int users;
+
+    private Connection connection;
+    private PreparedStatement existsByUsername;
+    private PreparedStatement byRole;
+    private PreparedStatement byEmailPattern;
+    private PreparedStatement countByRole;
+    private PreparedStatement allUsers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getenv().getOrDefault("DB_URL", "jdbc:postgresql://localhost:5432/safebike");
+        connection = DriverManager.getConnection(url, System.getenv("DB_USERNAME"), System.getenv("DB_PASSWORD"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA + ", public");
+            statement.execute(CREATE_TABLE_SQL);
+        }
+        try (PreparedStatement seed = connection.prepareStatement(SEED_SQL)) {
+            seed.setInt(1, users);
+            seed.executeUpdate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : INDEX_SQL) {
+                statement.execute(sql);
+            }
+            statement.execute("ANALYZE users");
+        }
+
+        existsByUsername = connection.prepareStatement(jdbc(UserJpaRepository.EXISTS_BY_USERNAME_SQL));
+        byRole = connection.prepareStatement(jdbc(UserJpaRepository.BY_ROLE_SQL));
+        byEmailPattern = connection.prepareStatement(jdbc(UserJpaRepository.BY_EMAIL_PATTERN_SQL));
+        countByRole = connection.prepareStatement(jdbc(UserJpaRepository.COUNT_BY_ROLE_SQL));
+        allUsers = connection.prepareStatement("SELECT u.* FROM users u");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public boolean existsByUsername() throws SQLException {
+        existsByUsername.setString(1, randomUsername());
+        try (ResultSet rs = existsByUsername.executeQuery()) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+
+    @Benchmark
+    public int findAdmins() throws SQLException {
+        byRole.setString(1, "ADMIN");
+        return drain(byRole);
+    }
+
+    @Benchmark
+    public long countAdmins() throws SQLException {
+        countByRole.setString(1, "ADMIN");
+        try (ResultSet rs = countByRole.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Benchmark
+    public int findByEmailPattern() throws SQLException {
+        // Un usuario puntual: el trigrama evita recorrer la tabla
+        byEmailPattern.setString(1, "%" + randomUsername().toLowerCase() + "@mail%");
+        return drain(byEmailPattern);
+    }
+
+    /**
+     * Lo que hacía existsByUsername antes: leer todos los usuarios y comparar en Java.
+     */
+    @Benchmark
+    public boolean existsByUsernameFullScan() throws SQLException {
+        // findAll traía la tabla completa antes de filtrar, así que no se corta al encontrarlo
+        String username = randomUsername();
+        boolean exists = false;
+        try (ResultSet rs = allUsers.executeQuery()) {
+            while (rs.next()) {
+                exists |= username.equalsIgnoreCase(rs.getString("username"));
+            }
+        }
+        return exists;
+    }
+
+    private String randomUsername() {
+        return "USER" + ThreadLocalRandom.current().nextInt(1, users + 1);
+    }
+
+    private static int drain(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    // Las consultas del repositorio usan parámetros con nombre; por JDBC cada uno se usa una vez
+    private static String jdbc(String sql) {
+        return sql.replaceAll(":[a-zA-Z]+", "?");
+    }
+}
@@ -0,0 +1,13 @@
+package com.safe;
+
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
+
+/**
+ * Configuración global de la interfaz Vaadin.
+ * Push permite que los resultados de tareas en segundo plano (procesamiento de fotos)
+ * lleguen a la vista sin que el usuario tenga que refrescar.
+ */
+@Push
+public class AppShell implements AppShellConfigurator {
+}
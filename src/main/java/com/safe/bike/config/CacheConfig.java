@@ -29,7 +29,6 @@ public class CacheConfig {
                 "allBrands",
                 "allFrameTypes",
                 "frameTypeById",
-                "tokenBlacklist",
                 "allSizes",
                 "allProvincias",
                 "allMunicipios",
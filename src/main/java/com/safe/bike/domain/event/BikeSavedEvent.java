@@ -0,0 +1,24 @@
+package com.safe.bike.domain.event;
+
+/**
+ * Se publica después de guardar (alta o modificación) una bicicleta.
+ *
+ * @param bikeId         ID de la bicicleta guardada
+ * @param userId         dueño de la bicicleta; null si no tenía usuario asignado
+ * @param previousUserId dueño antes de guardar; null en un alta o si no tenía usuario asignado
+ * @param created        true si fue un alta; en una modificación no se conocen los valores anteriores,
+ *                       salvo el dueño
+ * @param brandId        marca guardada; null si no tiene
+ * @param bikeTypeId     tipo guardado; null si no tiene
+ * @param bikeModelId    modelo guardado; null si no tiene
+ */
+public record BikeSavedEvent(
+        Long bikeId,
+        Long userId,
+        Long previousUserId,
+        boolean created,
+        Long brandId,
+        Long bikeTypeId,
+        Long bikeModelId
+) {
+}
@@ -60,6 +60,10 @@ public interface BikeJpaRepository extends JpaRepository<BikeEntity, Long> {
         """)
     List<BikeEntity> findAllBikesWithUserInfo();
 
+    // Dueño guardado en la base, sin cargar la bicicleta ni el usuario
+    @Query("SELECT b.user.id FROM BikeEntity b WHERE b.bikeId = :bikeId")
+    Optional<Long> findOwnerIdByBikeId(@Param("bikeId") Long bikeId);
+
     @Query("SELECT COUNT(DISTINCT b.user.id) FROM BikeEntity b")
     int countDistinctUsers();
 
@@ -56,6 +56,8 @@ public class CurrentUserManager {
     public void clearSession() {
         VaadinSession.getCurrent().setAttribute("authToken", null);
         VaadinSession.getCurrent().setAttribute("userEmail", null);
+        // Cerrar la sesión de Vaadin no invalida la HTTP: sin esto el filtro JWT seguiría autenticando
+        VaadinSession.getCurrent().getSession().removeAttribute("authToken");
         SecurityContextHolder.clearContext();
         VaadinSession.getCurrent().close();
     }
@@ -1,5 +1,6 @@
 package com.safe.bike.service;
 
+import com.safe.bike.domain.event.BikeSavedEvent;
 import com.safe.bike.domain.model.dto.BikeForPhotoDTO;
 import com.safe.bike.domain.model.entity.BikeEntity;
 import com.safe.bike.domain.port.in.BikeServicePort;
@@ -7,6 +8,7 @@ import com.safe.bike.infrastructure.persistence.bike.BikeJpaRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,17 +22,31 @@ public class BikeServiceImpl implements BikeServicePort {
     private static final Logger logger = LoggerFactory.getLogger(BikeServiceImpl.class);
     // Inyecta directamente la interfaz de Spring Data JPA
     private final BikeJpaRepository bikeJpaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BikeServiceImpl(BikeJpaRepository bikeJpaRepository) {
+    public BikeServiceImpl(BikeJpaRepository bikeJpaRepository, ApplicationEventPublisher eventPublisher) {
         this.bikeJpaRepository = bikeJpaRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public void save(BikeEntity bike) {
         log.info("Guardando bicicleta con ID: {}", bike.getBikeId());
+        boolean created = bike.getBikeId() == null;
         try {
-            bikeJpaRepository.save(bike);
-            log.info("Bicicleta guardada exitosamente: {}", bike.getBikeId());
+            // El dueño anterior se lee antes de guardar: si la bicicleta cambia de manos, los dos se enteran
+            Long previousUserId = created ? null : bikeJpaRepository.findOwnerIdByBikeId(bike.getBikeId()).orElse(null);
+            BikeEntity saved = bikeJpaRepository.save(bike);
+            log.info("Bicicleta guardada exitosamente: {}", saved.getBikeId());
+            // Los getters de ID no inicializan los proxies lazy
+            eventPublisher.publishEvent(new BikeSavedEvent(
+                    saved.getBikeId(),
+                    saved.getUser() != null ? saved.getUser().getId() : null,
+                    previousUserId,
+                    created,
+                    saved.getBrand() != null ? saved.getBrand().getBrandId() : null,
+                    saved.getBikeType() != null ? saved.getBikeType().getBikeTypeId() : null,
+                    saved.getBikeModel() != null ? saved.getBikeModel().getIdBikeModel() : null));
         } catch (Exception e) {
             log.error("Error al guardar bicicleta con ID: {}", bike.getBikeId(), e);
             throw e;
@@ -4,10 +4,23 @@ package com.safe.loadphoto.config;
 import com.safe.loadphoto.domain.port.in.PhotoExifServicePort;
 import com.safe.loadphoto.domain.port.out.PhotoExifRepositoryPort;
 import com.safe.loadphoto.domain.port.out.PhotoFileRepositoryPort;
+import com.safe.loadphoto.domain.port.out.PhotoLinkRepositoryPort;
 import com.safe.loadphoto.infrastructure.adapter.ExifAdapter;
+import com.safe.loadphoto.infrastructure.adapter.ImageDerivativeAdapter;
+import com.safe.loadphoto.infrastructure.storage.ContentAddressedBlobStore;
 import com.safe.loadphoto.service.PhotoExifService;
+import com.safe.loadphoto.service.PhotoIngestWorkerPool;
+import com.safe.loadphoto.service.PhotoSpatialIndex;
+import com.safe.location.domain.port.in.GeocodificacionInversaPort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
 
 @Configuration
 public class PhotoLoadingConfig {
@@ -15,10 +28,44 @@ public class PhotoLoadingConfig {
     @Bean
     public PhotoExifServicePort photoExifService(
             ExifAdapter exifAdapter,
+            ImageDerivativeAdapter imageDerivativeAdapter,
+            PhotoExifRepositoryPort exifRepositoryPort,
+            PhotoFileRepositoryPort photoFileRepositoryPort,
+            PhotoLinkRepositoryPort photoLinkRepositoryPort,
+            @Value("${photo.ingest.spool-dir:${java.io.tmpdir}/safebike-photos}") String spoolDir,
+            @Value("${photo.exif.max-header-bytes:1048576}") int maxHeaderBytes,
+            PhotoIngestWorkerPool photoIngestWorkerPool,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            GeocodificacionInversaPort geocodificacionInversa
+    ) {
+        return new PhotoExifService(exifAdapter, imageDerivativeAdapter, exifRepositoryPort, photoFileRepositoryPort,
+                photoLinkRepositoryPort, Path.of(spoolDir), maxHeaderBytes, photoIngestWorkerPool,
+                transactionTemplate, eventPublisher, geocodificacionInversa);
+    }
+
+    @Bean
+    public PhotoSpatialIndex photoSpatialIndex(
             PhotoExifRepositoryPort exifRepositoryPort,
-            PhotoFileRepositoryPort photoFileRepositoryPort
+            @Value("${photo.geo.cell-degrees:0.05}") double cellDegrees
     ) {
-        return new PhotoExifService(exifAdapter, exifRepositoryPort, photoFileRepositoryPort);
+        return new PhotoSpatialIndex(exifRepositoryPort, cellDegrees);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public PhotoIngestWorkerPool photoIngestWorkerPool(
+            @Value("${photo.ingest.workers:4}") int workers,
+            @Value("${photo.ingest.queue-capacity:32}") int queueCapacity
+    ) {
+        return new PhotoIngestWorkerPool(workers, queueCapacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "photo.store.type", havingValue = "filesystem")
+    public ContentAddressedBlobStore contentAddressedBlobStore(
+            @Value("${photo.store.root:./data/photos}") String root
+    ) throws IOException {
+        return new ContentAddressedBlobStore(Path.of(root));
     }
 
 }
@@ -0,0 +1,15 @@
+package com.safe.loadphoto.domain.event;
+
+import com.safe.loadphoto.domain.model.PhotoExif;
+
+import java.util.List;
+
+/**
+ * Se publica después de guardar uno o varios registros EXIF nuevos.
+ */
+public record PhotoExifSavedEvent(List<PhotoExif> photoExifs) {
+
+    public static PhotoExifSavedEvent of(PhotoExif photoExif) {
+        return new PhotoExifSavedEvent(List.of(photoExif));
+    }
+}
@@ -0,0 +1,19 @@
+package com.safe.loadphoto.domain.exception;
+
+/**
+ * Excepción lanzada cuando la cola de procesamiento de fotos está llena.
+ * Quien sube la imagen debe reintentar más tarde.
+ */
+public class PhotoIngestRejectedException extends RuntimeException {
+
+    private final int queueCapacity;
+
+    public PhotoIngestRejectedException(String message, int queueCapacity, Throwable cause) {
+        super(message, cause);
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+}
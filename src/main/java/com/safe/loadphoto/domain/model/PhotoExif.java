@@ -8,6 +8,10 @@ public class PhotoExif {
     private String dateTime;
     private String cameraModel;
     private String cameraMaker;
+    // Ubicación resuelta por geocodificación inversa a partir del GPS
+    private Integer localidadId;
+    private Integer municipioId;
+    private Integer provinciaId;
 
     // Constructor vacío
     public PhotoExif() {}
@@ -39,4 +43,11 @@ public class PhotoExif {
 
     public String getCameraMaker() { return cameraMaker; }
     public void setCameraMaker(String cameraMaker) { this.cameraMaker = cameraMaker; }
+
+    public Integer getLocalidadId() { return localidadId; }
+    public void setLocalidadId(Integer localidadId) { this.localidadId = localidadId; }
+    public Integer getMunicipioId() { return municipioId; }
+    public void setMunicipioId(Integer municipioId) { this.municipioId = municipioId; }
+    public Integer getProvinciaId() { return provinciaId; }
+    public void setProvinciaId(Integer provinciaId) { this.provinciaId = provinciaId; }
 }
\ No newline at end of file
@@ -5,6 +5,9 @@ public class PhotoFile {
     private String idExif;
     private String fileName;
     private byte[] fileData;
+    // SHA-256 en hexadecimal del contenido; identifica el blob en el almacén de archivos
+    private String contentHash;
+    private Long contentLength;
 
     public PhotoFile() {}
 
@@ -15,6 +18,14 @@ public class PhotoFile {
         this.fileData = fileData;
     }
 
+    public PhotoFile(String id, String idExif, String fileName, String contentHash, Long contentLength) {
+        this.id = id;
+        this.idExif = idExif;
+        this.fileName = fileName;
+        this.contentHash = contentHash;
+        this.contentLength = contentLength;
+    }
+
     // Getters y Setters
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
@@ -24,4 +35,8 @@ public class PhotoFile {
     public void setFileName(String fileName) { this.fileName = fileName; }
     public byte[] getFileData() { return fileData; }
     public void setFileData(byte[] fileData) { this.fileData = fileData; }
-}
\ No newline at end of file
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    public Long getContentLength() { return contentLength; }
+    public void setContentLength(Long contentLength) { this.contentLength = contentLength; }
+}
@@ -0,0 +1,9 @@
+package com.safe.loadphoto.domain.model;
+
+import java.nio.file.Path;
+
+/**
+ * Archivo a guardar junto con la ruta local de la que se lee su contenido.
+ */
+public record PhotoFileContent(PhotoFile photoFile, Path content) {
+}
@@ -0,0 +1,28 @@
+package com.safe.loadphoto.domain.model;
+
+/**
+ * Resultado del procesamiento de una imagen dentro de una subida múltiple.
+ *
+ * @param fileName  nombre original del archivo
+ * @param photoExif EXIF guardado o reutilizado; nulo si falló
+ * @param duplicate true si el contenido ya estaba almacenado
+ * @param error     motivo del fallo; nulo si se procesó bien
+ */
+public record PhotoIngestResult(String fileName, PhotoExif photoExif, boolean duplicate, String error) {
+
+    public static PhotoIngestResult stored(String fileName, PhotoExif photoExif) {
+        return new PhotoIngestResult(fileName, photoExif, false, null);
+    }
+
+    public static PhotoIngestResult duplicate(String fileName, PhotoExif photoExif) {
+        return new PhotoIngestResult(fileName, photoExif, true, null);
+    }
+
+    public static PhotoIngestResult failed(String fileName, String error) {
+        return new PhotoIngestResult(fileName, null, false, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
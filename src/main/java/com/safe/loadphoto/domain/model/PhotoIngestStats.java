@@ -0,0 +1,20 @@
+package com.safe.loadphoto.domain.model;
+
+/**
+ * Contadores de deduplicación de subidas desde el arranque.
+ *
+ * @param uploads       imágenes procesadas
+ * @param dedupHits     subidas cuyo contenido ya estaba almacenado
+ * @param bytesUploaded bytes recibidos en total
+ * @param bytesSaved    bytes que no se almacenaron gracias a la deduplicación
+ */
+public record PhotoIngestStats(long uploads, long dedupHits, long bytesUploaded, long bytesSaved) {
+
+    public long dedupMisses() {
+        return uploads - dedupHits;
+    }
+
+    public double hitRate() {
+        return uploads == 0 ? 0.0 : (double) dedupHits / uploads;
+    }
+}
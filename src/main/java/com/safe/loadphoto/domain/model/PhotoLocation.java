@@ -0,0 +1,7 @@
+package com.safe.loadphoto.domain.model;
+
+/**
+ * Posición GPS de una foto, tal como la guarda el índice espacial.
+ */
+public record PhotoLocation(String exifId, double latitude, double longitude) {
+}
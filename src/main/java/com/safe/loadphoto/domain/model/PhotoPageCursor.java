@@ -0,0 +1,10 @@
+package com.safe.loadphoto.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posición en la galería para paginar por clave (created_at, id) en lugar de por offset.
+ * La página siguiente empieza justo después de esta fila.
+ */
+public record PhotoPageCursor(LocalDateTime createdAt, long linkId) {
+}
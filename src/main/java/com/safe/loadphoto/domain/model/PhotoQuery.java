@@ -0,0 +1,21 @@
+package com.safe.loadphoto.domain.model;
+
+/**
+ * Filtro de la galería. bikeId es opcional; userId es obligatorio.
+ */
+public record PhotoQuery(Long userId, Long bikeId) {
+
+    public PhotoQuery {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+    }
+
+    public static PhotoQuery byUser(Long userId) {
+        return new PhotoQuery(userId, null);
+    }
+
+    public static PhotoQuery byBike(Long userId, Long bikeId) {
+        return new PhotoQuery(userId, bikeId);
+    }
+}
@@ -0,0 +1,21 @@
+package com.safe.loadphoto.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila de la galería: metadatos de una foto asociada a una bicicleta, sin el contenido.
+ */
+public record PhotoSummary(long linkId,
+                           String exifId,
+                           Long bikeId,
+                           LocalDateTime createdAt,
+                           String fileName,
+                           String dateTime,
+                           Double latitude,
+                           Double longitude,
+                           String cameraModel) {
+
+    public PhotoPageCursor cursor() {
+        return new PhotoPageCursor(createdAt, linkId);
+    }
+}
@@ -0,0 +1,9 @@
+package com.safe.loadphoto.domain.model;
+
+import java.io.InputStream;
+
+/**
+ * Una imagen dentro de una subida múltiple. El stream lo cierra quien lo abrió.
+ */
+public record PhotoUpload(String fileName, InputStream content) {
+}
@@ -0,0 +1,22 @@
+package com.safe.loadphoto.domain.model;
+
+/**
+ * Versiones reducidas que se generan de cada foto al guardarla.
+ * maxEdge es el lado mayor en píxeles; la proporción se conserva.
+ */
+public enum PhotoVariant {
+    THUMBNAIL("thumb", 256),
+    MEDIUM("medium", 1024);
+
+    private final String key;
+    private final int maxEdge;
+
+    PhotoVariant(String key, int maxEdge) {
+        this.key = key;
+        this.maxEdge = maxEdge;
+    }
+
+    public String getKey() { return key; }
+
+    public int getMaxEdge() { return maxEdge; }
+}
@@ -22,6 +22,15 @@ public class PhotoExifEntity {
     @Column(name = "camera_maker")
     private String cameraMaker;
 
+    @Column(name = "localidad_id")
+    private Integer localidadId;
+
+    @Column(name = "municipio_id")
+    private Integer municipioId;
+
+    @Column(name = "provincia_id")
+    private Integer provinciaId;
+
     // Constructor vacío
     public PhotoExifEntity() {}
 
@@ -34,13 +43,20 @@ public class PhotoExifEntity {
         this.dateTime = photoExif.getDateTime();
         this.cameraModel = photoExif.getCameraModel();
         this.cameraMaker = photoExif.getCameraMaker();
+        this.localidadId = photoExif.getLocalidadId();
+        this.municipioId = photoExif.getMunicipioId();
+        this.provinciaId = photoExif.getProvinciaId();
     }
 
     // Convertir a entidad de dominio
     public PhotoExif toDomain() {
-        return new PhotoExif(
+        PhotoExif photoExif = new PhotoExif(
                 id, fileName, latitude, longitude, dateTime, cameraModel, cameraMaker
         );
+        photoExif.setLocalidadId(localidadId);
+        photoExif.setMunicipioId(municipioId);
+        photoExif.setProvinciaId(provinciaId);
+        return photoExif;
     }
 
     // Getters y Setters
@@ -60,4 +76,11 @@ public class PhotoExifEntity {
     public String getCameraMaker() { return cameraMaker;  }
 
     public void setCameraMaker(String cameraMaker) { this.cameraMaker = cameraMaker;  }
-}
\ No newline at end of file
+
+    public Integer getLocalidadId() { return localidadId; }
+    public void setLocalidadId(Integer localidadId) { this.localidadId = localidadId; }
+    public Integer getMunicipioId() { return municipioId; }
+    public void setMunicipioId(Integer municipioId) { this.municipioId = municipioId; }
+    public Integer getProvinciaId() { return provinciaId; }
+    public void setProvinciaId(Integer provinciaId) { this.provinciaId = provinciaId; }
+}
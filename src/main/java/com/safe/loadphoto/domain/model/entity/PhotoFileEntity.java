@@ -20,9 +20,16 @@ public class PhotoFileEntity {
     @Column(name = "file_name", nullable = false)
     private String fileName;
 
-    @Column(name = "file_data", nullable = false)
+    // Nulo cuando el contenido vive en el almacén de archivos (photo.store.type=filesystem)
+    @Column(name = "file_data")
     private byte[] fileData;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_length")
+    private Long contentLength;
+
     public PhotoFileEntity() {}
 
     public PhotoFileEntity(PhotoFile photoFile) {
@@ -30,11 +37,16 @@ public class PhotoFileEntity {
         this.idExif = photoFile.getIdExif();
         this.fileName = photoFile.getFileName();
         this.fileData = photoFile.getFileData();
+        this.contentHash = photoFile.getContentHash();
+        this.contentLength = photoFile.getContentLength();
     }
 
     public PhotoFile toDomain() {
-        return new PhotoFile(id, idExif, fileName, fileData
+        PhotoFile photoFile = new PhotoFile(id, idExif, fileName, fileData
         );
+        photoFile.setContentHash(contentHash);
+        photoFile.setContentLength(contentLength);
+        return photoFile;
     }
 
     // Getters y Setters
@@ -46,4 +58,8 @@ public class PhotoFileEntity {
     public void setFileName(String fileName) { this.fileName = fileName; }
     public byte[] getFileData() { return fileData; }
     public void setFileData(byte[] fileData) { this.fileData = fileData; }
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    public Long getContentLength() { return contentLength; }
+    public void setContentLength(Long contentLength) { this.contentLength = contentLength; }
 }
\ No newline at end of file
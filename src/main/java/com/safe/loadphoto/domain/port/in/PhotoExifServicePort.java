@@ -3,11 +3,84 @@ package com.safe.loadphoto.domain.port.in;
 
 
 import com.safe.loadphoto.domain.model.PhotoExif;
+import com.safe.loadphoto.domain.model.PhotoIngestResult;
+import com.safe.loadphoto.domain.model.PhotoIngestStats;
+import com.safe.loadphoto.domain.model.PhotoPageCursor;
+import com.safe.loadphoto.domain.model.PhotoQuery;
+import com.safe.loadphoto.domain.model.PhotoSummary;
+import com.safe.loadphoto.domain.model.PhotoUpload;
+import com.safe.loadphoto.domain.model.PhotoVariant;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface PhotoExifServicePort {
     PhotoExif extractAndSaveExif(String filePath, String fileName, byte []bytes);
 
+    /**
+     * Variante en streaming: la imagen se vuelca a un archivo temporal y nunca se carga entera en memoria.
+     * El stream no se cierra; lo cierra quien lo abrió.
+     */
+    PhotoExif extractAndSaveExif(String filePath, String fileName, InputStream content);
+
+    /**
+     * Variante asíncrona: vuelca el stream a disco en el hilo actual y encola el procesamiento,
+     * incluida la asociación de la foto a la bicicleta del usuario.
+     * Devuelve enseguida; lanza PhotoIngestRejectedException si la cola está llena.
+     */
+    CompletableFuture<PhotoExif> extractAndSaveExifAsync(String filePath, String fileName, InputStream content,
+                                                         Long userId, Long bikeId);
+
+    /**
+     * Procesa varias imágenes: el EXIF se extrae en paralelo y todos los registros se guardan
+     * en un único lote dentro de una transacción. Devuelve un resultado por imagen, en el mismo orden.
+     */
+    List<PhotoIngestResult> extractAndSaveExifBatch(List<PhotoUpload> uploads);
+
+    /**
+     * Variante asíncrona del lote: vuelca los streams a disco en el hilo actual y encola el resto,
+     * incluida la asociación de cada foto guardada a la bicicleta del usuario.
+     * Lanza PhotoIngestRejectedException si la cola está llena.
+     */
+    CompletableFuture<List<PhotoIngestResult>> extractAndSaveExifBatchAsync(List<PhotoUpload> uploads,
+                                                                          Long userId, Long bikeId);
+
     Optional<PhotoExif> getPhotoById(String id);
+
+    /**
+     * Asocia una foto guardada a la bicicleta de un usuario.
+     */
+    void linkPhoto(String exifId, Long userId, Long bikeId);
+
+    /**
+     * Página de la galería, de la foto más reciente a la más antigua. Solo metadatos.
+     *
+     * @param after última fila de la página anterior; nulo para empezar
+     */
+    List<PhotoSummary> findPhotos(PhotoQuery query, PhotoPageCursor after, int limit);
+
+    /**
+     * Escribe la imagen original en el stream. Devuelve los bytes escritos.
+     */
+    long writeOriginal(String exifId, OutputStream out) throws IOException;
+
+    /**
+     * Miniatura o vista media (JPEG) generada al guardar la foto. Nunca lee el original.
+     */
+    Optional<byte[]> getDerivative(String exifId, PhotoVariant variant);
+
+    /**
+     * Versión reducida de una imagen que todavía no se ha guardado, para la vista previa.
+     */
+    byte[] renderPreview(Path image, PhotoVariant variant);
+
+    /**
+     * Contadores de deduplicación por hash de contenido.
+     */
+    PhotoIngestStats getIngestStats();
 }
\ No newline at end of file
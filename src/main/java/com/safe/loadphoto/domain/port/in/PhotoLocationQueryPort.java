@@ -0,0 +1,24 @@
+package com.safe.loadphoto.domain.port.in;
+
+import com.safe.loadphoto.domain.model.PhotoLocation;
+
+import java.util.List;
+
+/**
+ * Búsqueda de fotos por posición GPS.
+ */
+public interface PhotoLocationQueryPort {
+
+    /**
+     * Fotos a menos de radiusMeters del punto, ordenadas de la más cercana a la más lejana.
+     */
+    List<PhotoLocation> findWithinRadius(double latitude, double longitude, double radiusMeters, int limit);
+
+    /**
+     * Fotos dentro del rectángulo indicado, sin orden definido.
+     */
+    List<PhotoLocation> findWithinBoundingBox(double minLatitude, double minLongitude,
+                                              double maxLatitude, double maxLongitude, int limit);
+
+    int size();
+}
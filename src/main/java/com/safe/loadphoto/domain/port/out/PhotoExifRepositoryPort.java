@@ -2,7 +2,23 @@ package com.safe.loadphoto.domain.port.out;
 
 
 import com.safe.loadphoto.domain.model.PhotoExif;
+import com.safe.loadphoto.domain.model.PhotoLocation;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PhotoExifRepositoryPort {
     PhotoExif save(PhotoExif photoExif);
+
+    /**
+     * Inserta todos los registros en un único lote JDBC.
+     */
+    void saveAll(List<PhotoExif> photoExifs);
+    Optional<PhotoExif> findById(String id);
+
+    /**
+     * Recorre en streaming todas las fotos con coordenadas GPS.
+     */
+    void forEachLocation(Consumer<PhotoLocation> consumer);
 }
\ No newline at end of file
@@ -1,12 +1,53 @@
 package com.safe.loadphoto.domain.port.out;
 
 
-import com.safe.loadphoto.domain.model.PhotoExif;
 import com.safe.loadphoto.domain.model.PhotoFile;
+import com.safe.loadphoto.domain.model.PhotoFileContent;
+import com.safe.loadphoto.domain.model.PhotoVariant;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
 import java.util.Optional;
 
 public interface PhotoFileRepositoryPort {
     PhotoFile save(PhotoFile photoFile);
-    Optional<PhotoExif> getPhotoById(String id);
-}
\ No newline at end of file
+
+    /**
+     * Guarda el archivo leyendo el contenido del stream en lugar de photoFile.getFileData().
+     */
+    PhotoFile save(PhotoFile photoFile, InputStream content, long contentLength);
+
+    /**
+     * Guarda varios archivos en un único lote; participa en la transacción en curso.
+     */
+    void saveAll(List<PhotoFileContent> files);
+
+    /**
+     * Metadatos del archivo sin cargar el contenido.
+     */
+    Optional<PhotoFile> findById(String id);
+
+    /**
+     * Primer archivo guardado con ese SHA-256, para no volver a almacenar el mismo contenido.
+     */
+    Optional<PhotoFile> findByContentHash(String contentHash);
+
+    /**
+     * Archivo asociado a un registro EXIF.
+     */
+    Optional<PhotoFile> findByExifId(String exifId);
+
+    /**
+     * Escribe el contenido del archivo en el canal destino y devuelve los bytes copiados.
+     */
+    long transferContent(String id, WritableByteChannel target) throws IOException;
+
+    /**
+     * Guarda una versión reducida (JPEG) junto al original, identificada por el hash del original.
+     */
+    void saveDerivative(String contentHash, PhotoVariant variant, byte[] data);
+
+    Optional<byte[]> findDerivative(String contentHash, PhotoVariant variant);
+}
@@ -0,0 +1,23 @@
+package com.safe.loadphoto.domain.port.out;
+
+import com.safe.loadphoto.domain.model.PhotoPageCursor;
+import com.safe.loadphoto.domain.model.PhotoQuery;
+import com.safe.loadphoto.domain.model.PhotoSummary;
+
+import java.util.List;
+
+/**
+ * Asociación de fotos con usuarios y bicicletas. Una misma foto (deduplicada)
+ * puede estar asociada a varias bicicletas.
+ */
+public interface PhotoLinkRepositoryPort {
+
+    void link(String exifId, Long userId, Long bikeId);
+
+    /**
+     * Página de la galería ordenada de la más reciente a la más antigua.
+     *
+     * @param after cursor de la última fila de la página anterior; nulo para la primera página
+     */
+    List<PhotoSummary> findPage(PhotoQuery query, PhotoPageCursor after, int limit);
+}
@@ -1,10 +1,13 @@
 package com.safe.loadphoto.infrastructure.adapter;
 
 import com.drew.imaging.ImageMetadataReader;
+import com.drew.imaging.ImageProcessingException;
 import com.drew.metadata.Metadata;
 import com.drew.metadata.exif.ExifSubIFDDirectory;
 import com.drew.metadata.exif.GpsDirectory;
 import com.safe.loadphoto.domain.model.PhotoExif;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayInputStream;
@@ -12,6 +15,8 @@ import java.io.ByteArrayInputStream;
 @Component
 public class ExifAdapter {
 
+    private static final Logger logger = LoggerFactory.getLogger(ExifAdapter.class);
+
     public PhotoExif extractExif(byte[] fileData) {
         try {
             // Leer metadatos desde byte[]
@@ -34,8 +39,12 @@ public class ExifAdapter {
             }
 
             return photoExif;
+        } catch (ImageProcessingException e) {
+            // Formato sin metadatos que la librería sepa leer: es esperable, no un error
+            logger.debug("Imagen sin metadatos legibles: {}", e.getMessage());
+            return new PhotoExif(); // Devolver objeto vacío en caso de error
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Error leyendo los metadatos EXIF: {}", e.getMessage(), e);
             return new PhotoExif(); // Devolver objeto vacío en caso de error
         }
     }
@@ -0,0 +1,128 @@
+package com.safe.loadphoto.infrastructure.adapter;
+
+import com.safe.loadphoto.domain.model.PhotoVariant;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Genera las versiones reducidas de una foto con ImageIO (solo JDK).
+ * La imagen se decodifica una sola vez con submuestreo en origen, así una foto de
+ * 12 MP no se expande entera en memoria para sacar una miniatura.
+ */
+@Component
+public class ImageDerivativeAdapter {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    /**
+     * Devuelve un JPEG por cada variante. Lanza IOException si ImageIO no reconoce el formato.
+     */
+    public Map<PhotoVariant, byte[]> render(Path source) throws IOException {
+        int largestEdge = 0;
+        for (PhotoVariant variant : PhotoVariant.values()) {
+            largestEdge = Math.max(largestEdge, variant.getMaxEdge());
+        }
+
+        BufferedImage decoded = decode(source, largestEdge);
+        Map<PhotoVariant, byte[]> result = new EnumMap<>(PhotoVariant.class);
+        for (PhotoVariant variant : PhotoVariant.values()) {
+            result.put(variant, encodeJpeg(scaleToFit(decoded, variant.getMaxEdge())));
+        }
+        return result;
+    }
+
+    public byte[] render(Path source, PhotoVariant variant) throws IOException {
+        return encodeJpeg(scaleToFit(decode(source, variant.getMaxEdge()), variant.getMaxEdge()));
+    }
+
+    private BufferedImage decode(Path source, int targetEdge) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                throw new IOException("Cannot open image " + source);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + source.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+
+                // Se decodifica al doble del tamaño final y el resto lo hace el escalado bilineal
+                int subsampling = Math.max(1, sourceEdge / (targetEdge * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scaleToFit(BufferedImage image, int maxEdge) {
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        // Reducciones sucesivas a la mitad: el bilineal en un solo paso produce aliasing
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = drawScaled(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private BufferedImage drawScaled(BufferedImage image, int width, int height) {
+        // JPEG no tiene transparencia: se pinta sobre fondo blanco
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -2,17 +2,41 @@ package com.safe.loadphoto.infrastructure.persistence.photoexif;
 
 
 import com.safe.loadphoto.domain.model.PhotoExif;
+import com.safe.loadphoto.domain.model.PhotoLocation;
 import com.safe.loadphoto.domain.model.entity.PhotoExifEntity;
 import com.safe.loadphoto.domain.port.out.PhotoExifRepositoryPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class SpringDataPhotoExifRepository implements PhotoExifRepositoryPort {
 
+    private static final String INSERT_SQL =
+            "INSERT INTO photo_exif (id, file_name, latitude, longitude, date_time, camera_model, camera_maker, " +
+            "localidad_id, municipio_id, provincia_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_LOCATIONS_SQL =
+            "SELECT id, latitude, longitude FROM photo_exif WHERE latitude IS NOT NULL AND longitude IS NOT NULL";
+    private static final int LOCATION_FETCH_SIZE = 10_000;
+
     private final SpringDataPhotoExifJpaRepository jpaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
 
-    public SpringDataPhotoExifRepository(SpringDataPhotoExifJpaRepository jpaRepository) {
+    public SpringDataPhotoExifRepository(SpringDataPhotoExifJpaRepository jpaRepository,
+                                         JdbcTemplate jdbcTemplate,
+                                         TransactionTemplate transactionTemplate) {
         this.jpaRepository = jpaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
@@ -21,4 +45,37 @@ public class SpringDataPhotoExifRepository implements PhotoExifRepositoryPort {
         PhotoExifEntity savedEntity = jpaRepository.save(entity);
         return savedEntity.toDomain();
     }
+
+    @Override
+    public void saveAll(List<PhotoExif> photoExifs) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, photoExifs, photoExifs.size(), (ps, exif) -> {
+            ps.setString(1, exif.getId());
+            ps.setString(2, exif.getFileName());
+            ps.setObject(3, exif.getLatitude(), Types.DOUBLE);
+            ps.setObject(4, exif.getLongitude(), Types.DOUBLE);
+            ps.setString(5, exif.getDateTime());
+            ps.setString(6, exif.getCameraModel());
+            ps.setString(7, exif.getCameraMaker());
+            ps.setObject(8, exif.getLocalidadId(), Types.INTEGER);
+            ps.setObject(9, exif.getMunicipioId(), Types.INTEGER);
+            ps.setObject(10, exif.getProvinciaId(), Types.INTEGER);
+        });
+    }
+
+    @Override
+    public Optional<PhotoExif> findById(String id) {
+        return jpaRepository.findById(id).map(PhotoExifEntity::toDomain);
+    }
+
+    @Override
+    public void forEachLocation(Consumer<PhotoLocation> consumer) {
+        // PostgreSQL solo usa cursor (fetch size) dentro de una transacción; sin ella carga todo el resultado
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(SELECT_LOCATIONS_SQL);
+                    ps.setFetchSize(LOCATION_FETCH_SIZE);
+                    return ps;
+                }, (RowCallbackHandler) rs -> consumer.accept(new PhotoLocation(
+                        rs.getString(1), rs.getDouble(2), rs.getDouble(3)))));
+    }
 }
@@ -0,0 +1,157 @@
+package com.safe.loadphoto.infrastructure.persistence.photofile;
+
+import com.safe.loadphoto.domain.model.PhotoFile;
+import com.safe.loadphoto.domain.model.PhotoFileContent;
+import com.safe.loadphoto.domain.model.PhotoVariant;
+import com.safe.loadphoto.domain.port.out.PhotoFileRepositoryPort;
+import com.safe.loadphoto.infrastructure.storage.ContentAddressedBlobStore;
+import com.safe.loadphoto.infrastructure.storage.ContentAddressedBlobStore.BlobRef;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Guarda el contenido en el almacén de archivos direccionado por contenido.
+ * La fila de photo_file solo conserva el hash y el tamaño; file_data queda nulo.
+ */
+@Repository
+@ConditionalOnProperty(name = "photo.store.type", havingValue = "filesystem")
+public class FileSystemPhotoFileRepository implements PhotoFileRepositoryPort {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO photo_file (id, id_exif, file_name, content_hash, content_length) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_METADATA_SQL =
+            "SELECT id, id_exif, file_name, content_hash, content_length FROM photo_file WHERE id = ?";
+    private static final String SELECT_BY_EXIF_SQL =
+            "SELECT id, id_exif, file_name, content_hash, content_length FROM photo_file WHERE id_exif = ? LIMIT 1";
+    private static final String SELECT_BY_HASH_SQL =
+            "SELECT id, id_exif, file_name, content_hash, content_length FROM photo_file WHERE content_hash = ? LIMIT 1";
+
+    private final ContentAddressedBlobStore blobStore;
+    private final JdbcTemplate jdbcTemplate;
+
+    public FileSystemPhotoFileRepository(ContentAddressedBlobStore blobStore, JdbcTemplate jdbcTemplate) {
+        this.blobStore = blobStore;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public PhotoFile save(PhotoFile photoFile) {
+        byte[] data = photoFile.getFileData();
+        if (data == null) {
+            throw new IllegalArgumentException("Photo file has no content");
+        }
+        return save(photoFile, new ByteArrayInputStream(data), data.length);
+    }
+
+    @Override
+    public PhotoFile save(PhotoFile photoFile, InputStream content, long contentLength) {
+        BlobRef blob;
+        try {
+            blob = blobStore.put(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing photo to blob store", e);
+        }
+
+        // El blob queda publicado aunque falle el INSERT; al ser direccionado por contenido
+        // una nueva subida del mismo archivo lo reutiliza
+        jdbcTemplate.update(INSERT_SQL,
+                photoFile.getId(),
+                photoFile.getIdExif(),
+                photoFile.getFileName(),
+                blob.hash(),
+                blob.length());
+        return new PhotoFile(photoFile.getId(), photoFile.getIdExif(), photoFile.getFileName(),
+                blob.hash(), blob.length());
+    }
+
+    @Override
+    public void saveAll(List<PhotoFileContent> files) {
+        // Primero los blobs, fuera de la base; si el INSERT falla quedan huérfanos pero
+        // al ser direccionados por contenido se reutilizan en la siguiente subida
+        List<BlobRef> blobs = new ArrayList<>(files.size());
+        for (PhotoFileContent file : files) {
+            try (InputStream content = Files.newInputStream(file.content())) {
+                blobs.add(blobStore.put(content));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error writing photo to blob store", e);
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PhotoFile photoFile = files.get(i).photoFile();
+                ps.setString(1, photoFile.getId());
+                ps.setString(2, photoFile.getIdExif());
+                ps.setString(3, photoFile.getFileName());
+                ps.setString(4, blobs.get(i).hash());
+                ps.setLong(5, blobs.get(i).length());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return files.size();
+            }
+        });
+    }
+
+    @Override
+    public Optional<PhotoFile> findById(String id) {
+        List<PhotoFile> rows = jdbcTemplate.query(SELECT_METADATA_SQL, PhotoFileRowMapper.INSTANCE, id);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public long transferContent(String id, WritableByteChannel target) throws IOException {
+        PhotoFile photoFile = findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Photo file not found: " + id));
+        if (photoFile.getContentHash() == null) {
+            throw new IllegalStateException("Photo file has not been migrated to the blob store: " + id);
+        }
+        return blobStore.transferTo(photoFile.getContentHash(), target);
+    }
+
+    @Override
+    public Optional<PhotoFile> findByExifId(String exifId) {
+        List<PhotoFile> rows = jdbcTemplate.query(SELECT_BY_EXIF_SQL, PhotoFileRowMapper.INSTANCE, exifId);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public Optional<PhotoFile> findByContentHash(String contentHash) {
+        List<PhotoFile> rows = jdbcTemplate.query(SELECT_BY_HASH_SQL, PhotoFileRowMapper.INSTANCE, contentHash);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public void saveDerivative(String contentHash, PhotoVariant variant, byte[] data) {
+        try {
+            blobStore.putVariant(contentHash, variant.getKey(), data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing photo derivative to blob store", e);
+        }
+    }
+
+    @Override
+    public Optional<byte[]> findDerivative(String contentHash, PhotoVariant variant) {
+        try {
+            return blobStore.readVariant(contentHash, variant.getKey());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading photo derivative from blob store", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.safe.loadphoto.infrastructure.persistence.photofile;
+
+import com.safe.loadphoto.domain.model.PhotoFile;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Proyección de photo_file sin la columna file_data.
+ */
+final class PhotoFileRowMapper implements RowMapper<PhotoFile> {
+
+    static final PhotoFileRowMapper INSTANCE = new PhotoFileRowMapper();
+
+    private PhotoFileRowMapper() {
+    }
+
+    @Override
+    public PhotoFile mapRow(ResultSet rs, int rowNum) throws SQLException {
+        long contentLength = rs.getLong("content_length");
+        boolean lengthIsNull = rs.wasNull();
+        return new PhotoFile(
+                rs.getString("id"),
+                rs.getString("id_exif"),
+                rs.getString("file_name"),
+                rs.getString("content_hash"),
+                lengthIsNull ? null : contentLength
+        );
+    }
+}
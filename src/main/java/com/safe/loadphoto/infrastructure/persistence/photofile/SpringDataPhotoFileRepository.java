@@ -1,21 +1,54 @@
 package com.safe.loadphoto.infrastructure.persistence.photofile;
 
 
-import com.safe.loadphoto.domain.model.PhotoExif;
 import com.safe.loadphoto.domain.model.PhotoFile;
+import com.safe.loadphoto.domain.model.PhotoFileContent;
+import com.safe.loadphoto.domain.model.PhotoVariant;
 import com.safe.loadphoto.domain.model.entity.PhotoFileEntity;
 import com.safe.loadphoto.domain.port.out.PhotoFileRepositoryPort;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Guarda el contenido en la columna photo_file.file_data. Es el almacenamiento por defecto.
+ */
 @Repository
+@ConditionalOnProperty(name = "photo.store.type", havingValue = "database", matchIfMissing = true)
 public class SpringDataPhotoFileRepository implements PhotoFileRepositoryPort {
 
+    private static final String INSERT_STREAMING_SQL =
+            "INSERT INTO photo_file (id, id_exif, file_name, file_data, content_hash, content_length) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_METADATA_SQL =
+            "SELECT id, id_exif, file_name, content_hash, content_length FROM photo_file WHERE id = ?";
+    private static final String SELECT_BY_EXIF_SQL =
+            "SELECT id, id_exif, file_name, content_hash, content_length FROM photo_file WHERE id_exif = ? LIMIT 1";
+    private static final String SELECT_BY_HASH_SQL =
+            "SELECT id, id_exif, file_name, content_hash, content_length FROM photo_file WHERE content_hash = ? LIMIT 1";
+    private static final String INSERT_DERIVATIVE_SQL =
+            "INSERT INTO photo_derivative (content_hash, variant, data) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String SELECT_DERIVATIVE_SQL =
+            "SELECT data FROM photo_derivative WHERE content_hash = ? AND variant = ?";
+    private static final String SELECT_DATA_SQL =
+            "SELECT file_data FROM photo_file WHERE id = ?";
+
     private final SpringDataPhotoFileJpaRepository jpaRepository;
+    private final JdbcTemplate jdbcTemplate;
 
-    public SpringDataPhotoFileRepository(SpringDataPhotoFileJpaRepository jpaRepository) {
+    public SpringDataPhotoFileRepository(SpringDataPhotoFileJpaRepository jpaRepository, JdbcTemplate jdbcTemplate) {
         this.jpaRepository = jpaRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -26,9 +59,104 @@ public class SpringDataPhotoFileRepository implements PhotoFileRepositoryPort {
     }
 
     @Override
-    public Optional<PhotoExif> getPhotoById(String id) {
-        return Optional.empty();
+    public PhotoFile save(PhotoFile photoFile, InputStream content, long contentLength) {
+        // JDBC directo: el driver envía el bytea leyendo del stream, sin pasar por un byte[] de JPA
+        jdbcTemplate.update(INSERT_STREAMING_SQL, ps -> {
+            ps.setString(1, photoFile.getId());
+            ps.setString(2, photoFile.getIdExif());
+            ps.setString(3, photoFile.getFileName());
+            ps.setBinaryStream(4, content, Math.toIntExact(contentLength));
+            ps.setString(5, photoFile.getContentHash());
+            ps.setLong(6, contentLength);
+        });
+        return new PhotoFile(photoFile.getId(), photoFile.getIdExif(), photoFile.getFileName(),
+                photoFile.getContentHash(), contentLength);
+    }
+
+    @Override
+    public void saveAll(List<PhotoFileContent> files) {
+        // Los streams deben seguir abiertos hasta que el driver ejecute el lote
+        List<InputStream> opened = new ArrayList<>(files.size());
+        try {
+            jdbcTemplate.batchUpdate(INSERT_STREAMING_SQL, files, files.size(), (ps, file) -> {
+                PhotoFile photoFile = file.photoFile();
+                InputStream content;
+                try {
+                    content = Files.newInputStream(file.content());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                opened.add(content);
+                ps.setString(1, photoFile.getId());
+                ps.setString(2, photoFile.getIdExif());
+                ps.setString(3, photoFile.getFileName());
+                ps.setBinaryStream(4, content, Math.toIntExact(photoFile.getContentLength()));
+                ps.setString(5, photoFile.getContentHash());
+                ps.setLong(6, photoFile.getContentLength());
+            });
+        } finally {
+            for (InputStream content : opened) {
+                try {
+                    content.close();
+                } catch (IOException ignored) {
+                    // solo lectura de archivos temporales
+                }
+            }
+        }
+    }
+
+    @Override
+    public Optional<PhotoFile> findById(String id) {
+        List<PhotoFile> rows = jdbcTemplate.query(SELECT_METADATA_SQL, PhotoFileRowMapper.INSTANCE, id);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public long transferContent(String id, WritableByteChannel target) throws IOException {
+        OutputStream out = Channels.newOutputStream(target);
+        Long copied;
+        try {
+            copied = jdbcTemplate.query(SELECT_DATA_SQL, rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                try (InputStream data = rs.getBinaryStream(1)) {
+                    return data == null ? 0L : data.transferTo(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, id);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (copied == null) {
+            throw new IllegalArgumentException("Photo file not found: " + id);
+        }
+        out.flush();
+        return copied;
     }
-}
 
+    @Override
+    public Optional<PhotoFile> findByExifId(String exifId) {
+        List<PhotoFile> rows = jdbcTemplate.query(SELECT_BY_EXIF_SQL, PhotoFileRowMapper.INSTANCE, exifId);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public Optional<PhotoFile> findByContentHash(String contentHash) {
+        List<PhotoFile> rows = jdbcTemplate.query(SELECT_BY_HASH_SQL, PhotoFileRowMapper.INSTANCE, contentHash);
+        return rows.stream().findFirst();
+    }
 
+    @Override
+    public void saveDerivative(String contentHash, PhotoVariant variant, byte[] data) {
+        jdbcTemplate.update(INSERT_DERIVATIVE_SQL, contentHash, variant.getKey(), data);
+    }
+
+    @Override
+    public Optional<byte[]> findDerivative(String contentHash, PhotoVariant variant) {
+        List<byte[]> rows = jdbcTemplate.query(SELECT_DERIVATIVE_SQL,
+                (rs, rowNum) -> rs.getBytes(1), contentHash, variant.getKey());
+        return rows.stream().findFirst();
+    }
+}
@@ -0,0 +1,71 @@
+package com.safe.loadphoto.infrastructure.persistence.photolink;
+
+import com.safe.loadphoto.domain.model.PhotoPageCursor;
+import com.safe.loadphoto.domain.model.PhotoQuery;
+import com.safe.loadphoto.domain.model.PhotoSummary;
+import com.safe.loadphoto.domain.port.out.PhotoLinkRepositoryPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class JdbcPhotoLinkRepository implements PhotoLinkRepositoryPort {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO photo_link (exif_id, user_id, bike_id) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+
+    // Solo columnas de metadatos: nunca toca photo_file.file_data
+    private static final String SELECT_PAGE_SQL =
+            "SELECT l.id, l.exif_id, l.bike_id, l.created_at, " +
+            "e.file_name, e.date_time, e.latitude, e.longitude, e.camera_model " +
+            "FROM photo_link l JOIN photo_exif e ON e.id = l.exif_id " +
+            "WHERE l.user_id = ?";
+
+    private static final RowMapper<PhotoSummary> ROW_MAPPER = (rs, rowNum) -> new PhotoSummary(
+            rs.getLong("id"),
+            rs.getString("exif_id"),
+            rs.getObject("bike_id", Long.class),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getString("file_name"),
+            rs.getString("date_time"),
+            rs.getObject("latitude", Double.class),
+            rs.getObject("longitude", Double.class),
+            rs.getString("camera_model"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcPhotoLinkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void link(String exifId, Long userId, Long bikeId) {
+        jdbcTemplate.update(INSERT_SQL, exifId, userId, bikeId);
+    }
+
+    @Override
+    public List<PhotoSummary> findPage(PhotoQuery query, PhotoPageCursor after, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_PAGE_SQL);
+        List<Object> args = new ArrayList<>(5);
+        args.add(query.userId());
+
+        if (query.bikeId() != null) {
+            sql.append(" AND l.bike_id = ?");
+            args.add(query.bikeId());
+        }
+        if (after != null) {
+            // Comparación de filas: usa el índice (user_id, created_at, id) sin saltar filas con OFFSET
+            sql.append(" AND (l.created_at, l.id) < (?, ?)");
+            args.add(Timestamp.valueOf(after.createdAt()));
+            args.add(after.linkId());
+        }
+        sql.append(" ORDER BY l.created_at DESC, l.id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+}
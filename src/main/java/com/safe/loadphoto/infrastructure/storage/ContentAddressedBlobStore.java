@@ -0,0 +1,164 @@
+package com.safe.loadphoto.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Almacén de blobs en disco direccionado por contenido.
+ * Cada blob se guarda como root/ab/cd/abcd... donde el nombre es el SHA-256 del contenido.
+ * Las escrituras van a un archivo temporal y se publican con un rename atómico,
+ * así un lector nunca ve un blob a medio escribir.
+ */
+public class ContentAddressedBlobStore {
+
+    private static final String TMP_DIR = "tmp";
+
+    private final Path root;
+    private final Path tmpDir;
+
+    public ContentAddressedBlobStore(Path root) throws IOException {
+        this.root = root;
+        this.tmpDir = root.resolve(TMP_DIR);
+        Files.createDirectories(tmpDir);
+    }
+
+    /**
+     * Guarda el contenido y devuelve su hash. Si ya existía un blob igual, no se duplica.
+     */
+    public BlobRef put(InputStream content) throws IOException {
+        Path tmp = Files.createTempFile(tmpDir, "blob-", ".tmp");
+        try {
+            MessageDigest digest = newDigest();
+            long length;
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE);
+                 OutputStream out = new DigestOutputStream(Channels.newOutputStream(channel), digest)) {
+                length = content.transferTo(out);
+                out.flush();
+                channel.force(true);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(hash);
+            if (Files.exists(target)) {
+                Files.delete(tmp);
+                return new BlobRef(hash, length);
+            }
+
+            Files.createDirectories(target.getParent());
+            publish(tmp, target);
+            return new BlobRef(hash, length);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    public boolean exists(String hash) {
+        return Files.exists(resolve(hash));
+    }
+
+    public long size(String hash) throws IOException {
+        return Files.size(resolve(hash));
+    }
+
+    public InputStream open(String hash) throws IOException {
+        return Files.newInputStream(resolve(hash));
+    }
+
+    /**
+     * Copia el blob al canal destino con FileChannel.transferTo, que en sockets y archivos
+     * usa copia en el kernel (sendfile) sin pasar los bytes por el heap.
+     */
+    public long transferTo(String hash, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(hash), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Guarda una versión derivada (miniatura, vista media) junto al blob original.
+     */
+    public void putVariant(String hash, String variant, byte[] data) throws IOException {
+        Path target = resolveVariant(hash, variant);
+        Path tmp = Files.createTempFile(tmpDir, "variant-", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(data));
+                channel.force(true);
+            }
+            Files.createDirectories(target.getParent());
+            publish(tmp, target);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    public Optional<byte[]> readVariant(String hash, String variant) throws IOException {
+        Path path = resolveVariant(hash, variant);
+        try {
+            return Optional.of(Files.readAllBytes(path));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    public void delete(String hash) throws IOException {
+        Files.deleteIfExists(resolve(hash));
+    }
+
+    /**
+     * Ruta fragmentada en dos niveles para no acumular millones de archivos en un directorio.
+     */
+    public Path resolve(String hash) {
+        if (hash == null || hash.length() < 4) {
+            throw new IllegalArgumentException("Invalid content hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    public Path resolveVariant(String hash, String variant) {
+        return resolve(hash).resolveSibling(hash + "-" + variant + ".jpg");
+    }
+
+    private void publish(Path tmp, Path target) throws IOException {
+        try {
+            // Si otra subida publicó el mismo contenido a la vez, el rename lo reemplaza por bytes idénticos
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record BlobRef(String hash, long length) {
+    }
+}
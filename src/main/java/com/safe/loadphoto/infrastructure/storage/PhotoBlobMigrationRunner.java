@@ -0,0 +1,92 @@
+package com.safe.loadphoto.infrastructure.storage;
+
+import com.safe.loadphoto.infrastructure.storage.ContentAddressedBlobStore.BlobRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Mueve el contenido de photo_file.file_data al almacén de archivos.
+ * Se activa con photo.store.type=filesystem y photo.store.migrate=true. Procesa por lotes
+ * y cada fila en su propia transacción, así se puede interrumpir y volver a lanzar:
+ * las filas ya migradas tienen file_data nulo y no se vuelven a seleccionar.
+ */
+@Component
+@ConditionalOnExpression("'${photo.store.type:database}' == 'filesystem' and ${photo.store.migrate:false}")
+public class PhotoBlobMigrationRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoBlobMigrationRunner.class);
+
+    private static final String SELECT_PENDING_SQL =
+            "SELECT id FROM photo_file WHERE file_data IS NOT NULL AND id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_DATA_SQL =
+            "SELECT file_data FROM photo_file WHERE id = ? FOR UPDATE";
+    private static final String UPDATE_MIGRATED_SQL =
+            "UPDATE photo_file SET content_hash = ?, content_length = ?, file_data = NULL WHERE id = ?";
+
+    private final ContentAddressedBlobStore blobStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public PhotoBlobMigrationRunner(ContentAddressedBlobStore blobStore,
+                                    JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${photo.store.migrate-batch-size:100}") int batchSize) {
+        this.blobStore = blobStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Migrating photo_file contents to blob store");
+        long migrated = 0;
+        String lastId = "";
+        List<String> ids;
+        do {
+            ids = jdbcTemplate.queryForList(SELECT_PENDING_SQL, String.class, lastId, batchSize);
+            for (String id : ids) {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> migrate(id)))) {
+                    migrated++;
+                }
+                lastId = id;
+            }
+            if (!ids.isEmpty()) {
+                log.info("Migrated {} photo files so far", migrated);
+            }
+        } while (ids.size() == batchSize);
+        log.info("Photo blob migration finished: {} files moved", migrated);
+    }
+
+    private boolean migrate(String id) {
+        // El bytea se lee como stream y se escribe al blob store sin materializarlo en memoria
+        BlobRef blob = jdbcTemplate.query(SELECT_DATA_SQL, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            try (InputStream data = rs.getBinaryStream(1)) {
+                return data == null ? null : blobStore.put(data);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error migrating photo file " + id, e);
+            }
+        }, id);
+        if (blob == null) {
+            return false;
+        }
+        jdbcTemplate.update(UPDATE_MIGRATED_SQL, blob.hash(), blob.length(), id);
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package com.safe.loadphoto.infrastructure.web;
+
+import com.safe.loadphoto.domain.model.PhotoPageCursor;
+import com.safe.loadphoto.domain.model.PhotoQuery;
+import com.safe.loadphoto.domain.model.PhotoSummary;
+import com.safe.loadphoto.domain.port.in.PhotoExifServicePort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Adapta la paginación por clave del servicio a las peticiones offset/limit del Grid.
+ * Guarda el cursor al final de cada bloque leído: al hacer scroll hacia abajo cada
+ * petición continúa desde el cursor anterior y la base nunca recorre filas con OFFSET.
+ */
+final class PhotoGalleryDataProvider {
+
+    private static final int SKIP_CHUNK = 200;
+
+    private final PhotoExifServicePort photoExifService;
+    private final TreeMap<Integer, PhotoPageCursor> cursors = new TreeMap<>();
+    private PhotoQuery query;
+
+    PhotoGalleryDataProvider(PhotoExifServicePort photoExifService, PhotoQuery query) {
+        this.photoExifService = photoExifService;
+        setQuery(query);
+    }
+
+    void setQuery(PhotoQuery query) {
+        this.query = query;
+        cursors.clear();
+        cursors.put(0, null);
+    }
+
+    Stream<PhotoSummary> fetch(int offset, int limit) {
+        Map.Entry<Integer, PhotoPageCursor> start = cursors.floorEntry(offset);
+        int position = start.getKey();
+        PhotoPageCursor cursor = start.getValue();
+
+        // Salto hacia delante (scroll rápido): se avanza por clave hasta el offset pedido
+        while (position < offset) {
+            List<PhotoSummary> skipped = photoExifService.findPhotos(query, cursor,
+                    Math.min(SKIP_CHUNK, offset - position));
+            if (skipped.isEmpty()) {
+                return Stream.empty();
+            }
+            position += skipped.size();
+            cursor = skipped.get(skipped.size() - 1).cursor();
+            cursors.put(position, cursor);
+        }
+
+        List<PhotoSummary> page = photoExifService.findPhotos(query, cursor, limit);
+        if (!page.isEmpty()) {
+            cursors.put(offset + page.size(), page.get(page.size() - 1).cursor());
+        }
+        return page.stream();
+    }
+}
@@ -0,0 +1,115 @@
+package com.safe.loadphoto.infrastructure.web;
+
+import com.safe.bike.domain.model.dto.BikeForPhotoDTO;
+import com.safe.bike.infrastructure.persistence.bike.BikeJpaRepository;
+import com.safe.loadphoto.domain.model.PhotoQuery;
+import com.safe.loadphoto.domain.model.PhotoSummary;
+import com.safe.loadphoto.domain.model.PhotoVariant;
+import com.safe.loadphoto.domain.port.in.PhotoExifServicePort;
+import com.safe.user.application.service.UserServiceImpl;
+import com.safe.user.infrastructure.adapters.input.web.MainLayout;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.Image;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.select.Select;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@Route(value = "photo-gallery", layout = MainLayout.class)
+@PageTitle("Galería de Fotografías")
+public class PhotoGalleryView extends VerticalLayout {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoGalleryView.class);
+    private static final DateTimeFormatter CREATED_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final PhotoExifServicePort photoExifService;
+    private final Grid<PhotoSummary> grid = new Grid<>(PhotoSummary.class, false);
+    private final Select<BikeForPhotoDTO> bikeFilter = new Select<>();
+
+    private Long userId;
+    private PhotoGalleryDataProvider dataProvider;
+
+    public PhotoGalleryView(PhotoExifServicePort photoExifService,
+                            UserServiceImpl userService,
+                            BikeJpaRepository bikeJpaRepository) {
+        this.photoExifService = photoExifService;
+
+        setSizeFull();
+        setPadding(true);
+        setSpacing(true);
+
+        add(new H2("🖼️ Galería de Fotografías"));
+
+        userId = userService.getCurrentUserId();
+        if (userId == null) {
+            Notification.show("❌ No hay sesión activa. Por favor, inicia sesión.");
+            return;
+        }
+
+        createBikeFilter(bikeJpaRepository.findSummariesByUserId(userId));
+        createGrid();
+    }
+
+    private void createBikeFilter(List<BikeForPhotoDTO> bikes) {
+        bikeFilter.setLabel("🚴 Filtrar por bicicleta");
+        bikeFilter.setEmptySelectionAllowed(true);
+        bikeFilter.setEmptySelectionCaption("Todas las bicicletas");
+        bikeFilter.setItems(bikes);
+        bikeFilter.setItemLabelGenerator(bike -> bike == null ? "Todas las bicicletas" : bike.getDisplayLabel());
+        bikeFilter.addValueChangeListener(event -> {
+            BikeForPhotoDTO bike = event.getValue();
+            dataProvider.setQuery(bike == null
+                    ? PhotoQuery.byUser(userId)
+                    : PhotoQuery.byBike(userId, bike.getBikeId()));
+            grid.getDataProvider().refreshAll();
+        });
+        add(bikeFilter);
+    }
+
+    private void createGrid() {
+        grid.addColumn(new ComponentRenderer<>(photo -> {
+                    // La miniatura se pide aparte; el Grid solo trae metadatos
+                    Image thumbnail = new Image(
+                            PhotoResources.derivative(photoExifService, photo.exifId(), PhotoVariant.THUMBNAIL),
+                            photo.fileName());
+                    thumbnail.setHeight("64px");
+                    return thumbnail;
+                }))
+                .setHeader("Foto").setAutoWidth(true).setFlexGrow(0);
+        grid.addColumn(PhotoSummary::fileName).setHeader("Archivo").setAutoWidth(true);
+        grid.addColumn(PhotoSummary::dateTime).setHeader("Fecha de captura").setAutoWidth(true);
+        grid.addColumn(PhotoSummary::cameraModel).setHeader("Cámara").setAutoWidth(true);
+        grid.addColumn(photo -> photo.latitude() == null ? "—"
+                        : String.format("%.5f, %.5f", photo.latitude(), photo.longitude()))
+                .setHeader("GPS").setAutoWidth(true);
+        grid.addColumn(photo -> photo.createdAt().format(CREATED_FORMAT)).setHeader("Subida").setAutoWidth(true);
+        grid.addColumn(new ComponentRenderer<>(photo -> {
+                    Anchor download = new Anchor(
+                            PhotoResources.original(photoExifService, photo.exifId(), photo.fileName()),
+                            "⬇️ Original");
+                    download.getElement().setAttribute("download", true);
+                    return download;
+                }))
+                .setHeader("").setAutoWidth(true).setFlexGrow(0);
+
+        grid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES);
+        grid.setSizeFull();
+
+        dataProvider = new PhotoGalleryDataProvider(photoExifService, PhotoQuery.byUser(userId));
+        // Sin consulta de conteo: el Grid sigue pidiendo filas mientras haya scroll
+        grid.setItems(query -> dataProvider.fetch(query.getOffset(), query.getLimit()));
+
+        add(grid);
+        logger.debug("Galería creada para el usuario {}", userId);
+    }
+}
@@ -0,0 +1,76 @@
+package com.safe.loadphoto.infrastructure.web;
+
+import com.safe.loadphoto.domain.model.PhotoVariant;
+import com.safe.loadphoto.domain.port.in.PhotoExifServicePort;
+import com.vaadin.flow.server.HttpStatusCode;
+import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.server.VaadinResponse;
+
+import java.io.ByteArrayInputStream;
+import java.net.URLConnection;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Recursos de imagen para las vistas de fotos.
+ */
+final class PhotoResources {
+
+    // Las fotos guardadas no cambian nunca: se pueden cachear sin revalidar
+    private static final long DERIVATIVE_CACHE_MILLIS = Duration.ofDays(365).toMillis();
+    private static final String FALLBACK_CONTENT_TYPE = "application/octet-stream";
+
+    private PhotoResources() {
+    }
+
+    /**
+     * Versión reducida de una foto guardada. Solo se lee cuando el navegador pide la imagen.
+     * Si no se generó (falló al guardar la foto), responde 404 sin caché: el navegador muestra el
+     * texto alternativo y vuelve a pedirla la próxima vez.
+     */
+    static StreamResource derivative(PhotoExifServicePort photoExifService, String exifId, PhotoVariant variant) {
+        StreamResource resource = new StreamResource(exifId + "-" + variant.getKey() + ".jpg", (out, session) -> {
+            Optional<byte[]> jpeg = photoExifService.getDerivative(exifId, variant);
+            if (jpeg.isPresent()) {
+                out.write(jpeg.get());
+                return;
+            }
+            // Las cabeceras todavía no se enviaron: se reemplazan las de la caché larga
+            VaadinResponse response = VaadinResponse.getCurrent();
+            if (response != null) {
+                response.setStatus(HttpStatusCode.NOT_FOUND.getCode());
+                response.setCacheTime(0);
+            }
+        });
+        resource.setContentType("image/jpeg");
+        resource.setCacheTime(DERIVATIVE_CACHE_MILLIS);
+        return resource;
+    }
+
+    /**
+     * Imagen original, copiada en streaming desde el almacén al responder la descarga.
+     * El tipo sale de la extensión del archivo guardado.
+     */
+    static StreamResource original(PhotoExifServicePort photoExifService, String exifId, String fileName) {
+        StreamResource resource = new StreamResource(fileName,
+                (out, session) -> photoExifService.writeOriginal(exifId, out));
+        resource.setContentType(contentTypeOf(fileName));
+        resource.setCacheTime(DERIVATIVE_CACHE_MILLIS);
+        return resource;
+    }
+
+    /**
+     * JPEG reducido con cabeceras de caché de larga duración.
+     */
+    static StreamResource derivative(String fileName, byte[] jpeg) {
+        StreamResource resource = new StreamResource(fileName, () -> new ByteArrayInputStream(jpeg));
+        resource.setContentType("image/jpeg");
+        resource.setCacheTime(DERIVATIVE_CACHE_MILLIS);
+        return resource;
+    }
+
+    private static String contentTypeOf(String fileName) {
+        String contentType = fileName == null ? null : URLConnection.guessContentTypeFromName(fileName);
+        return contentType != null ? contentType : FALLBACK_CONTENT_TYPE;
+    }
+}
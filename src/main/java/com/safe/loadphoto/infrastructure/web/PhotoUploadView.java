@@ -3,10 +3,17 @@ package com.safe.loadphoto.infrastructure.web;
 
 import com.safe.bike.domain.model.dto.BikeForPhotoDTO;
 import com.safe.bike.infrastructure.persistence.bike.BikeJpaRepository;
+import com.safe.loadphoto.domain.exception.PhotoIngestRejectedException;
 import com.safe.loadphoto.domain.model.PhotoExif;
+import com.safe.loadphoto.domain.model.PhotoIngestResult;
+import com.safe.loadphoto.domain.model.PhotoIngestStats;
+import com.safe.loadphoto.domain.model.PhotoUpload;
+import com.safe.loadphoto.domain.model.PhotoVariant;
 import com.safe.loadphoto.domain.port.in.PhotoExifServicePort;
 import com.safe.user.application.service.UserServiceImpl;
 import com.safe.user.infrastructure.adapters.input.web.MainLayout;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.html.Div;
@@ -20,7 +27,7 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.component.upload.Upload;
-import com.vaadin.flow.component.upload.receivers.MemoryBuffer;
+import com.vaadin.flow.component.upload.receivers.MultiFileBuffer;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.StreamResource;
@@ -29,18 +36,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Route(value = "photo-upload" , layout = MainLayout.class)
 @PageTitle("Subir Fotografías de Bicicleta")
 public class PhotoUploadView extends VerticalLayout {
     private static final Logger logger = LoggerFactory.getLogger(PhotoUploadView.class);
+    private static final int MAX_FILES = 10;
     private final PhotoExifServicePort photoExifService;
 
     private Upload upload;
-    private MemoryBuffer buffer;
+    private MultiFileBuffer buffer;
     private Button processButton;
     private Select<BikeForPhotoDTO> bikeSelect;
     private TextField fileNameField;
@@ -49,8 +67,9 @@ public class PhotoUploadView extends VerticalLayout {
     private VerticalLayout previewContainer;
     private VerticalLayout exifContainer;
 
-    // Datos temporales
-    private byte[] currentFileData;
+    // Datos temporales: las imágenes quedan en archivos temporales, no en memoria
+    private final Map<String, File> pendingFiles = new LinkedHashMap<>();
+    private File currentFile;
     private String currentFileName;
 
     BikeJpaRepository bikeJpaRepository;
@@ -76,7 +95,10 @@ public class PhotoUploadView extends VerticalLayout {
     private void createHeader() {
         H2 title = new H2("📸 Subir Fotografías de Bicicleta");
         title.getStyle().set("margin-bottom", "20px");
-        add(title);
+        Button galleryButton = new Button("🖼️ Ver galería",
+                event -> getUI().ifPresent(ui -> ui.navigate(PhotoGalleryView.class)));
+        galleryButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        add(new HorizontalLayout(title, galleryButton));
 
         Paragraph description = new Paragraph(
                 "Selecciona una bicicleta y sube fotografías. El sistema extraerá automáticamente " +
@@ -130,33 +152,31 @@ public class PhotoUploadView extends VerticalLayout {
     }
 
     private void createUploadArea() {
-        buffer = new MemoryBuffer();
+        buffer = new MultiFileBuffer();
         upload = new Upload(buffer);
 
         upload.setAcceptedFileTypes("image/jpeg", "image/jpg", "image/png");
-        upload.setMaxFiles(1);
+        upload.setMaxFiles(MAX_FILES);
         upload.setMaxFileSize(50 * 1024 * 1024); // 50MB - debe coincidir con la config
 
-        upload.setUploadButton(new Button("📁 Seleccionar Imagen"));
-        upload.setDropLabel(new Paragraph("Arrastra tu imagen aquí o (máximo 50MB)"));
+        upload.setUploadButton(new Button("📁 Seleccionar Imágenes"));
+        upload.setDropLabel(new Paragraph("Arrastra tus imágenes aquí (hasta " + MAX_FILES + ", máximo 50MB cada una)"));
 
         upload.addSucceededListener(event -> {
             currentFileName = event.getFileName();
-            try {
-                currentFileData = buffer.getInputStream().readAllBytes();
-                fileNameField.setValue(currentFileName);
-                showPreview();
-                processButton.setEnabled(bikeSelect.getValue() != null);
-
-                // Mostrar tamaño del archivo
-                String fileSize = formatFileSize(currentFileData.length);
-                Notification.show("✅ Imagen cargada: " + currentFileName + " (" + fileSize + ")")
-                        .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
-
-            } catch (IOException e) {
-                Notification.show("❌ Error al cargar la imagen: " + e.getMessage())
-                        .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            currentFile = buffer.getFileData(currentFileName).getFile();
+            File replaced = pendingFiles.put(currentFileName, currentFile);
+            if (replaced != null && !replaced.equals(currentFile)) {
+                deleteQuietly(replaced);
             }
+            fileNameField.setValue(String.join(", ", pendingFiles.keySet()));
+            showPreview();
+            processButton.setEnabled(bikeSelect.getValue() != null);
+
+            // Mostrar tamaño del archivo
+            String fileSize = formatFileSize(event.getContentLength());
+            Notification.show("✅ Imagen cargada: " + currentFileName + " (" + fileSize + ")")
+                    .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
         });
 
         upload.addFileRejectedListener(event -> {
@@ -207,7 +227,7 @@ public class PhotoUploadView extends VerticalLayout {
 
         // Habilitar solo cuando hay archivo y bicicleta seleccionada
         bikeSelect.addValueChangeListener(event ->
-                processButton.setEnabled(currentFileData != null && event.getValue() != null));
+                processButton.setEnabled(!pendingFiles.isEmpty() && event.getValue() != null));
 
         add(processButton);
     }
@@ -235,9 +255,23 @@ public class PhotoUploadView extends VerticalLayout {
     private void showPreview() {
         previewContainer.removeAll();
 
-        if (currentFileData != null && currentFileName != null) {
-            StreamResource resource = new StreamResource(currentFileName,
-                    () -> new ByteArrayInputStream(currentFileData));
+        if (currentFile != null && currentFileName != null) {
+            File file = currentFile;
+            StreamResource resource;
+            try {
+                // Se envía al navegador una versión reducida, no la imagen original
+                byte[] jpeg = photoExifService.renderPreview(file.toPath(), PhotoVariant.MEDIUM);
+                resource = PhotoResources.derivative("preview-" + currentFileName + ".jpg", jpeg);
+            } catch (RuntimeException e) {
+                logger.warn("No se pudo generar la vista previa de {}: {}", currentFileName, e.getMessage());
+                resource = new StreamResource(currentFileName, () -> {
+                    try {
+                        return new FileInputStream(file);
+                    } catch (FileNotFoundException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
 
             Image preview = new Image(resource, "Vista previa");
             preview.setMaxWidth("300px");
@@ -252,22 +286,124 @@ public class PhotoUploadView extends VerticalLayout {
     }
 
     private void processImage() {
-        if (currentFileData == null || bikeSelect.getValue() == null) {
+        if (pendingFiles.isEmpty() || bikeSelect.getValue() == null) {
             Notification.show("⚠️ Selecciona una bicicleta y carga una imagen")
                     .addThemeVariants(NotificationVariant.LUMO_ERROR);
             return;
         }
 
+        UI ui = UI.getCurrent();
+        processButton.setEnabled(false);
+        processButton.setText("⏳ Procesando...");
+
+        // Las fotos quedan asociadas a la bicicleta elegida y al usuario de la sesión
+        Long userId = userService.getCurrentUserId();
+        Long bikeId = bikeSelect.getValue().getBikeId();
+
+        if (pendingFiles.size() > 1) {
+            processBatch(ui, userId, bikeId);
+            return;
+        }
+
+        CompletableFuture<PhotoExif> pending;
+        try (InputStream content = new FileInputStream(currentFile)) {
+            // Devuelve enseguida: el EXIF, los guardados y el vínculo corren en el pool de ingesta
+            pending = photoExifService.extractAndSaveExifAsync("uploaded", currentFileName, content, userId, bikeId);
+        } catch (PhotoIngestRejectedException e) {
+            Notification.show("⏳ Hay demasiadas imágenes en proceso. Intenta de nuevo en unos segundos.")
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            restoreProcessButton();
+            return;
+        } catch (Exception e) {
+            Notification.show("💥 Error inesperado: " + e.getMessage())
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            restoreProcessButton();
+            return;
+        }
+
+        // El resultado llega por push cuando termina el procesamiento
+        pending.whenComplete((photoExif, error) -> ui.access(() -> onImageProcessed(photoExif, error)));
+    }
+
+    /**
+     * Varias imágenes: EXIF en paralelo y un único guardado en lote, todo en el pool de ingesta.
+     * El resultado llega por push, igual que con una sola imagen.
+     */
+    private void processBatch(UI ui, Long userId, Long bikeId) {
+        List<InputStream> opened = new ArrayList<>();
+        CompletableFuture<List<PhotoIngestResult>> pending;
+        try {
+            List<PhotoUpload> uploads = new ArrayList<>();
+            for (Map.Entry<String, File> entry : pendingFiles.entrySet()) {
+                InputStream content = new FileInputStream(entry.getValue());
+                opened.add(content);
+                uploads.add(new PhotoUpload(entry.getKey(), content));
+            }
+            // Devuelve después del volcado a disco; los streams se pueden cerrar enseguida
+            pending = photoExifService.extractAndSaveExifBatchAsync(uploads, userId, bikeId);
+        } catch (PhotoIngestRejectedException e) {
+            Notification.show("⏳ Hay demasiadas imágenes en proceso. Intenta de nuevo en unos segundos.")
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            restoreProcessButton();
+            return;
+        } catch (Exception e) {
+            Notification.show("💥 Error inesperado: " + e.getMessage())
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            restoreProcessButton();
+            return;
+        } finally {
+            for (InputStream content : opened) {
+                try {
+                    content.close();
+                } catch (IOException ignored) {
+                    // archivo temporal de solo lectura
+                }
+            }
+        }
+
+        pending.whenComplete((results, error) -> ui.access(() -> onBatchProcessed(results, error)));
+    }
+
+    private void onBatchProcessed(List<PhotoIngestResult> results, Throwable error) {
         try {
-            processButton.setEnabled(false);
-            processButton.setText("⏳ Procesando...");
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                Notification.show("💥 Error inesperado: " + cause.getMessage())
+                        .addThemeVariants(NotificationVariant.LUMO_ERROR);
+                return;
+            }
+
+            long failed = results.stream().filter(r -> !r.isSuccess()).count();
+            results.stream()
+                    .filter(r -> !r.isSuccess())
+                    .forEach(r -> Notification.show("❌ " + r.fileName() + ": " + r.error())
+                            .addThemeVariants(NotificationVariant.LUMO_ERROR));
 
-            // TODO: Aquí deberías obtener el bikeId real basado en la selección
-            // Por ahora usamos un ID simulado
-            //String selectedBike = bikeSelect.getValue();
+            if (failed < results.size()) {
+                Notification.show("🎉 " + (results.size() - failed) + " de " + results.size()
+                                + " imágenes procesadas y guardadas")
+                        .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+                resetForm();
+            }
+        } finally {
+            restoreProcessButton();
+        }
+    }
+
+    private void onImageProcessed(PhotoExif photoExif, Throwable error) {
+        try {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                Notification.show("💥 Error inesperado: " + cause.getMessage())
+                        .addThemeVariants(NotificationVariant.LUMO_ERROR);
+                return;
+            }
 
-            PhotoExif photoExif = photoExifService.extractAndSaveExif(
-                    "uploaded", currentFileName, currentFileData);
+            PhotoIngestStats stats = photoExifService.getIngestStats();
+            logger.info("Deduplicación: {}/{} subidas repetidas, {} bytes ahorrados",
+                    stats.dedupHits(), stats.uploads(), stats.bytesSaved());
 
             if (photoExif != null) {
                 showExifData(photoExif);
@@ -280,16 +416,16 @@ public class PhotoUploadView extends VerticalLayout {
                 Notification.show("❌ Error al procesar la imagen")
                         .addThemeVariants(NotificationVariant.LUMO_ERROR);
             }
-
-        } catch (Exception e) {
-            Notification.show("💥 Error inesperado: " + e.getMessage())
-                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
         } finally {
-            processButton.setEnabled(true);
-            processButton.setText("🔄 Procesar y Guardar Imagen");
+            restoreProcessButton();
         }
     }
 
+    private void restoreProcessButton() {
+        processButton.setEnabled(true);
+        processButton.setText("🔄 Procesar y Guardar Imagen");
+    }
+
     private void showExifData(PhotoExif exif) {
         exifContainer.removeAll();
 
@@ -363,7 +499,7 @@ public class PhotoUploadView extends VerticalLayout {
     }
 
     private void resetForm() {
-        currentFileData = null;
+        deletePendingFiles();
         currentFileName = null;
         fileNameField.clear();
         bikeSelect.clear();
@@ -375,5 +511,26 @@ public class PhotoUploadView extends VerticalLayout {
         upload.clearFileList();
     }
 
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        super.onDetach(detachEvent);
+        // La vista se cierra sin procesar: no dejar las imágenes en el directorio temporal
+        deletePendingFiles();
+    }
+
+    private void deletePendingFiles() {
+        pendingFiles.values().forEach(this::deleteQuietly);
+        pendingFiles.clear();
+        currentFile = null;
+    }
+
+    private void deleteQuietly(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            logger.warn("No se pudo borrar el archivo temporal {}: {}", file, e.getMessage());
+        }
+    }
+
 
 }
\ No newline at end of file
@@ -1,71 +1,503 @@
 package com.safe.loadphoto.service;
 
 import com.drew.imaging.jpeg.JpegMetadataReader;
+import com.drew.imaging.jpeg.JpegProcessingException;
 import com.drew.lang.GeoLocation;
 import com.drew.metadata.Metadata;
 import com.drew.metadata.exif.ExifIFD0Directory;
 import com.drew.metadata.exif.GpsDirectory;
+import com.safe.loadphoto.domain.event.PhotoExifSavedEvent;
+import com.safe.loadphoto.domain.exception.PhotoIngestRejectedException;
 import com.safe.loadphoto.domain.model.PhotoExif;
 import com.safe.loadphoto.domain.model.PhotoFile;
+import com.safe.loadphoto.domain.model.PhotoFileContent;
+import com.safe.loadphoto.domain.model.PhotoIngestResult;
+import com.safe.loadphoto.domain.model.PhotoIngestStats;
+import com.safe.loadphoto.domain.model.PhotoPageCursor;
+import com.safe.loadphoto.domain.model.PhotoQuery;
+import com.safe.loadphoto.domain.model.PhotoSummary;
+import com.safe.loadphoto.domain.model.PhotoUpload;
+import com.safe.loadphoto.domain.model.PhotoVariant;
 import com.safe.loadphoto.domain.port.in.PhotoExifServicePort;
 import com.safe.loadphoto.domain.port.out.PhotoExifRepositoryPort;
 import com.safe.loadphoto.domain.port.out.PhotoFileRepositoryPort;
+import com.safe.loadphoto.domain.port.out.PhotoLinkRepositoryPort;
 import com.safe.loadphoto.infrastructure.adapter.ExifAdapter;
+import com.safe.loadphoto.infrastructure.adapter.ImageDerivativeAdapter;
+import com.safe.location.domain.port.in.GeocodificacionInversaPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 
 @Service
 public class PhotoExifService implements PhotoExifServicePort {
 
+    private static final Logger logger = LoggerFactory.getLogger(PhotoExifService.class);
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final ExifAdapter exifAdapter;
+    private final ImageDerivativeAdapter derivativeAdapter;
     private final PhotoExifRepositoryPort exifRepositoryPort;
     private final PhotoFileRepositoryPort fileRepositoryPort;
+    private final PhotoLinkRepositoryPort linkRepositoryPort;
+    private final Path spoolDirectory;
+    private final int maxHeaderBytes;
+    private final PhotoIngestWorkerPool workerPool;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GeocodificacionInversaPort geocodificacionInversa;
+
+    private final LongAdder uploads = new LongAdder();
+    private final LongAdder dedupHits = new LongAdder();
+    private final LongAdder bytesUploaded = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
 
-    public PhotoExifService(ExifAdapter exifAdapter, PhotoExifRepositoryPort exifRepositoryPort, PhotoFileRepositoryPort fileRepositoryPort) {
+    public PhotoExifService(ExifAdapter exifAdapter,
+                            ImageDerivativeAdapter derivativeAdapter,
+                            PhotoExifRepositoryPort exifRepositoryPort,
+                            PhotoFileRepositoryPort fileRepositoryPort,
+                            PhotoLinkRepositoryPort linkRepositoryPort,
+                            Path spoolDirectory,
+                            int maxHeaderBytes,
+                            PhotoIngestWorkerPool workerPool,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            GeocodificacionInversaPort geocodificacionInversa) {
         this.exifAdapter = exifAdapter;
+        this.derivativeAdapter = derivativeAdapter;
         this.exifRepositoryPort = exifRepositoryPort;
         this.fileRepositoryPort = fileRepositoryPort;
+        this.linkRepositoryPort = linkRepositoryPort;
+        this.spoolDirectory = spoolDirectory;
+        this.maxHeaderBytes = maxHeaderBytes;
+        this.workerPool = workerPool;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.geocodificacionInversa = geocodificacionInversa;
     }
 
 
     @Override
     public PhotoExif extractAndSaveExif(String filePath, String fileName, byte[] fileData) {
+        if (fileData == null || fileData.length == 0) {
+            throw new RuntimeException("Error processing EXIF data or saving to database",
+                    new IllegalArgumentException("File data cannot be null or empty"));
+        }
+        return extractAndSaveExif(filePath, fileName, new ByteArrayInputStream(fileData));
+    }
+
+    @Override
+    public PhotoExif extractAndSaveExif(String filePath, String fileName, InputStream content) {
+        // El contenido se vuelca a disco: el heap por subida no depende del tamaño de la imagen
+        try (PhotoSpool spool = PhotoSpool.spool(content, spoolDirectory)) {
+            return ingest(spool, fileName);
+        } catch (Exception e) {
+            logger.error("Error procesando la imagen {}: {}", fileName, e.getMessage(), e);
+            throw new RuntimeException("Error processing EXIF data or saving to database", e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<PhotoExif> extractAndSaveExifAsync(String filePath, String fileName, InputStream content,
+                                                                Long userId, Long bikeId) {
+        // El volcado a disco se hace en el hilo de quien llama, que es el dueño del stream;
+        // el parseo y los guardados van al pool
+        PhotoSpool spool;
+        try {
+            spool = PhotoSpool.spool(content, spoolDirectory);
+        } catch (IOException e) {
+            logger.error("Error procesando la imagen {}: {}", fileName, e.getMessage(), e);
+            throw new UncheckedIOException("Error spooling photo upload", e);
+        }
+
+        try {
+            return workerPool.submit(() -> {
+                try (spool) {
+                    PhotoExif photoExif = ingest(spool, fileName);
+                    linkPhoto(photoExif.getId(), userId, bikeId);
+                    return photoExif;
+                } catch (Exception e) {
+                    logger.error("Error procesando la imagen {}: {}", fileName, e.getMessage(), e);
+                    throw new RuntimeException("Error processing EXIF data or saving to database", e);
+                }
+            });
+        } catch (PhotoIngestRejectedException e) {
+            closeQuietly(spool);
+            throw e;
+        }
+    }
+
+    private PhotoExif ingest(PhotoSpool spool, String fileName) throws IOException {
+        if (spool.getSize() == 0) {
+            throw new IllegalArgumentException("File data cannot be null or empty");
+        }
+        uploads.increment();
+        bytesUploaded.add(spool.getSize());
+
+        // Mismo contenido ya almacenado: se reutiliza su EXIF sin volver a parsear ni guardar
+        Optional<PhotoExif> existing = findExistingExif(spool.getContentHash());
+        if (existing.isPresent()) {
+            dedupHits.increment();
+            bytesSaved.add(spool.getSize());
+            logger.debug("Imagen {} duplicada de {}", fileName, existing.get().getFileName());
+            return existing.get();
+        }
+
+        // Los metadatos están al principio del archivo: solo se lee ese prefijo
+        PhotoExif photoExif;
+        try (InputStream header = spool.openHeader(maxHeaderBytes)) {
+            photoExif = extractExif(header);
+        }
+        if (photoExif == null) {
+            throw new IllegalStateException("Failed to extract EXIF data");
+        }
+        resolveLocation(photoExif);
+
+        // Asigna ID y nombre de archivo
+        photoExif.setId(UUID.randomUUID().toString());
+        photoExif.setFileName(fileName);
+
+        // Guarda EXIF
+        PhotoExif savedExif = exifRepositoryPort.save(photoExif);
+
+        // Guarda archivo en streaming desde la copia en disco
+        PhotoFile photoFile = new PhotoFile(UUID.randomUUID().toString(), savedExif.getId(), fileName,
+                spool.getContentHash(), spool.getSize());
+        try (InputStream data = spool.open()) {
+            fileRepositoryPort.save(photoFile, data, spool.getSize());
+        }
+
+        saveDerivatives(spool, fileName);
+        eventPublisher.publishEvent(PhotoExifSavedEvent.of(savedExif));
+        return savedExif;
+    }
+
+    /**
+     * Las miniaturas se generan una sola vez aquí; si la imagen no se puede decodificar
+     * la foto queda guardada igualmente, sin versiones reducidas.
+     */
+    private void saveDerivatives(PhotoSpool spool, String fileName) {
+        try {
+            Map<PhotoVariant, byte[]> derivatives = derivativeAdapter.render(spool.getPath());
+            derivatives.forEach((variant, data) ->
+                    fileRepositoryPort.saveDerivative(spool.getContentHash(), variant, data));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("No se generaron miniaturas para {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<byte[]> getDerivative(String exifId, PhotoVariant variant) {
+        return fileRepositoryPort.findByExifId(exifId)
+                .map(PhotoFile::getContentHash)
+                .flatMap(hash -> fileRepositoryPort.findDerivative(hash, variant));
+    }
+
+    @Override
+    public byte[] renderPreview(Path image, PhotoVariant variant) {
+        try {
+            return derivativeAdapter.render(image, variant);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error rendering photo preview", e);
+        }
+    }
+
+    @Override
+    public List<PhotoIngestResult> extractAndSaveExifBatch(List<PhotoUpload> batch) {
+        SpooledBatch spooled = spoolBatch(batch);
+        try {
+            return ingestBatch(spooled);
+        } finally {
+            spooled.close();
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<PhotoIngestResult>> extractAndSaveExifBatchAsync(List<PhotoUpload> batch,
+                                                                                 Long userId, Long bikeId) {
+        // Igual que con una sola imagen: el volcado a disco en el hilo de quien llama, el resto al pool
+        SpooledBatch spooled = spoolBatch(batch);
+        try {
+            return workerPool.submit(() -> {
+                try {
+                    List<PhotoIngestResult> results = ingestBatch(spooled);
+                    results.replaceAll(result -> result.isSuccess() ? linkResult(result, userId, bikeId) : result);
+                    return results;
+                } finally {
+                    spooled.close();
+                }
+            });
+        } catch (PhotoIngestRejectedException e) {
+            spooled.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Un vínculo que falla marca solo esa foto: el resto del lote conserva su resultado.
+     */
+    private PhotoIngestResult linkResult(PhotoIngestResult result, Long userId, Long bikeId) {
+        try {
+            linkPhoto(result.photoExif().getId(), userId, bikeId);
+            return result;
+        } catch (RuntimeException e) {
+            logger.error("Error vinculando la imagen {}: {}", result.fileName(), e.getMessage(), e);
+            return PhotoIngestResult.failed(result.fileName(), "Error linking photo");
+        }
+    }
+
+    /**
+     * Paso 1 del lote: volcado a disco en el hilo que llama, porque los streams son suyos.
+     */
+    private SpooledBatch spoolBatch(List<PhotoUpload> batch) {
+        SpooledBatch spooled = new SpooledBatch(batch, new ArrayList<>(Collections.nCopies(batch.size(), null)),
+                new PhotoIngestResult[batch.size()]);
+        for (int i = 0; i < batch.size(); i++) {
+            PhotoUpload upload = batch.get(i);
+            try {
+                PhotoSpool spool = PhotoSpool.spool(upload.content(), spoolDirectory);
+                spooled.spools().set(i, spool);
+                if (spool.getSize() == 0) {
+                    spooled.results()[i] = PhotoIngestResult.failed(upload.fileName(), "File data cannot be null or empty");
+                }
+            } catch (IOException e) {
+                spooled.results()[i] = PhotoIngestResult.failed(upload.fileName(), e.getMessage());
+            }
+        }
+        return spooled;
+    }
+
+    private List<PhotoIngestResult> ingestBatch(SpooledBatch spooled) {
+        List<PhotoUpload> batch = spooled.uploads();
+        PhotoIngestResult[] results = spooled.results();
+
+        // 2. EXIF y miniaturas en paralelo en el pool de ingesta
+        List<Integer> preparedIndexes = new ArrayList<>();
+        List<Supplier<PreparedPhoto>> tasks = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (results[i] == null) {
+                PhotoSpool spool = spooled.spools().get(i);
+                String fileName = batch.get(i).fileName();
+                preparedIndexes.add(i);
+                tasks.add(() -> prepare(spool, fileName));
+            }
+        }
+        List<CompletableFuture<PreparedPhoto>> pending = workerPool.runAll(tasks);
+
+        // 3. Un único lote en una transacción para todo lo que hay que guardar
+        Map<String, PreparedPhoto> toStore = new LinkedHashMap<>();
+        List<Integer> storedIndexes = new ArrayList<>();
+        // Repetidos dentro del lote: su EXIF existe recién cuando el lote se confirma
+        Map<Integer, PreparedPhoto> sameInBatchIndexes = new LinkedHashMap<>();
+        for (int task = 0; task < preparedIndexes.size(); task++) {
+            int i = preparedIndexes.get(task);
+            String fileName = batch.get(i).fileName();
+            PreparedPhoto prepared;
+            try {
+                prepared = pending.get(task).join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.error("Error procesando la imagen {}: {}", fileName, cause.getMessage(), cause);
+                results[i] = PhotoIngestResult.failed(fileName, cause.getMessage());
+                continue;
+            }
+
+            uploads.increment();
+            bytesUploaded.add(prepared.spool().getSize());
+            PreparedPhoto sameInBatch = toStore.get(prepared.spool().getContentHash());
+            if (prepared.existing() != null) {
+                dedupHits.increment();
+                bytesSaved.add(prepared.spool().getSize());
+                results[i] = PhotoIngestResult.duplicate(fileName, prepared.existing());
+            } else if (sameInBatch != null) {
+                sameInBatchIndexes.put(i, sameInBatch);
+            } else {
+                toStore.put(prepared.spool().getContentHash(), prepared);
+                storedIndexes.add(i);
+            }
+        }
+
+        if (toStore.isEmpty()) {
+            return Arrays.asList(results);
+        }
+        boolean committed = storeBatch(toStore.values(), storedIndexes, batch, results);
+        sameInBatchIndexes.forEach((i, source) -> {
+            String fileName = batch.get(i).fileName();
+            if (committed) {
+                dedupHits.increment();
+                bytesSaved.add(source.spool().getSize());
+                results[i] = PhotoIngestResult.duplicate(fileName, source.exif());
+            } else {
+                results[i] = PhotoIngestResult.failed(fileName, "Error saving batch to database");
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * @return false si la transacción se revirtió; los índices guardados quedan como fallidos
+     */
+    private boolean storeBatch(Collection<PreparedPhoto> toStore, List<Integer> storedIndexes,
+                            List<PhotoUpload> batch, PhotoIngestResult[] results) {
+        List<PhotoExif> exifs = new ArrayList<>(toStore.size());
+        List<PhotoFileContent> files = new ArrayList<>(toStore.size());
+        for (PreparedPhoto prepared : toStore) {
+            PhotoSpool spool = prepared.spool();
+            exifs.add(prepared.exif());
+            files.add(new PhotoFileContent(
+                    new PhotoFile(UUID.randomUUID().toString(), prepared.exif().getId(), prepared.exif().getFileName(),
+                            spool.getContentHash(), spool.getSize()),
+                    spool.getPath()));
+        }
+
         try {
-            if (fileData == null || fileData.length == 0) {
-                throw new IllegalArgumentException("File data cannot be null or empty");
+            transactionTemplate.executeWithoutResult(status -> {
+                exifRepositoryPort.saveAll(exifs);
+                fileRepositoryPort.saveAll(files);
+            });
+        } catch (RuntimeException e) {
+            // Todo o nada: el lote entero se revierte
+            logger.error("Error guardando el lote de {} imágenes: {}", exifs.size(), e.getMessage(), e);
+            for (int index : storedIndexes) {
+                results[index] = PhotoIngestResult.failed(batch.get(index).fileName(),
+                        "Error saving batch to database");
             }
+            return false;
+        }
+
+        eventPublisher.publishEvent(new PhotoExifSavedEvent(exifs));
 
-            PhotoExif photoExif = extractExif(fileData);
-            if (photoExif == null) {
-                throw new IllegalStateException("Failed to extract EXIF data");
+        Iterator<PreparedPhoto> prepared = toStore.iterator();
+        for (int index : storedIndexes) {
+            PreparedPhoto photo = prepared.next();
+            results[index] = PhotoIngestResult.stored(batch.get(index).fileName(), photo.exif());
+            try {
+                photo.derivatives().forEach((variant, data) ->
+                        fileRepositoryPort.saveDerivative(photo.spool().getContentHash(), variant, data));
+            } catch (RuntimeException e) {
+                logger.warn("No se guardaron miniaturas para {}: {}", photo.exif().getFileName(), e.getMessage());
             }
+        }
+        return true;
+    }
 
-            // Asigna ID y nombre de archivo
-            photoExif.setId(UUID.randomUUID().toString());
-            photoExif.setFileName(fileName);
+    /**
+     * Trabajo de CPU de una imagen del lote; no escribe en la base.
+     */
+    private PreparedPhoto prepare(PhotoSpool spool, String fileName) {
+        Optional<PhotoExif> existing = findExistingExif(spool.getContentHash());
+        if (existing.isPresent()) {
+            return new PreparedPhoto(spool, null, existing.get(), Map.of());
+        }
 
-            // Guarda EXIF
-            PhotoExif savedExif = exifRepositoryPort.save(photoExif);
+        PhotoExif photoExif;
+        try (InputStream header = spool.openHeader(maxHeaderBytes)) {
+            photoExif = extractExif(header);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (photoExif == null) {
+            throw new IllegalStateException("Failed to extract EXIF data");
+        }
+        resolveLocation(photoExif);
+        photoExif.setId(UUID.randomUUID().toString());
+        photoExif.setFileName(fileName);
 
-            // Guarda archivo
-            PhotoFile photoFile = new PhotoFile(UUID.randomUUID().toString(), savedExif.getId(), fileName, fileData);
-            fileRepositoryPort.save(photoFile);
+        Map<PhotoVariant, byte[]> derivatives;
+        try {
+            derivatives = derivativeAdapter.render(spool.getPath());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("No se generaron miniaturas para {}: {}", fileName, e.getMessage());
+            derivatives = Map.of();
+        }
+        return new PreparedPhoto(spool, photoExif, null, derivatives);
+    }
 
-            return savedExif;
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Error processing EXIF data or saving to database", e);
+    /**
+     * Asocia la foto a la localidad más cercana a su GPS, si la hay.
+     */
+    private void resolveLocation(PhotoExif photoExif) {
+        if (photoExif.getLatitude() == null || photoExif.getLongitude() == null) {
+            return;
         }
+        geocodificacionInversa.resolver(photoExif.getLatitude(), photoExif.getLongitude())
+                .ifPresent(ubicacion -> {
+                    photoExif.setLocalidadId(ubicacion.localidadId());
+                    photoExif.setMunicipioId(ubicacion.municipioId());
+                    photoExif.setProvinciaId(ubicacion.provinciaId());
+                });
+    }
+
+    private record PreparedPhoto(PhotoSpool spool, PhotoExif exif, PhotoExif existing,
+                                 Map<PhotoVariant, byte[]> derivatives) {
     }
 
+    /**
+     * Lote ya volcado a disco. Los resultados que faltan se completan al procesarlo.
+     */
+    private record SpooledBatch(List<PhotoUpload> uploads, List<PhotoSpool> spools, PhotoIngestResult[] results) {
+
+        void close() {
+            spools.stream().filter(spool -> spool != null).forEach(PhotoExifService::closeQuietly);
+        }
+    }
+
+    private static void closeQuietly(PhotoSpool spool) {
+        try {
+            spool.close();
+        } catch (IOException e) {
+            logger.warn("No se pudo borrar el archivo temporal {}: {}", spool.getPath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Dos subidas simultáneas del mismo archivo pueden no verse entre sí y guardarse ambas;
+     * es aceptable, la siguiente subida ya encuentra una de las dos.
+     */
+    private Optional<PhotoExif> findExistingExif(String contentHash) {
+        return fileRepositoryPort.findByContentHash(contentHash)
+                .map(PhotoFile::getIdExif)
+                .flatMap(exifRepositoryPort::findById);
+    }
+
+    @Override
+    public PhotoIngestStats getIngestStats() {
+        return new PhotoIngestStats(uploads.sum(), dedupHits.sum(), bytesUploaded.sum(), bytesSaved.sum());
+    }
 
     public PhotoExif extractExif(byte[] fileData) {
+        return extractExif(new ByteArrayInputStream(fileData));
+    }
+
+    public PhotoExif extractExif(InputStream inputStream) {
         try {
-            Metadata metadata = JpegMetadataReader.readMetadata(new ByteArrayInputStream(fileData));
+            Metadata metadata = JpegMetadataReader.readMetadata(inputStream);
             PhotoExif exif = new PhotoExif();
 
             ExifIFD0Directory directory = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
@@ -74,19 +506,19 @@ public class PhotoExifService implements PhotoExifServicePort {
                 if (directory.containsTag(ExifIFD0Directory.TAG_MAKE)) {
                     String make = directory.getString(ExifIFD0Directory.TAG_MAKE);
                     exif.setCameraMaker(make.trim());
-                    System.out.println("🏭 Fabricante extraído: " + make);
+                    logger.debug("Fabricante extraído: {}", make);
                 }
 
                 if (directory.containsTag(ExifIFD0Directory.TAG_MODEL)) {
                     String model = directory.getString(ExifIFD0Directory.TAG_MODEL);
                     exif.setCameraModel(model.trim());
-                    System.out.println("📸 Modelo extraído: " + model);
+                    logger.debug("Modelo extraído: {}", model);
                 }
 
                 if (directory.containsTag(ExifIFD0Directory.TAG_DATETIME)) {
                     String dateTime = directory.getString(ExifIFD0Directory.TAG_DATETIME);
                     exif.setDateTime(dateTime != null ? dateTime.trim() : null);
-                    System.out.println("📅 Fecha y hora extraída: " + dateTime);
+                    logger.debug("Fecha y hora extraída: {}", dateTime);
                 }
 
             }
@@ -96,19 +528,40 @@ public class PhotoExifService implements PhotoExifServicePort {
                 GeoLocation geoLocation = gpsDirectory.getGeoLocation();
                 exif.setLatitude(geoLocation.getLatitude());
                 exif.setLongitude(geoLocation.getLongitude());
-                System.out.println("📍 Latitud: " + geoLocation.getLatitude());
-                System.out.println("📍 Longitud: " + geoLocation.getLongitude());
+                logger.debug("Ubicación extraída: {}, {}", geoLocation.getLatitude(), geoLocation.getLongitude());
             }
 
             return exif;
+        } catch (JpegProcessingException e) {
+            // PNG, HEIC y otros formatos no traen un JPEG que leer: es esperable, no un error
+            logger.debug("La imagen no es un JPEG legible: {}", e.getMessage());
+            return null;
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Error leyendo los metadatos EXIF: {}", e.getMessage(), e);
             return null;
         }
     }
 
     @Override
     public Optional<PhotoExif> getPhotoById(String id) {
-        return null;
+        return exifRepositoryPort.findById(id);
+    }
+
+    @Override
+    public void linkPhoto(String exifId, Long userId, Long bikeId) {
+        linkRepositoryPort.link(exifId, userId, bikeId);
+    }
+
+    @Override
+    public List<PhotoSummary> findPhotos(PhotoQuery query, PhotoPageCursor after, int limit) {
+        return linkRepositoryPort.findPage(query, after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    @Override
+    public long writeOriginal(String exifId, OutputStream out) throws IOException {
+        PhotoFile photoFile = fileRepositoryPort.findByExifId(exifId)
+                .orElseThrow(() -> new IllegalArgumentException("Photo not found: " + exifId));
+        WritableByteChannel channel = Channels.newChannel(out);
+        return fileRepositoryPort.transferContent(photoFile.getId(), channel);
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.safe.loadphoto.service;
+
+import com.safe.loadphoto.domain.exception.PhotoIngestRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool de hilos acotado para el procesamiento de fotos (EXIF y guardado).
+ * La cola tiene capacidad fija: cuando está llena la tarea se rechaza con
+ * PhotoIngestRejectedException en lugar de acumular trabajo en el heap.
+ * No implementa Executor a propósito, para no sustituir al applicationTaskExecutor de Spring.
+ */
+public class PhotoIngestWorkerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoIngestWorkerPool.class);
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+
+    public PhotoIngestWorkerPool(int workers, int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new IngestThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Encola la tarea y devuelve un handle que se completa en un hilo del pool.
+     *
+     * @throws PhotoIngestRejectedException si la cola está llena
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new PhotoIngestRejectedException(
+                    "Photo processing queue is full (" + queueCapacity + " pending)", queueCapacity, e);
+        }
+    }
+
+    /**
+     * Ejecuta las tareas en paralelo y espera a que terminen todas. Quien llama también trabaja:
+     * ejecuta las tareas que ningún hilo del pool empezó, incluidas las que no entraron en la cola.
+     * Por eso se puede llamar desde un hilo del pool sin quedar esperando tareas que están detrás
+     * en la misma cola. Los futures devueltos ya están completos, en el orden de las tareas.
+     */
+    public <T> List<CompletableFuture<T>> runAll(List<Supplier<T>> tasks) {
+        List<ClaimableTask<T>> claimable = new ArrayList<>(tasks.size());
+        for (Supplier<T> task : tasks) {
+            ClaimableTask<T> claimableTask = new ClaimableTask<>(task);
+            claimable.add(claimableTask);
+            try {
+                executor.execute(claimableTask);
+            } catch (RejectedExecutionException e) {
+                // Cola llena: la ejecuta quien llama más abajo; el lote se frena en lugar de fallar
+            }
+        }
+        List<CompletableFuture<T>> results = new ArrayList<>(claimable.size());
+        for (ClaimableTask<T> task : claimable) {
+            task.run();
+            results.add(task.result);
+        }
+        for (CompletableFuture<T> result : results) {
+            result.handle((value, error) -> null).join();
+        }
+        return results;
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Quedaron {} fotos sin procesar al apagar", executor.getQueue().size());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Tarea que corre una sola vez: la ejecuta el primero que la toma, sea un hilo del pool o quien espera.
+     */
+    private static final class ClaimableTask<T> implements Runnable {
+
+        private final Supplier<T> task;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private ClaimableTask(Supplier<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class IngestThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "photo-ingest-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
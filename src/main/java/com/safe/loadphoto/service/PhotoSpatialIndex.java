@@ -0,0 +1,297 @@
+package com.safe.loadphoto.service;
+
+import com.safe.loadphoto.domain.event.PhotoExifSavedEvent;
+import com.safe.loadphoto.domain.model.PhotoExif;
+import com.safe.loadphoto.domain.model.PhotoLocation;
+import com.safe.loadphoto.domain.port.in.PhotoLocationQueryPort;
+import com.safe.loadphoto.domain.port.out.PhotoExifRepositoryPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Índice espacial en memoria de las fotos con GPS.
+ * Divide el mundo en celdas de cellDegrees x cellDegrees; cada celda guarda sus puntos en arrays
+ * primitivos inmutables que se reemplazan al añadir (copy-on-append), así las consultas leen sin
+ * bloqueos. Una búsqueda solo visita las celdas que cubren el área pedida.
+ */
+public class PhotoSpatialIndex implements PhotoLocationQueryPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoSpatialIndex.class);
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE_LAT = Math.PI * EARTH_RADIUS_METERS / 180.0;
+
+    private final PhotoExifRepositoryPort exifRepositoryPort;
+    private final double cellDegrees;
+    private final int lonCells;
+    private final int latCells;
+    private final ConcurrentHashMap<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Altas que llegan mientras se carga la tabla; se aplican al terminar la carga.
+    // loaded y la cola se leen y cambian siempre juntos bajo loadLock: un alta no puede
+    // ver loaded en false y encolarse después de que la carga vació la cola
+    private final Object loadLock = new Object();
+    private final List<PhotoLocation> pendingDuringLoad = new ArrayList<>();
+    private boolean loaded;
+
+    public PhotoSpatialIndex(PhotoExifRepositoryPort exifRepositoryPort, double cellDegrees) {
+        if (cellDegrees <= 0 || cellDegrees > 10) {
+            throw new IllegalArgumentException("Invalid cell size: " + cellDegrees);
+        }
+        this.exifRepositoryPort = exifRepositoryPort;
+        this.cellDegrees = cellDegrees;
+        this.lonCells = (int) Math.ceil(360.0 / cellDegrees);
+        this.latCells = (int) Math.ceil(180.0 / cellDegrees);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        // Carga inicial en buffers que crecen por duplicación; copy-on-append sería cuadrático en celdas densas
+        Map<Long, CellBuilder> builders = new HashMap<>();
+        try {
+            exifRepositoryPort.forEachLocation(location -> builders
+                    .computeIfAbsent(cellKey(latIndex(location.latitude()), lonIndex(location.longitude())),
+                            k -> new CellBuilder())
+                    .add(location));
+        } catch (RuntimeException e) {
+            // Sin la tabla completa el índice sirve lo leído hasta el fallo y sigue recibiendo altas;
+            // marcarlo cargado evita que las altas se acumulen en la cola para siempre
+            logger.error("No se pudo cargar el índice espacial de fotos; quedan sin indexar las fotos no leídas: {}",
+                    e.getMessage(), e);
+        } finally {
+            builders.forEach((key, builder) -> {
+                cells.put(key, builder.build());
+                size.addAndGet(builder.count);
+            });
+            List<PhotoLocation> pending;
+            synchronized (loadLock) {
+                loaded = true;
+                pending = new ArrayList<>(pendingDuringLoad);
+                pendingDuringLoad.clear();
+            }
+            // La carga pudo haber leído ya alguna de estas filas; insert no duplica
+            pending.forEach(this::insert);
+        }
+        logger.info("Índice espacial de fotos cargado: {} puntos en {} celdas ({} ms)",
+                size.get(), cells.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener
+    public void onPhotoExifSaved(PhotoExifSavedEvent event) {
+        for (PhotoExif exif : event.photoExifs()) {
+            if (exif.getLatitude() == null || exif.getLongitude() == null) {
+                continue;
+            }
+            PhotoLocation location = new PhotoLocation(exif.getId(), exif.getLatitude(), exif.getLongitude());
+            synchronized (loadLock) {
+                if (!loaded) {
+                    pendingDuringLoad.add(location);
+                    continue;
+                }
+            }
+            insert(location);
+        }
+    }
+
+    @Override
+    public List<PhotoLocation> findWithinRadius(double latitude, double longitude, double radiusMeters, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+        double latSpan = radiusMeters / METERS_PER_DEGREE_LAT;
+        // Si el círculo contiene un polo, del otro lado del polo están todas las longitudes.
+        // Si no, el ancho exacto en longitud es asin(sin r / cos φ), con r el radio en radianes
+        double lonSpan;
+        if (Math.abs(latitude) + latSpan >= 90.0) {
+            lonSpan = 180.0;
+        } else {
+            double angularRadius = radiusMeters / EARTH_RADIUS_METERS;
+            lonSpan = Math.toDegrees(Math.asin(Math.min(1.0,
+                    Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude)))));
+        }
+
+        List<Match> matches = new ArrayList<>();
+        forEachCell(latitude - latSpan, longitude - lonSpan, latitude + latSpan, longitude + lonSpan, cell -> {
+            for (int i = 0; i < cell.ids.length; i++) {
+                double distance = haversine(latitude, longitude, cell.lats[i], cell.lons[i]);
+                if (distance <= radiusMeters) {
+                    matches.add(new Match(new PhotoLocation(cell.ids[i], cell.lats[i], cell.lons[i]), distance));
+                }
+            }
+        });
+
+        return matches.stream()
+                .sorted(Comparator.comparingDouble(Match::distance))
+                .limit(limit)
+                .map(Match::location)
+                .toList();
+    }
+
+    @Override
+    public List<PhotoLocation> findWithinBoundingBox(double minLatitude, double minLongitude,
+                                                     double maxLatitude, double maxLongitude, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+        List<PhotoLocation> result = new ArrayList<>();
+        // Si minLongitude > maxLongitude el rectángulo cruza el antimeridiano
+        double effectiveMaxLon = maxLongitude < minLongitude ? maxLongitude + 360.0 : maxLongitude;
+        forEachCell(minLatitude, minLongitude, maxLatitude, effectiveMaxLon, cell -> {
+            for (int i = 0; i < cell.ids.length && result.size() < limit; i++) {
+                double lat = cell.lats[i];
+                double lon = cell.lons[i];
+                if (lat >= minLatitude && lat <= maxLatitude && insideLongitude(lon, minLongitude, maxLongitude)) {
+                    result.add(new PhotoLocation(cell.ids[i], lat, lon));
+                }
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    // Agrega el punto si no está; la comprobación y el reemplazo de la celda son atómicos
+    private void insert(PhotoLocation location) {
+        long key = cellKey(latIndex(location.latitude()), lonIndex(location.longitude()));
+        boolean[] added = new boolean[1];
+        cells.compute(key, (k, cell) -> {
+            if (cell == null) {
+                added[0] = true;
+                return Cell.of(location);
+            }
+            if (Arrays.asList(cell.ids).contains(location.exifId())) {
+                return cell;
+            }
+            added[0] = true;
+            return cell.append(location);
+        });
+        if (added[0]) {
+            size.incrementAndGet();
+        }
+    }
+
+    private void forEachCell(double minLat, double minLon, double maxLat, double maxLon,
+                             Consumer<Cell> action) {
+        int fromLat = latIndex(Math.max(-90.0, minLat));
+        int toLat = latIndex(Math.min(90.0, maxLat));
+        int fromLon = (int) Math.floor((minLon + 180.0) / cellDegrees);
+        int toLon = (int) Math.floor((maxLon + 180.0) / cellDegrees);
+        if (toLon - fromLon >= lonCells) {
+            fromLon = 0;
+            toLon = lonCells - 1;
+        }
+
+        for (int latIdx = fromLat; latIdx <= toLat; latIdx++) {
+            for (int lon = fromLon; lon <= toLon; lon++) {
+                // Las longitudes dan la vuelta en el antimeridiano
+                int lonIdx = Math.floorMod(lon, lonCells);
+                Cell cell = cells.get(cellKey(latIdx, lonIdx));
+                if (cell != null) {
+                    action.accept(cell);
+                }
+            }
+        }
+    }
+
+    private int latIndex(double latitude) {
+        return Math.min(latCells - 1, Math.max(0, (int) Math.floor((latitude + 90.0) / cellDegrees)));
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / cellDegrees), lonCells);
+    }
+
+    private long cellKey(int latIdx, int lonIdx) {
+        return (long) latIdx * lonCells + lonIdx;
+    }
+
+    private static boolean insideLongitude(double lon, double min, double max) {
+        return min <= max ? lon >= min && lon <= max : lon >= min || lon <= max;
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private record Match(PhotoLocation location, double distance) {
+    }
+
+    /**
+     * Puntos de una celda. Inmutable: append devuelve una copia con un elemento más.
+     */
+    private static final class Cell {
+
+        private final String[] ids;
+        private final double[] lats;
+        private final double[] lons;
+
+        private Cell(String[] ids, double[] lats, double[] lons) {
+            this.ids = ids;
+            this.lats = lats;
+            this.lons = lons;
+        }
+
+        static Cell of(PhotoLocation location) {
+            return new Cell(new String[]{location.exifId()},
+                    new double[]{location.latitude()},
+                    new double[]{location.longitude()});
+        }
+
+        Cell append(PhotoLocation location) {
+            int n = ids.length;
+            String[] newIds = Arrays.copyOf(ids, n + 1);
+            double[] newLats = Arrays.copyOf(lats, n + 1);
+            double[] newLons = Arrays.copyOf(lons, n + 1);
+            newIds[n] = location.exifId();
+            newLats[n] = location.latitude();
+            newLons[n] = location.longitude();
+            return new Cell(newIds, newLats, newLons);
+        }
+    }
+
+    private static final class CellBuilder {
+
+        private String[] ids = new String[4];
+        private double[] lats = new double[4];
+        private double[] lons = new double[4];
+        private int count;
+
+        void add(PhotoLocation location) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                lats = Arrays.copyOf(lats, count * 2);
+                lons = Arrays.copyOf(lons, count * 2);
+            }
+            ids[count] = location.exifId();
+            lats[count] = location.latitude();
+            lons[count] = location.longitude();
+            count++;
+        }
+
+        Cell build() {
+            return new Cell(Arrays.copyOf(ids, count), Arrays.copyOf(lats, count), Arrays.copyOf(lons, count));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.safe.loadphoto.service;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Copia temporal en disco de una imagen subida.
+ * Permite leer la cabecera EXIF y volcar el contenido al almacenamiento
+ * sin mantener la imagen completa en memoria. El archivo se borra al cerrar.
+ * El SHA-256 del contenido se calcula durante la copia, sin una segunda lectura.
+ */
+public final class PhotoSpool implements AutoCloseable {
+
+    private static final String FILE_PREFIX = "photo-ingest-";
+    private static final String FILE_SUFFIX = ".tmp";
+
+    private final Path file;
+    private final long size;
+    private final String contentHash;
+
+    private PhotoSpool(Path file, long size, String contentHash) {
+        this.file = file;
+        this.size = size;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Vuelca el stream a un archivo temporal dentro de spoolDirectory.
+     * El stream no se cierra: pertenece a quien lo abrió.
+     */
+    public static PhotoSpool spool(InputStream content, Path spoolDirectory) throws IOException {
+        Files.createDirectories(spoolDirectory);
+        Path file = Files.createTempFile(spoolDirectory, FILE_PREFIX, FILE_SUFFIX);
+        try {
+            MessageDigest digest = newDigest();
+            long size = Files.copy(new DigestInputStream(content, digest), file, StandardCopyOption.REPLACE_EXISTING);
+            return new PhotoSpool(file, size, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Abre solo los primeros maxBytes del archivo, suficiente para los segmentos de metadatos.
+     */
+    public InputStream openHeader(int maxBytes) throws IOException {
+        return new BufferedInputStream(new HeaderInputStream(Files.newInputStream(file), maxBytes));
+    }
+
+    public InputStream open() throws IOException {
+        return Files.newInputStream(file);
+    }
+
+    public Path getPath() { return file; }
+
+    public long getSize() { return size; }
+
+    /**
+     * SHA-256 del contenido en hexadecimal.
+     */
+    public String getContentHash() { return contentHash; }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Stream que devuelve fin de archivo al alcanzar el límite indicado.
+     */
+    private static final class HeaderInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        private HeaderInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
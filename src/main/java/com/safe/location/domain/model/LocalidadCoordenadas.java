@@ -0,0 +1,17 @@
+package com.safe.location.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección de una localidad con su municipio y provincia, solo con los campos
+ * necesarios para la geocodificación inversa.
+ */
+public record LocalidadCoordenadas(Integer localidadId,
+                                   String localidadNombre,
+                                   Integer municipioId,
+                                   String municipioNombre,
+                                   Integer provinciaId,
+                                   String provinciaNombre,
+                                   BigDecimal latitud,
+                                   BigDecimal longitud) {
+}
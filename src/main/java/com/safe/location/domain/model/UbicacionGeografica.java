@@ -0,0 +1,15 @@
+package com.safe.location.domain.model;
+
+/**
+ * Localidad más cercana a un punto, con su municipio y provincia.
+ *
+ * @param distanciaMetros distancia entre el punto consultado y el centro de la localidad
+ */
+public record UbicacionGeografica(Integer localidadId,
+                                  String localidadNombre,
+                                  Integer municipioId,
+                                  String municipioNombre,
+                                  Integer provinciaId,
+                                  String provinciaNombre,
+                                  double distanciaMetros) {
+}
@@ -0,0 +1,16 @@
+package com.safe.location.domain.port.in;
+
+import com.safe.location.domain.model.UbicacionGeografica;
+
+import java.util.Optional;
+
+/**
+ * Resuelve coordenadas GPS a Localidad, Municipio y Provincia sin servicios externos.
+ */
+public interface GeocodificacionInversaPort {
+
+    /**
+     * Localidad más cercana al punto. Vacío si no hay ninguna dentro de la distancia máxima configurada.
+     */
+    Optional<UbicacionGeografica> resolver(double latitud, double longitud);
+}
@@ -1,5 +1,6 @@
 package com.safe.location.domain.port.out;
 
+import com.safe.location.domain.model.LocalidadCoordenadas;
 import com.safe.location.domain.model.entity.LocalidadEntity;
 import org.springframework.stereotype.Repository;
 
@@ -10,4 +11,5 @@ import java.util.Optional;
 public interface LocalidadRepositoryPort {
     List<LocalidadEntity> findAll();
     Optional<LocalidadEntity> findById(Integer id);
+    List<LocalidadCoordenadas> findAllConCoordenadas();
 }
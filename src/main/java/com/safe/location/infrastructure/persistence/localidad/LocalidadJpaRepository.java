@@ -1,6 +1,7 @@
 package com.safe.location.infrastructure.persistence.localidad;
 
 import com.safe.bike.domain.model.entity.MonedaEntity;
+import com.safe.location.domain.model.LocalidadCoordenadas;
 import com.safe.location.domain.model.entity.LocalidadEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -31,6 +32,13 @@ public interface LocalidadJpaRepository extends JpaRepository<LocalidadEntity, I
 
     // Buscar por tipo de localidad (opcional)
     List<LocalidadEntity> findByMunicipioIdAndTipoOrderByNombreAsc(Integer municipioId, LocalidadEntity.TipoLocalidad tipo);
+
+    // Proyección para la geocodificación inversa: sin entidades gestionadas ni relaciones lazy
+    @Query("SELECT new com.safe.location.domain.model.LocalidadCoordenadas(" +
+            "l.id, l.nombre, m.id, m.nombre, p.id, p.nombre, l.latitud, l.longitud) " +
+            "FROM LocalidadEntity l JOIN l.municipioEntity m JOIN m.provinciaEntity p " +
+            "WHERE l.latitud IS NOT NULL AND l.longitud IS NOT NULL")
+    List<LocalidadCoordenadas> findAllConCoordenadas();
 }
 /*
 @Repository
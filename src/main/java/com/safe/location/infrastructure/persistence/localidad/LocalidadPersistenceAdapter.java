@@ -2,6 +2,7 @@ package com.safe.location.infrastructure.persistence.localidad;
 
 import com.safe.bike.domain.model.entity.MonedaEntity;
 import com.safe.bike.domain.port.out.MonedaRepositoryPort;
+import com.safe.location.domain.model.LocalidadCoordenadas;
 import com.safe.location.domain.model.entity.LocalidadEntity;
 import com.safe.location.domain.port.out.LocalidadRepositoryPort;
 import org.slf4j.Logger;
@@ -61,4 +62,12 @@ public class LocalidadPersistenceAdapter implements LocalidadRepositoryPort {
             throw e;
         }
     }
+
+    @Override
+    public List<LocalidadCoordenadas> findAllConCoordenadas() {
+        logger.info("Consultando coordenadas de localidades desde la base de datos");
+        List<LocalidadCoordenadas> localidades = localidadJpaRepository.findAllConCoordenadas();
+        logger.info("Consulta exitosa: {} localidades con coordenadas", localidades.size());
+        return localidades;
+    }
 }
@@ -0,0 +1,83 @@
+package com.safe.location.service;
+
+import com.safe.location.domain.model.LocalidadCoordenadas;
+import com.safe.location.domain.model.UbicacionGeografica;
+import com.safe.location.domain.port.in.GeocodificacionInversaPort;
+import com.safe.location.domain.port.out.LocalidadRepositoryPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Geocodificación inversa contra la tabla de localidades.
+ * Al arrancar se cargan todas las localidades con coordenadas en un árbol KD en memoria;
+ * cada consulta es una búsqueda del vecino más cercano, sin acceso a la base.
+ */
+@Service
+public class GeocodificacionInversaService implements GeocodificacionInversaPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeocodificacionInversaService.class);
+
+    private static final double RADIO_TIERRA_METROS = 6_371_008.8;
+
+    private final LocalidadRepositoryPort localidadRepositoryPort;
+    private final double distanciaMaximaMetros;
+
+    private volatile Indice indice;
+
+    public GeocodificacionInversaService(LocalidadRepositoryPort localidadRepositoryPort,
+                                         @Value("${location.geocoding.max-distance-km:50}") double distanciaMaximaKm) {
+        this.localidadRepositoryPort = localidadRepositoryPort;
+        this.distanciaMaximaMetros = distanciaMaximaKm * 1000.0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        long inicio = System.nanoTime();
+        List<LocalidadCoordenadas> localidades = localidadRepositoryPort.findAllConCoordenadas();
+
+        double[] latitudes = new double[localidades.size()];
+        double[] longitudes = new double[localidades.size()];
+        for (int i = 0; i < localidades.size(); i++) {
+            latitudes[i] = localidades.get(i).latitud().doubleValue();
+            longitudes[i] = localidades.get(i).longitud().doubleValue();
+        }
+        indice = new Indice(LocalidadKdTree.build(latitudes, longitudes), localidades);
+        logger.info("Geocodificación inversa lista: {} localidades ({} ms)",
+                localidades.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @Override
+    public Optional<UbicacionGeografica> resolver(double latitud, double longitud) {
+        Indice actual = indice;
+        if (actual == null) {
+            logger.warn("Geocodificación inversa consultada antes de cargar las localidades");
+            return Optional.empty();
+        }
+
+        LocalidadKdTree.Neighbour vecino = actual.arbol().nearest(latitud, longitud);
+        if (vecino == null) {
+            return Optional.empty();
+        }
+        double distancia = LocalidadKdTree.chordSquaredToMeters(vecino.chordSquared(), RADIO_TIERRA_METROS);
+        if (distancia > distanciaMaximaMetros) {
+            return Optional.empty();
+        }
+
+        LocalidadCoordenadas localidad = actual.localidades().get(vecino.index());
+        return Optional.of(new UbicacionGeografica(
+                localidad.localidadId(), localidad.localidadNombre(),
+                localidad.municipioId(), localidad.municipioNombre(),
+                localidad.provinciaId(), localidad.provinciaNombre(),
+                distancia));
+    }
+
+    private record Indice(LocalidadKdTree arbol, List<LocalidadCoordenadas> localidades) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.safe.location.service;
+
+/**
+ * Árbol KD de 3 dimensiones sobre puntos de la esfera unidad.
+ * Latitud/longitud se convierten a (x, y, z) para que la distancia euclídea (cuerda) sea
+ * monótona con la distancia sobre la esfera, sin casos especiales en el antimeridiano.
+ * El árbol es implícito: la mediana de cada rango [lo, hi) está en (lo + hi) / 2, y todo se
+ * guarda en arrays de double, sin objetos por nodo.
+ */
+final class LocalidadKdTree {
+
+    private final double[][] coords;   // coords[eje][posición en el árbol]
+    private final int[] refs;          // índice del punto original en cada posición
+
+    private LocalidadKdTree(double[][] coords, int[] refs) {
+        this.coords = coords;
+        this.refs = refs;
+    }
+
+    static LocalidadKdTree build(double[] latitudes, double[] longitudes) {
+        int n = latitudes.length;
+        double[][] coords = new double[3][n];
+        int[] refs = new int[n];
+        for (int i = 0; i < n; i++) {
+            double lat = Math.toRadians(latitudes[i]);
+            double lon = Math.toRadians(longitudes[i]);
+            coords[0][i] = Math.cos(lat) * Math.cos(lon);
+            coords[1][i] = Math.cos(lat) * Math.sin(lon);
+            coords[2][i] = Math.sin(lat);
+            refs[i] = i;
+        }
+        LocalidadKdTree tree = new LocalidadKdTree(coords, refs);
+        tree.buildRange(0, n, 0);
+        return tree;
+    }
+
+    int size() {
+        return refs.length;
+    }
+
+    /**
+     * Punto más cercano, o null si el árbol está vacío.
+     */
+    Neighbour nearest(double latitude, double longitude) {
+        if (refs.length == 0) {
+            return null;
+        }
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double[] query = {Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+        Best best = new Best();
+        search(0, refs.length, 0, query, best);
+        return new Neighbour(refs[best.position], best.distanceSquared);
+    }
+
+    /**
+     * Convierte la distancia de cuerda al cuadrado en metros sobre la esfera.
+     */
+    static double chordSquaredToMeters(double chordSquared, double radiusMeters) {
+        return 2 * radiusMeters * Math.asin(Math.min(1.0, Math.sqrt(chordSquared) / 2));
+    }
+
+    private void search(int lo, int hi, int depth, double[] query, Best best) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double dx = coords[0][mid] - query[0];
+        double dy = coords[1][mid] - query[1];
+        double dz = coords[2][mid] - query[2];
+        double d = dx * dx + dy * dy + dz * dz;
+        if (d < best.distanceSquared) {
+            best.distanceSquared = d;
+            best.position = mid;
+        }
+
+        int axis = depth % 3;
+        double diff = query[axis] - coords[axis][mid];
+        if (diff < 0) {
+            search(lo, mid, depth + 1, query, best);
+            if (diff * diff < best.distanceSquared) {
+                search(mid + 1, hi, depth + 1, query, best);
+            }
+        } else {
+            search(mid + 1, hi, depth + 1, query, best);
+            if (diff * diff < best.distanceSquared) {
+                search(lo, mid, depth + 1, query, best);
+            }
+        }
+    }
+
+    private void buildRange(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % 3);
+        buildRange(lo, mid, depth + 1);
+        buildRange(mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Quickselect: deja en k el elemento que iría ahí ordenando por el eje, con los menores
+     * a la izquierda y los mayores a la derecha.
+     */
+    private void select(int left, int right, int k, int axis) {
+        double[] values = coords[axis];
+        while (left < right) {
+            double pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        for (double[] axis : coords) {
+            double tmp = axis[i];
+            axis[i] = axis[j];
+            axis[j] = tmp;
+        }
+        int tmp = refs[i];
+        refs[i] = refs[j];
+        refs[j] = tmp;
+    }
+
+    /**
+     * @param index         posición del punto en los arrays de entrada
+     * @param chordSquared  distancia de cuerda al cuadrado sobre la esfera unidad
+     */
+    record Neighbour(int index, double chordSquared) {
+    }
+
+    private static final class Best {
+        private double distanceSquared = Double.POSITIVE_INFINITY;
+        private int position = -1;
+    }
+}
@@ -0,0 +1,261 @@
+package com.safe.report.application.service;
+
+import com.safe.report.domain.model.BatchReportResult;
+import com.safe.report.domain.model.BikeReportDTO;
+import com.safe.report.domain.model.UserBikeRow;
+import com.safe.report.domain.model.UserIdRange;
+import com.safe.report.domain.port.in.BikeReportUseCasePort;
+import com.safe.report.domain.port.out.BikeReportRepositoryPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Genera el reporte PDF de cada usuario con bicicletas, por ejemplo para un envío mensual.
+ * Recorre los usuarios en tramos de IDs: cada tramo se lee con un cursor y, al cambiar de usuario,
+ * su PDF se arma en paralelo mientras se siguen leyendo filas. Cada fila leída toma un permiso de
+ * un semáforo que se devuelve al terminar el PDF, así la memoria no depende del tamaño del lote
+ * ni del tramo. Se dispara con report.batch.cron o llamando a generateToDirectory/generateToZip.
+ */
+@Service
+public class BatchReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchReportService.class);
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private final BikeReportRepositoryPort bikeReportRepositoryPort;
+    private final BikeReportUseCasePort bikeReportUseCasePort;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int partitionSize;
+    private final int parallelism;
+    private final int maxRowsInFlight;
+    private final Path outputDirectory;
+
+    public BatchReportService(BikeReportRepositoryPort bikeReportRepositoryPort,
+                              BikeReportUseCasePort bikeReportUseCasePort,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${report.batch.partition-size:1000}") int partitionSize,
+                              @Value("${report.batch.parallelism:0}") int parallelism,
+                              @Value("${report.batch.max-rows-in-flight:20000}") int maxRowsInFlight,
+                              @Value("${report.batch.output-dir:${java.io.tmpdir}/safebike-batch}") String outputDirectory) {
+        if (partitionSize <= 0 || maxRowsInFlight <= 0) {
+            throw new IllegalArgumentException("Batch partition size and row limit must be positive");
+        }
+        this.bikeReportRepositoryPort = bikeReportRepositoryPort;
+        this.bikeReportUseCasePort = bikeReportUseCasePort;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.partitionSize = partitionSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxRowsInFlight = maxRowsInFlight;
+        this.outputDirectory = Path.of(outputDirectory);
+    }
+
+    /**
+     * Lote programado: escribe los PDFs en un subdirectorio de report.batch.output-dir con la fecha
+     * de la corrida. Sin report.batch.cron no se ejecuta.
+     */
+    @Scheduled(cron = "${report.batch.cron:-}")
+    public void generateScheduled() {
+        Path directory = outputDirectory.resolve(LocalDateTime.now().format(TIMESTAMP));
+        try {
+            generateToDirectory(directory);
+        } catch (IOException e) {
+            log.error("Falló el lote programado de reportes en {}: {}", directory, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Escribe un PDF por usuario en el directorio, que se crea si no existe.
+     */
+    public BatchReportResult generateToDirectory(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return generate((fileName, pdf) -> Files.write(directory.resolve(fileName), pdf));
+    }
+
+    /**
+     * Escribe todos los PDFs como entradas de un ZIP en el stream, que no se cierra.
+     */
+    public BatchReportResult generateToZip(OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // El PDF ya viene comprimido: volver a comprimirlo solo gasta CPU
+        zip.setLevel(Deflater.NO_COMPRESSION);
+        BatchReportResult result = generate((fileName, pdf) -> {
+            synchronized (zip) {
+                zip.putNextEntry(new ZipEntry(fileName));
+                zip.write(pdf);
+                zip.closeEntry();
+            }
+        });
+        zip.finish();
+        return result;
+    }
+
+    private BatchReportResult generate(ReportSink sink) throws IOException {
+        long start = System.nanoTime();
+        Optional<UserIdRange> userIds = bikeReportRepositoryPort.findUserIdRange();
+        if (userIds.isEmpty()) {
+            return new BatchReportResult(0, 0, 0, 0, 0, Duration.ZERO);
+        }
+        UserIdRange range = userIds.get();
+        log.info("Lote de reportes: usuarios {}..{}, tramos de {}, {} hilos",
+                range.startId(), range.endId(), partitionSize, parallelism);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism, new BatchThreadFactory(), null, true);
+        BatchRun run = new BatchRun(pool, sink, LocalDateTime.now().format(TIMESTAMP));
+        int partitions = 0;
+        try {
+            for (long from = range.startId(); from <= range.endId() && run.sinkError.get() == null; from += partitionSize) {
+                UserIdRange partition = range.slice(from, partitionSize);
+                partitions++;
+                // El cursor solo vive dentro de la transacción; mientras se espera un permiso queda abierto
+                readOnlyTransaction.executeWithoutResult(status -> run.readPartition(partition));
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            // Cuando se recuperan todos los permisos, no queda ningún reporte en curso
+            run.rowsInFlight.acquire(maxRowsInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Report batch interrupted");
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (run.sinkError.get() != null) {
+            throw run.sinkError.get();
+        }
+        BatchReportResult result = new BatchReportResult(partitions, run.reports.get(), run.failed.get(),
+                run.rows.sum(), run.bytes.sum(), Duration.ofNanos(System.nanoTime() - start));
+        log.info("Lote de reportes terminado: {} reportes, {} fallidos, {} filas, {} bytes en {} ms",
+                result.reports(), result.failed(), result.rows(), result.bytes(),
+                result.elapsed().toMillis());
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface ReportSink {
+        void write(String fileName, byte[] pdf) throws IOException;
+    }
+
+    /**
+     * Estado de una corrida. readPartition lo usa un solo hilo; los contadores los actualiza el pool.
+     */
+    private final class BatchRun {
+
+        private final ForkJoinPool pool;
+        private final ReportSink sink;
+        private final String timestamp;
+        private final Semaphore rowsInFlight = new Semaphore(maxRowsInFlight);
+        private final AtomicInteger reports = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final AtomicReference<IOException> sinkError = new AtomicReference<>();
+
+        private BatchRun(ForkJoinPool pool, ReportSink sink, String timestamp) {
+            this.pool = pool;
+            this.sink = sink;
+            this.timestamp = timestamp;
+        }
+
+        /**
+         * Lee el tramo fila a fila y despacha el PDF de cada usuario al terminar sus filas.
+         * Si se interrumpe, deja de leer y marca el hilo como interrumpido.
+         */
+        private void readPartition(UserIdRange partition) {
+            int users = 0;
+            try (Stream<UserBikeRow> partitionRows = bikeReportRepositoryPort.streamBikesByUserIdRange(partition)) {
+                Iterator<UserBikeRow> iterator = partitionRows.iterator();
+                long userId = 0;
+                List<BikeReportDTO> bikes = new ArrayList<>();
+                int permits = 0;
+                while (iterator.hasNext() && sinkError.get() == null) {
+                    UserBikeRow row = iterator.next();
+                    if (!bikes.isEmpty() && row.userId() != userId) {
+                        dispatch(userId, bikes, permits);
+                        users++;
+                        bikes = new ArrayList<>();
+                        permits = 0;
+                    }
+                    userId = row.userId();
+                    // Un usuario con más filas que el límite se queda con todos los permisos y sigue
+                    // leyendo sin pedir más: no puede esperar permisos que solo él devolvería
+                    if (permits < maxRowsInFlight) {
+                        rowsInFlight.acquire();
+                        permits++;
+                    } else if (bikes.size() == maxRowsInFlight) {
+                        log.warn("El usuario {} supera el límite de {} filas en vuelo", userId, maxRowsInFlight);
+                    }
+                    bikes.add(row.bike());
+                }
+                if (!bikes.isEmpty()) {
+                    dispatch(userId, bikes, permits);
+                    users++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.debug("Tramo {}..{}: {} usuarios con bicicletas", partition.startId(), partition.endId(), users);
+        }
+
+        private void dispatch(long userId, List<BikeReportDTO> bikes, int permits) {
+            pool.execute(() -> {
+                try {
+                    byte[] pdf = bikeReportUseCasePort.generateBikeReport(bikes);
+                    sink.write(String.format("reporte_bicicletas_%d_%s.pdf", userId, timestamp), pdf);
+                    reports.incrementAndGet();
+                    rows.add(bikes.size());
+                    bytes.add(pdf.length);
+                } catch (IOException e) {
+                    sinkError.compareAndSet(null, e);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.warn("No se pudo generar el reporte del usuario {}: {}", userId, e.getMessage());
+                } finally {
+                    rowsInFlight.release(permits);
+                }
+            });
+        }
+    }
+
+    private static final class BatchThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("report-batch-" + counter.incrementAndGet());
+            return thread;
+        }
+    }
+}
@@ -2,27 +2,45 @@ package com.safe.report.application.service;
 
 
 import com.safe.report.domain.model.BikeReportDTO;
+import com.safe.report.domain.model.ReportFormat;
+import com.safe.report.domain.model.ReportMetricsSnapshot;
+import com.safe.report.domain.model.ReportProgressListener;
 import com.safe.report.domain.port.in.BikeReportUseCasePort;
 import com.safe.report.domain.port.out.BikeReportRepositoryPort;
+import com.safe.report.domain.port.out.ReportCachePort;
+import com.safe.report.domain.port.out.ReportMetricsPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class BikeReportService {
     private static final Logger log = LoggerFactory.getLogger(BikeReportService.class);
     private final BikeReportUseCasePort bikeReportUseCasePort;
     private final BikeReportRepositoryPort bikeReportRepositoryPort;
+    private final ReportMetricsPort reportMetricsPort;
+    private final ReportCachePort reportCachePort;
+    private final long maxCachedPdfRows;
 
     public BikeReportService(BikeReportUseCasePort bikeReportUseCasePort,
-                             BikeReportRepositoryPort bikeReportRepositoryPort) {
+                             BikeReportRepositoryPort bikeReportRepositoryPort,
+                             ReportMetricsPort reportMetricsPort,
+                             ReportCachePort reportCachePort,
+                             @Value("${report.cache.max-pdf-rows:5000}") long maxCachedPdfRows) {
         this.bikeReportUseCasePort = bikeReportUseCasePort;
         this.bikeReportRepositoryPort = bikeReportRepositoryPort;
+        this.reportMetricsPort = reportMetricsPort;
+        this.reportCachePort = reportCachePort;
+        this.maxCachedPdfRows = maxCachedPdfRows;
     }
 
     /**
@@ -35,8 +53,7 @@ public class BikeReportService {
      */
     public ByteArrayInputStream generateBikeReportPdf(Long userId) {
         try {
-            byte[] pdfBytes = bikeReportUseCasePort.generateBikeReport(userId);
-            return new ByteArrayInputStream(pdfBytes);
+            return new ByteArrayInputStream(cachedPdf(userId));
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("No se encontraron bicicletas para el usuario con ID: " + userId, e);
         } catch (Exception e) {
@@ -44,6 +61,66 @@ public class BikeReportService {
         }
     }
 
+    /**
+     * Escribe el reporte PDF en el stream de salida. Los reportes chicos se sirven desde la caché
+     * (una consulta y un render por versión de datos); los grandes se generan en streaming sin guardarse.
+     *
+     * @param userId ID del usuario
+     * @param out    destino del PDF (por ejemplo, la respuesta HTTP); no se cierra
+     * @throws IllegalArgumentException si no se encuentran bicicletas para el usuario
+     * @throws IOException si falla la escritura en el destino
+     */
+    public void writeBikeReportPdf(Long userId, OutputStream out) throws IOException {
+        try {
+            Optional<byte[]> cached = reportCachePort.peekPdf(userId);
+            if (cached.isPresent()) {
+                out.write(cached.get());
+                return;
+            }
+
+            long totalBikes = reportCachePort.peekRows(userId)
+                    .map(rows -> (long) rows.size())
+                    .orElseGet(() -> bikeReportRepositoryPort.countBikesByUserId(userId));
+            if (totalBikes == 0) {
+                throw new IllegalArgumentException("No bikes found for user with ID: " + userId);
+            }
+            if (totalBikes > maxCachedPdfRows) {
+                bikeReportUseCasePort.writeBikeReport(userId, out);
+                return;
+            }
+            out.write(cachedPdf(userId));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("No se encontraron bicicletas para el usuario con ID: " + userId, e);
+        }
+    }
+
+    /**
+     * Escribe el reporte en el formato pedido. El PDF pasa por la caché; CSV y XLSX son baratos
+     * de producir y se escriben siempre desde el cursor, fila por fila, sin guardarse en memoria.
+     *
+     * @param userId ID del usuario
+     * @param format formato del reporte
+     * @param out    destino del archivo; no se cierra
+     * @throws IllegalArgumentException si no se encuentran bicicletas para el usuario
+     * @throws IOException si falla la escritura en el destino
+     */
+    public void writeBikeReport(Long userId, ReportFormat format, OutputStream out) throws IOException {
+        if (format == ReportFormat.PDF) {
+            writeBikeReportPdf(userId, out);
+            return;
+        }
+        try {
+            bikeReportUseCasePort.writeBikeReport(userId, format, out, ReportProgressListener.NONE);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("No se encontraron bicicletas para el usuario con ID: " + userId, e);
+        }
+    }
+
+    private byte[] cachedPdf(Long userId) {
+        return reportCachePort.getPdf(userId,
+                () -> bikeReportUseCasePort.generateBikeReport(getBikeDataForUser(userId)));
+    }
+
     /**
      * Obtiene los datos de las bicicletas para previsualización
      *
@@ -51,7 +128,8 @@ public class BikeReportService {
      * @return Lista de BikeReportDTO con los datos de las bicicletas
      */
     public List<BikeReportDTO> getBikeDataForUser(Long userId) {
-        List<BikeReportDTO> bikeData = bikeReportRepositoryPort.findBikesByUserId(userId);
+        List<BikeReportDTO> bikeData = reportCachePort.getRows(userId,
+                () -> bikeReportRepositoryPort.findBikesByUserId(userId));
         if (bikeData.isEmpty()) {
             throw new IllegalArgumentException("No se encontraron bicicletas para el usuario con ID: " + userId);
         }
@@ -65,12 +143,17 @@ public class BikeReportService {
      * @return true si el usuario tiene bicicletas, false en caso contrario
      */
     public boolean userHasBikes(Long userId) {
-        log.info("userHasBikes {} userId " + userId);
+        log.debug("userHasBikes userId: {}", userId);
 
+        Optional<List<BikeReportDTO>> cachedRows = reportCachePort.peekRows(userId);
+        if (cachedRows.isPresent()) {
+            return !cachedRows.get().isEmpty();
+        }
         try {
-            List<BikeReportDTO> bikeData = bikeReportRepositoryPort.findBikesByUserId(userId);
-            log.info("boolean userHasBikes " + bikeData.isEmpty());
-            return !bikeData.isEmpty();
+            // Solo cuenta: no hace falta traer las filas para saber si hay bicicletas
+            long totalBikes = bikeReportRepositoryPort.countBikesByUserId(userId);
+            log.debug("userHasBikes userId: {} total: {}", userId, totalBikes);
+            return totalBikes > 0;
         } catch (Exception e) {
             return false;
         }
@@ -83,9 +166,21 @@ public class BikeReportService {
      * @return Nombre del archivo sugerido
      */
     public String generateFileName(Long userId) {
-        return String.format("reporte_bicicletas_%d_%s.pdf",
+        return generateFileName(userId, ReportFormat.PDF);
+    }
+
+    /**
+     * Genera el nombre del archivo con la extensión del formato
+     *
+     * @param userId ID del usuario
+     * @param format formato del reporte
+     * @return Nombre del archivo sugerido
+     */
+    public String generateFileName(Long userId, ReportFormat format) {
+        return String.format("reporte_bicicletas_%d_%s.%s",
                 userId,
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")));
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")),
+                format.getExtension());
     }
 
     /**
@@ -108,6 +203,15 @@ public class BikeReportService {
         return new ReportSummary(userFullName, totalBikes, generatedAt);
     }
 
+    /**
+     * Histogramas de consulta, mapeo, render, filas y bytes de los reportes generados
+     *
+     * @return foto de las métricas desde el arranque
+     */
+    public ReportMetricsSnapshot getReportMetrics() {
+        return reportMetricsPort.snapshot();
+    }
+
     /**
      * Record que representa un resumen del reporte
      */
@@ -0,0 +1,305 @@
+package com.safe.report.application.service;
+
+import com.safe.report.domain.exception.ReportJobRejectedException;
+import com.safe.report.domain.model.ReportFormat;
+import com.safe.report.domain.model.ReportJob;
+import com.safe.report.domain.model.ReportJobStatus;
+import com.safe.report.domain.model.ReportJobType;
+import com.safe.report.domain.model.ReportProgressListener;
+import com.safe.report.domain.port.in.BikeReportUseCasePort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Reportes que se generan en segundo plano, fuera del hilo de la UI y del timeout de la petición.
+ * Los trabajos viven en un registro en memoria y el archivo se escribe a disco; quien lo pidió
+ * recibe el avance por listener y lo descarga cuando está listo. Al reiniciar se pierden los
+ * trabajos y se borran los archivos que quedaron en el directorio.
+ */
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final BikeReportUseCasePort bikeReportUseCasePort;
+    private final Path spoolDirectory;
+    private final Duration retention;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, JobEntry> jobs = new ConcurrentHashMap<>();
+    private final List<Consumer<ReportJob>> listeners = new CopyOnWriteArrayList<>();
+
+    public ReportJobService(BikeReportUseCasePort bikeReportUseCasePort, Path spoolDirectory,
+                            int workers, int queueCapacity, Duration retention) throws IOException {
+        this.bikeReportUseCasePort = bikeReportUseCasePort;
+        this.spoolDirectory = spoolDirectory;
+        this.retention = retention;
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ReportThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        Files.createDirectories(spoolDirectory);
+        deleteOrphanFiles();
+    }
+
+    /**
+     * Encola el reporte de bicicletas de un usuario.
+     *
+     * @throws ReportJobRejectedException si la cola está llena
+     */
+    public ReportJob submitUserReport(Long userId, ReportFormat format, String requestedBy) {
+        String fileName = String.format("reporte_bicicletas_%d_%s.%s", userId, timestamp(), format.getExtension());
+        return submit(ReportJobType.USER_BIKES, userId, format, requestedBy, fileName,
+                (out, progress) -> bikeReportUseCasePort.writeBikeReport(userId, format, out, progress));
+    }
+
+    /**
+     * Encola el reporte de toda la flota.
+     *
+     * @throws ReportJobRejectedException si la cola está llena
+     */
+    public ReportJob submitAllBikesReport(ReportFormat format, String requestedBy) {
+        String fileName = String.format("reporte_flota_%s.%s", timestamp(), format.getExtension());
+        return submit(ReportJobType.ALL_BIKES, null, format, requestedBy, fileName,
+                (out, progress) -> bikeReportUseCasePort.writeAllBikesReport(format, out, progress));
+    }
+
+    public Optional<ReportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(JobEntry::snapshot);
+    }
+
+    /**
+     * Trabajos de una persona, del más reciente al más viejo.
+     */
+    public List<ReportJob> findJobs(String requestedBy) {
+        purgeExpired();
+        return jobs.values().stream()
+                .filter(job -> job.requestedBy.equals(requestedBy))
+                .map(JobEntry::snapshot)
+                .sorted(Comparator.comparing(ReportJob::createdAt).reversed())
+                .toList();
+    }
+
+    /**
+     * Copia el archivo terminado al destino (por ejemplo, la respuesta HTTP). Solo quien pidió el
+     * reporte lo descarga; para cualquier otro el trabajo no existe.
+     *
+     * @throws IllegalArgumentException si no hay un trabajo terminado con ese ID pedido por requestedBy
+     */
+    public void writeResult(String jobId, String requestedBy, OutputStream out) throws IOException {
+        JobEntry job = jobs.get(jobId);
+        if (job == null || !job.requestedBy.equals(requestedBy) || job.status != ReportJobStatus.COMPLETED) {
+            throw new IllegalArgumentException("Report job not available: " + jobId);
+        }
+        Files.copy(job.file, out);
+    }
+
+    /**
+     * Recibe cada cambio de estado y de porcentaje de cualquier trabajo.
+     * Se llama desde los hilos del pool: quien actualiza una UI debe usar ui.access.
+     *
+     * @return acción que da de baja el listener
+     */
+    public Runnable addListener(Consumer<ReportJob> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Quedaron reportes en ejecución al apagar");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ReportJob submit(ReportJobType type, Long userId, ReportFormat format, String requestedBy,
+                             String fileName, ReportTask task) {
+        purgeExpired();
+
+        String id = UUID.randomUUID().toString();
+        JobEntry job = new JobEntry(id, type, userId, format, requestedBy, fileName,
+                spoolDirectory.resolve(id + "." + format.getExtension()));
+        // La foto se toma antes de encolar: el trabajo puede avanzar antes de que volvamos.
+        // El estado QUEUED lo muestra quien encola; los listeners reciben desde RUNNING en adelante
+        ReportJob snapshot = job.snapshot();
+        jobs.put(id, job);
+        try {
+            executor.execute(() -> run(job, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw new ReportJobRejectedException(
+                    "Report queue is full (" + queueCapacity + " pending)", queueCapacity, e);
+        }
+        logger.info("Reporte {} encolado: {} {} para {}", id, type, format, requestedBy);
+        return snapshot;
+    }
+
+    private void run(JobEntry job, ReportTask task) {
+        job.status = ReportJobStatus.RUNNING;
+        notifyListeners(job.snapshot());
+
+        Path partial = job.file.resolveSibling(job.file.getFileName() + PARTIAL_SUFFIX);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                task.write(out, (rowsWritten, totalRows) -> updateProgress(job, rowsWritten, totalRows));
+            }
+            Files.move(partial, job.file, StandardCopyOption.REPLACE_EXISTING);
+            job.sizeBytes = Files.size(job.file);
+            job.progress = 100;
+            job.status = ReportJobStatus.COMPLETED;
+            logger.info("Reporte {} listo: {} bytes", job.id, job.sizeBytes);
+        } catch (Exception e) {
+            logger.error("Error generando el reporte {}: {}", job.id, e.getMessage(), e);
+            deleteQuietly(partial);
+            job.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.status = ReportJobStatus.FAILED;
+        }
+        job.finishedAt = Instant.now();
+        notifyListeners(job.snapshot());
+    }
+
+    private void updateProgress(JobEntry job, long rowsWritten, long totalRows) {
+        // El 100 % se informa al terminar de escribir el archivo, no con la última fila
+        int percent = totalRows <= 0 ? 0 : (int) Math.min(99, rowsWritten * 100 / totalRows);
+        if (percent != job.progress) {
+            job.progress = percent;
+            notifyListeners(job.snapshot());
+        }
+    }
+
+    private void notifyListeners(ReportJob job) {
+        for (Consumer<ReportJob> listener : listeners) {
+            try {
+                listener.accept(job);
+            } catch (RuntimeException e) {
+                logger.warn("Listener de reportes falló: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void purgeExpired() {
+        Instant limit = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || job.finishedAt.isAfter(limit)) {
+                return false;
+            }
+            deleteQuietly(job.file);
+            return true;
+        });
+    }
+
+    private void deleteOrphanFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDirectory, "*.{pdf,csv,xlsx}*")) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (NoSuchFileException ignored) {
+            // ya no estaba
+        } catch (IOException e) {
+            logger.warn("No se pudo borrar el archivo de reporte {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String timestamp() {
+        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+    }
+
+    @FunctionalInterface
+    private interface ReportTask {
+        void write(OutputStream out, ReportProgressListener progress) throws IOException;
+    }
+
+    /**
+     * Estado mutable de un trabajo. Lo escribe un solo hilo del pool; los lectores usan snapshot().
+     */
+    private static final class JobEntry {
+
+        private final String id;
+        private final ReportJobType type;
+        private final Long userId;
+        private final ReportFormat format;
+        private final String requestedBy;
+        private final String fileName;
+        private final Path file;
+        private final Instant createdAt = Instant.now();
+        private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        private volatile int progress;
+        private volatile long sizeBytes;
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private JobEntry(String id, ReportJobType type, Long userId, ReportFormat format, String requestedBy,
+                         String fileName, Path file) {
+            this.id = id;
+            this.type = type;
+            this.userId = userId;
+            this.format = format;
+            this.requestedBy = requestedBy;
+            this.fileName = fileName;
+            this.file = file;
+        }
+
+        private ReportJob snapshot() {
+            return new ReportJob(id, type, userId, format, requestedBy, status, progress, fileName, sizeBytes,
+                    error, createdAt, finishedAt);
+        }
+    }
+
+    private static final class ReportThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "report-job-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
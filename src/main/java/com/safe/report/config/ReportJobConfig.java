@@ -0,0 +1,26 @@
+package com.safe.report.config;
+
+import com.safe.report.application.service.ReportJobService;
+import com.safe.report.domain.port.in.BikeReportUseCasePort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class ReportJobConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ReportJobService reportJobService(
+            BikeReportUseCasePort bikeReportUseCasePort,
+            @Value("${report.jobs.spool-dir:${java.io.tmpdir}/safebike-reports}") String spoolDir,
+            @Value("${report.jobs.workers:2}") int workers,
+            @Value("${report.jobs.queue-capacity:8}") int queueCapacity,
+            @Value("${report.jobs.retention:PT1H}") Duration retention
+    ) throws IOException {
+        return new ReportJobService(bikeReportUseCasePort, Path.of(spoolDir), workers, queueCapacity, retention);
+    }
+}
@@ -0,0 +1,19 @@
+package com.safe.report.domain.exception;
+
+/**
+ * Excepción lanzada cuando la cola de reportes en segundo plano está llena.
+ * Quien pide el reporte debe reintentar más tarde.
+ */
+public class ReportJobRejectedException extends RuntimeException {
+
+    private final int queueCapacity;
+
+    public ReportJobRejectedException(String message, int queueCapacity, Throwable cause) {
+        super(message, cause);
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+}
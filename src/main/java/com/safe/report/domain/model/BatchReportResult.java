@@ -0,0 +1,23 @@
+package com.safe.report.domain.model;
+
+import java.time.Duration;
+
+/**
+ * Resumen de un lote de reportes.
+ *
+ * @param partitions tramos de IDs de usuario recorridos
+ * @param reports    reportes escritos
+ * @param failed     usuarios cuyo reporte no se pudo generar; el resto del lote sigue
+ * @param rows       bicicletas incluidas en todos los reportes
+ * @param bytes      bytes de PDF escritos
+ * @param elapsed    duración total del lote
+ */
+public record BatchReportResult(
+        int partitions,
+        int reports,
+        int failed,
+        long rows,
+        long bytes,
+        Duration elapsed
+) {
+}
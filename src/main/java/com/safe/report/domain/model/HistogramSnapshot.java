@@ -0,0 +1,17 @@
+package com.safe.report.domain.model;
+
+/**
+ * Foto de un histograma. Los percentiles son aproximados (error relativo menor al 12,5 %).
+ *
+ * @param count cantidad de valores registrados
+ * @param sum   suma de los valores
+ * @param max   valor máximo registrado
+ */
+public record HistogramSnapshot(long count, long sum, long max, long p50, long p95, long p99) {
+
+    public static final HistogramSnapshot EMPTY = new HistogramSnapshot(0, 0, 0, 0, 0, 0);
+
+    public double mean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+}
@@ -0,0 +1,32 @@
+package com.safe.report.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Estado de un reporte que se genera en segundo plano.
+ *
+ * @param userId      usuario del reporte; null para ALL_BIKES
+ * @param format      formato del archivo generado
+ * @param requestedBy email de quien lo pidió; solo esa persona lo ve y lo descarga
+ * @param progress    porcentaje de filas escritas, de 0 a 100
+ * @param sizeBytes   tamaño del archivo generado; 0 hasta que termina
+ * @param error       motivo del fallo cuando status es FAILED
+ */
+public record ReportJob(
+        String id,
+        ReportJobType type,
+        Long userId,
+        ReportFormat format,
+        String requestedBy,
+        ReportJobStatus status,
+        int progress,
+        String fileName,
+        long sizeBytes,
+        String error,
+        Instant createdAt,
+        Instant finishedAt
+) {
+    public boolean isDownloadable() {
+        return status == ReportJobStatus.COMPLETED;
+    }
+}
@@ -0,0 +1,8 @@
+package com.safe.report.domain.model;
+
+public enum ReportJobType {
+    /** Bicicletas de un usuario. */
+    USER_BIKES,
+    /** Todas las bicicletas con su propietario. */
+    ALL_BIKES
+}
@@ -0,0 +1,22 @@
+package com.safe.report.domain.model;
+
+/**
+ * Tiempos y tamaños de los reportes generados desde el arranque. Cada valor es por reporte.
+ *
+ * @param queryNanos   ejecución de la consulta hasta tener filas disponibles
+ * @param mappingNanos conversión de filas a BikeReportDTO
+ * @param renderNanos  escritura del documento, sin contar la espera de filas
+ * @param rows         filas por reporte
+ * @param bytes        bytes escritos por reporte
+ */
+public record ReportMetricsSnapshot(
+        HistogramSnapshot queryNanos,
+        HistogramSnapshot mappingNanos,
+        HistogramSnapshot renderNanos,
+        HistogramSnapshot rows,
+        HistogramSnapshot bytes
+) {
+    public long reports() {
+        return rows.count();
+    }
+}
@@ -0,0 +1,13 @@
+package com.safe.report.domain.model;
+
+/**
+ * Avance de un reporte mientras se escriben las filas.
+ */
+@FunctionalInterface
+public interface ReportProgressListener {
+
+    ReportProgressListener NONE = (rowsWritten, totalRows) -> {
+    };
+
+    void onProgress(long rowsWritten, long totalRows);
+}
@@ -0,0 +1,8 @@
+package com.safe.report.domain.model;
+
+/**
+ * Fila del recorrido por tramos: la bicicleta junto con el ID de su propietario, para agrupar
+ * por usuario a medida que llegan las filas.
+ */
+public record UserBikeRow(long userId, BikeReportDTO bike) {
+}
@@ -0,0 +1,20 @@
+package com.safe.report.domain.model;
+
+/**
+ * Rango cerrado de IDs de usuario [startId, endId], usado para repartir un lote de reportes.
+ */
+public record UserIdRange(long startId, long endId) {
+
+    public UserIdRange {
+        if (startId > endId) {
+            throw new IllegalArgumentException("Invalid user id range: " + startId + ".." + endId);
+        }
+    }
+
+    /**
+     * Siguiente tramo de a lo sumo size IDs que empieza en from, sin pasarse del final del rango.
+     */
+    public UserIdRange slice(long from, long size) {
+        return new UserIdRange(from, Math.min(endId, from + size - 1));
+    }
+}
@@ -1,5 +1,29 @@
 package com.safe.report.domain.port.in;
 
+import com.safe.report.domain.model.BikeReportDTO;
+import com.safe.report.domain.model.ReportFormat;
+import com.safe.report.domain.model.ReportProgressListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
 public interface BikeReportUseCasePort {
     byte[] generateBikeReport(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Genera el PDF a partir de filas ya cargadas, sin volver a consultar.
+     */
+    byte[] generateBikeReport(List<BikeReportDTO> bikeData);
+
+    void writeBikeReport(Long userId, OutputStream out) throws IOException;
+
+    void writeBikeReport(Long userId, ReportFormat format, OutputStream out, ReportProgressListener progress)
+            throws IOException;
+
+    /**
+     * Reporte de todas las bicicletas, leído con cursor y escrito a medida que llegan las filas.
+     */
+    void writeAllBikesReport(ReportFormat format, OutputStream out, ReportProgressListener progress)
+            throws IOException;
+}
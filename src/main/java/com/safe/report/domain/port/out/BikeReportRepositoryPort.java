@@ -1,9 +1,40 @@
 package com.safe.report.domain.port.out;
 
 import com.safe.report.domain.model.BikeReportDTO;
+import com.safe.report.domain.model.UserBikeRow;
+import com.safe.report.domain.model.UserIdRange;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BikeReportRepositoryPort {
     List<BikeReportDTO> findBikesByUserId(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Recorre las bicicletas del usuario con un cursor del servidor, sin cargar todo el resultado.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar (try-with-resources).
+     */
+    Stream<BikeReportDTO> streamBikesByUserId(Long userId);
+
+    long countBikesByUserId(Long userId);
+
+    /**
+     * Como streamBikesByUserId, pero sobre todas las bicicletas, ordenadas por propietario.
+     */
+    Stream<BikeReportDTO> streamAllBikes();
+
+    long countAllBikes();
+
+    /**
+     * IDs de usuario más bajo y más alto registrados; vacío si no hay usuarios.
+     */
+    Optional<UserIdRange> findUserIdRange();
+
+    /**
+     * Bicicletas de todos los usuarios del rango en una sola consulta, ordenadas por ID de usuario
+     * ascendente: las filas de un mismo usuario llegan seguidas. Los usuarios sin bicicletas no
+     * aparecen. Como streamBikesByUserId, debe consumirse dentro de una transacción y cerrarse.
+     */
+    Stream<UserBikeRow> streamBikesByUserIdRange(UserIdRange range);
+}
@@ -0,0 +1,24 @@
+package com.safe.report.domain.port.out;
+
+import com.safe.report.domain.model.BikeReportDTO;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Caché por usuario de las filas del reporte y del PDF ya generado.
+ * Las entradas dejan de valer en cuanto cambian las bicicletas del usuario.
+ */
+public interface ReportCachePort {
+
+    List<BikeReportDTO> getRows(Long userId, Supplier<List<BikeReportDTO>> loader);
+
+    Optional<List<BikeReportDTO>> peekRows(Long userId);
+
+    byte[] getPdf(Long userId, Supplier<byte[]> renderer);
+
+    Optional<byte[]> peekPdf(Long userId);
+
+    void invalidate(Long userId);
+}
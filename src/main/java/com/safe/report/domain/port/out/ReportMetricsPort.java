@@ -0,0 +1,17 @@
+package com.safe.report.domain.port.out;
+
+import com.safe.report.domain.model.ReportMetricsSnapshot;
+
+/**
+ * Registro de tiempos del pipeline de reportes. Cada llamada corresponde a un reporte, no a una fila.
+ */
+public interface ReportMetricsPort {
+
+    void recordQuery(long nanos);
+
+    void recordMapping(long nanos);
+
+    void recordRender(long nanos, long rows, long bytes);
+
+    ReportMetricsSnapshot snapshot();
+}
@@ -1,9 +1,55 @@
 package com.safe.report.domain.port.out;
 
 import com.safe.report.domain.model.BikeReportDTO;
+import com.safe.report.domain.model.ReportFormat;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
 import java.util.List;
 
+/**
+ * Render de reportes en un formato. Hay una implementación por ReportFormat.
+ */
 public interface ReportServicePort {
-    byte[] generateBikeReportPdf(List<BikeReportDTO> bikeData, String userFullName);
-}
\ No newline at end of file
+
+    ReportFormat getFormat();
+
+    /**
+     * Escribe el reporte directamente en el destino a medida que se consumen las filas.
+     * No cierra el stream: eso queda a cargo de quien lo abrió.
+     *
+     * @param totalBikes total que se imprime en el encabezado, antes de recorrer las filas
+     */
+    void writeBikeReport(Iterator<BikeReportDTO> bikeData, String userFullName, long totalBikes,
+                         OutputStream out) throws IOException;
+
+    /**
+     * Reporte de toda la flota: igual que el de un usuario, con los datos del propietario.
+     */
+    void writeFleetReport(Iterator<BikeReportDTO> bikeData, long totalBikes, OutputStream out) throws IOException;
+
+    default byte[] generateBikeReport(List<BikeReportDTO> bikeData, String userFullName) {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            writeBikeReport(bikeData, userFullName, baos);
+            return baos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Error generando reporte " + getFormat(), e);
+        }
+    }
+
+    default void writeBikeReport(List<BikeReportDTO> bikeData, String userFullName,
+                                 OutputStream out) throws IOException {
+        writeBikeReport(bikeData.iterator(), userFullName, bikeData.size(), out);
+    }
+
+    default void writeBikeReport(Iterator<BikeReportDTO> bikeData, String userFullName, long totalBikes,
+                                 WritableByteChannel target) throws IOException {
+        OutputStream out = Channels.newOutputStream(target);
+        writeBikeReport(bikeData, userFullName, totalBikes, out);
+        out.flush();
+    }
+}
@@ -2,34 +2,101 @@ package com.safe.report.domain.port.out.persistence;
 
 
 import com.safe.report.domain.model.BikeReportDTO;
+import com.safe.report.domain.model.UserBikeRow;
+import com.safe.report.domain.model.UserIdRange;
 import com.safe.report.domain.port.out.BikeReportRepositoryPort;
+import com.safe.report.domain.port.out.ReportMetricsPort;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigInteger;
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Repository
 public class BikeReportRepositoryAdapter implements BikeReportRepositoryPort {
     private static final Logger log = LoggerFactory.getLogger(BikeReportRepositoryAdapter.class);
-    private final EntityManager entityManager;
 
-    public BikeReportRepositoryAdapter(EntityManager entityManager) {
-        this.entityManager = entityManager;
-    }
+    private static final String BIKES_BY_USER_SQL = """
+            SELECT
+                b.bike_id,
+                u.first_name AS firstname,
+                u.last_name as lastname,
+                br.name as brand,
+                bm.model_name as model,
+                bt.name AS type,
+                b.serial_number as "serial_number",
+                b.purchase_date
+            FROM
+                bike b
+            INNER JOIN users u ON b.user_id = u.id
+            INNER JOIN brand br ON b.brand_id = br.brand_id
+            INNER JOIN bike_type bt ON b.bike_type_id = bt.bike_type_id
+            INNER JOIN moneda mo ON b.moneda_id = mo.id
+            LEFT JOIN bike_model bm ON b.model_bike_id = bm.id_bike_model
+            WHERE
+                u.id = :userId
+            ORDER BY
+                b.created_at DESC
+            """;
 
+    // Mismos joins que el reporte, para que el total coincida con las filas que se imprimen
+    private static final String COUNT_BY_USER_SQL = """
+            SELECT
+                count(*)
+            FROM
+                bike b
+            INNER JOIN users u ON b.user_id = u.id
+            INNER JOIN brand br ON b.brand_id = br.brand_id
+            INNER JOIN bike_type bt ON b.bike_type_id = bt.bike_type_id
+            INNER JOIN moneda mo ON b.moneda_id = mo.id
+            WHERE
+                u.id = :userId
+            """;
 
-    @Override
-    public List<BikeReportDTO> findBikesByUserId(Long userId) {
+    // Toda la flota, agrupada por propietario como findAllBikesWithUserInfo
+    private static final String ALL_BIKES_SQL = """
+            SELECT
+                b.bike_id,
+                u.first_name AS firstname,
+                u.last_name as lastname,
+                br.name as brand,
+                bm.model_name as model,
+                bt.name AS type,
+                b.serial_number as "serial_number",
+                b.purchase_date
+            FROM
+                bike b
+            INNER JOIN users u ON b.user_id = u.id
+            INNER JOIN brand br ON b.brand_id = br.brand_id
+            INNER JOIN bike_type bt ON b.bike_type_id = bt.bike_type_id
+            INNER JOIN moneda mo ON b.moneda_id = mo.id
+            LEFT JOIN bike_model bm ON b.model_bike_id = bm.id_bike_model
+            ORDER BY
+                u.last_name, u.first_name, b.bike_id
+            """;
 
-        log.info("findBikesByUserId {} userId: " + userId);
+    private static final String COUNT_ALL_SQL = """
+            SELECT
+                count(*)
+            FROM
+                bike b
+            INNER JOIN users u ON b.user_id = u.id
+            INNER JOIN brand br ON b.brand_id = br.brand_id
+            INNER JOIN bike_type bt ON b.bike_type_id = bt.bike_type_id
+            INNER JOIN moneda mo ON b.moneda_id = mo.id
+            """;
 
-        String sql = """
+    // Mismo rango que UserRepository.findByIdRange; el ID de usuario va al final para agrupar
+    private static final String BIKES_BY_USER_RANGE_SQL = """
             SELECT
                 b.bike_id,
                 u.first_name AS firstname,
@@ -38,7 +105,8 @@ public class BikeReportRepositoryAdapter implements BikeReportRepositoryPort {
                 bm.model_name as model,
                 bt.name AS type,
                 b.serial_number as "serial_number",
-                b.purchase_date
+                b.purchase_date,
+                u.id AS user_id
             FROM
                 bike b
             INNER JOIN users u ON b.user_id = u.id
@@ -47,60 +115,132 @@ public class BikeReportRepositoryAdapter implements BikeReportRepositoryPort {
             INNER JOIN moneda mo ON b.moneda_id = mo.id
             LEFT JOIN bike_model bm ON b.model_bike_id = bm.id_bike_model
             WHERE
-                u.id = :userId
+                u.id BETWEEN :startId AND :endId
             ORDER BY
-                b.created_at DESC
+                u.id, b.created_at DESC
             """;
 
-        Query query = entityManager.createNativeQuery(sql);
+    private static final String USER_ID_RANGE_SQL = "SELECT min(u.id), max(u.id) FROM users u";
+
+    private final EntityManager entityManager;
+    private final ReportMetricsPort reportMetrics;
+    private final int fetchSize;
+
+    public BikeReportRepositoryAdapter(EntityManager entityManager,
+                                       ReportMetricsPort reportMetrics,
+                                       @Value("${report.stream.fetch-size:500}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.reportMetrics = reportMetrics;
+        this.fetchSize = fetchSize;
+    }
+
+
+    @Override
+    public List<BikeReportDTO> findBikesByUserId(Long userId) {
+        log.debug("findBikesByUserId userId: {}", userId);
+
+        Query query = entityManager.createNativeQuery(BIKES_BY_USER_SQL);
         query.setParameter("userId", userId);
 
+        long start = System.nanoTime();
         @SuppressWarnings("unchecked")
         List<Object[]> results = query.getResultList();
+        reportMetrics.recordQuery(System.nanoTime() - start);
 
-        log.info("Query results: {}", results.size());
-        results.forEach(row -> log.info("Row: {}", Arrays.toString(row)));
-
-        return results.stream()
+        long mappingStart = System.nanoTime();
+        List<BikeReportDTO> bikes = results.stream()
                 .map(this::mapToBikeReportDTO)
                 .toList();
+        reportMetrics.recordMapping(System.nanoTime() - mappingStart);
+        return bikes;
+    }
+
+    @Override
+    public Stream<BikeReportDTO> streamBikesByUserId(Long userId) {
+        Query query = entityManager.createNativeQuery(BIKES_BY_USER_SQL);
+        query.setParameter("userId", userId);
+        return stream(query);
+    }
+
+    @Override
+    public Stream<BikeReportDTO> streamAllBikes() {
+        return stream(entityManager.createNativeQuery(ALL_BIKES_SQL));
+    }
+
+    private Stream<BikeReportDTO> stream(Query query) {
+        return streamRows(query, this::mapToBikeReportDTO);
+    }
+
+    private <T> Stream<T> streamRows(Query query, Function<Object[], T> mapper) {
+        // Con autocommit desactivado (transacción abierta) y fetch size > 0, el driver de PostgreSQL
+        // usa un cursor y trae las filas de a fetchSize en lugar de todo el resultado
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        long start = System.nanoTime();
+        @SuppressWarnings("unchecked")
+        Stream<Object[]> rows = query.getResultStream();
+        reportMetrics.recordQuery(System.nanoTime() - start);
+
+        // El mapeo ocurre a medida que se consume el stream: se acumula y se registra al cerrarlo
+        long[] mappingNanos = new long[1];
+        return rows.map(row -> {
+            long rowStart = System.nanoTime();
+            T mapped = mapper.apply(row);
+            mappingNanos[0] += System.nanoTime() - rowStart;
+            return mapped;
+        }).onClose(() -> reportMetrics.recordMapping(mappingNanos[0]));
+    }
+
+    @Override
+    public long countBikesByUserId(Long userId) {
+        Object count = entityManager.createNativeQuery(COUNT_BY_USER_SQL)
+                .setParameter("userId", userId)
+                .getSingleResult();
+        return convertToLong(count);
+    }
+
+    @Override
+    public long countAllBikes() {
+        return convertToLong(entityManager.createNativeQuery(COUNT_ALL_SQL).getSingleResult());
+    }
+
+    @Override
+    public Optional<UserIdRange> findUserIdRange() {
+        Object[] bounds = (Object[]) entityManager.createNativeQuery(USER_ID_RANGE_SQL).getSingleResult();
+        if (bounds[0] == null || bounds[1] == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new UserIdRange(convertToLong(bounds[0]), convertToLong(bounds[1])));
+    }
+
+    @Override
+    public Stream<UserBikeRow> streamBikesByUserIdRange(UserIdRange range) {
+        log.debug("streamBikesByUserIdRange {}..{}", range.startId(), range.endId());
+
+        Query query = entityManager.createNativeQuery(BIKES_BY_USER_RANGE_SQL);
+        query.setParameter("startId", range.startId());
+        query.setParameter("endId", range.endId());
+        return streamRows(query, row -> new UserBikeRow(convertToLong(row[8]), mapToBikeReportDTO(row)));
     }
 
     private BikeReportDTO mapToBikeReportDTO(Object[] result) {
-        log.info(">>> Iniciando mapeo individual de: {}", java.util.Arrays.toString(result));
-
-        try {
-            Long bikeId = convertToLong(result[0]);          // <-- AQUÍ se invoca convertToLong
-            log.debug(">>> bikeId: {}", bikeId);
-
-            String firstName = (String) result[1];
-            String lastName = (String) result[2];
-            String brand = (String) result[3];
-            String model = (String) result[4];
-            String type = (String) result[5];
-            String serialNumber = (String) result[6];
-
-            LocalDate purchaseDate = convertToLocalDate(result[7]); // <-- AQUÍ se invoca convertToLocalDate
-            log.debug(">>> purchaseDate: {}", purchaseDate);
-
-            BikeReportDTO dto = new BikeReportDTO(
-                    bikeId,           // Resultado de convertToLong(result[0])
-                    firstName,
-                    lastName,
-                    brand,
-                    model,
-                    type,
-                    serialNumber,
-                    purchaseDate      // Resultado de convertToLocalDate(result[7])
-            );
-
-            log.info(">>> DTO creado: {}", dto);
-            return dto;
-
-        } catch (Exception e) {
-            log.error(">>> ERROR en mapeo individual: {}", e.getMessage(), e);
-            throw e;
+        BikeReportDTO dto = new BikeReportDTO(
+                convertToLong(result[0]),
+                (String) result[1],
+                (String) result[2],
+                (String) result[3],
+                (String) result[4],
+                (String) result[5],
+                (String) result[6],
+                convertToLocalDate(result[7])
+        );
+
+        // Por fila solo en TRACE; deshabilitado no formatea nada
+        if (log.isTraceEnabled()) {
+            log.trace("Fila de reporte mapeada: {}", dto);
         }
+        return dto;
     }
 
     private Long convertToLong(Object value) {
@@ -3,26 +3,45 @@ package com.safe.report.domain.usecase;
 
 
 import com.safe.report.domain.model.BikeReportDTO;
+import com.safe.report.domain.model.ReportFormat;
+import com.safe.report.domain.model.ReportProgressListener;
 import com.safe.report.domain.port.in.BikeReportUseCasePort;
 import com.safe.report.domain.port.out.BikeReportRepositoryPort;
+import com.safe.report.domain.port.out.ReportMetricsPort;
 import com.safe.report.domain.port.out.ReportServicePort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Component
 public class BikeReportUseCase implements BikeReportUseCasePort {
 
     private static final Logger logger = LoggerFactory.getLogger(BikeReportUseCase.class);
     private final BikeReportRepositoryPort bikeReportRepositoryPort;
-    private final ReportServicePort reportServicePort;
+    private final Map<ReportFormat, ReportServicePort> reportServicePorts = new EnumMap<>(ReportFormat.class);
+    private final ReportMetricsPort reportMetrics;
 
     public BikeReportUseCase(BikeReportRepositoryPort bikeRepositoryPort,
-                             ReportServicePort reportServicePort) {
+                             List<ReportServicePort> reportServicePorts,
+                             ReportMetricsPort reportMetrics) {
         this.bikeReportRepositoryPort = bikeRepositoryPort;
-        this.reportServicePort = reportServicePort;
+        for (ReportServicePort port : reportServicePorts) {
+            this.reportServicePorts.put(port.getFormat(), port);
+        }
+        this.reportMetrics = reportMetrics;
     }
 
     @Override
@@ -37,16 +56,152 @@ public class BikeReportUseCase implements BikeReportUseCasePort {
             throw new IllegalArgumentException("No bikes found for user with ID: " + userId);
         }
 
+        return generateBikeReport(bikeData);
+    }
+
+    @Override
+    public byte[] generateBikeReport(List<BikeReportDTO> bikeData) {
+        if (bikeData.isEmpty()) {
+            throw new IllegalArgumentException("No bikes to report");
+        }
+
         String userFullName = bikeData.get(0).getFullName();
         logger.debug("Generando PDF para usuario: {}", userFullName);
 
         try {
-            byte[] pdfBytes = reportServicePort.generateBikeReportPdf(bikeData, userFullName);
+            long start = System.nanoTime();
+            byte[] pdfBytes = renderer(ReportFormat.PDF).generateBikeReport(bikeData, userFullName);
+            reportMetrics.recordRender(System.nanoTime() - start, bikeData.size(), pdfBytes.length);
             logger.debug("PDF generado exitosamente. Tamaño: {} bytes", pdfBytes.length);
             return pdfBytes;
         } catch (Exception e) {
-            logger.error("Error generando PDF para usuario {}: {}", userId, e.getMessage(), e);
+            logger.error("Error generando PDF para usuario {}: {}", userFullName, e.getMessage(), e);
             throw new RuntimeException("Error generating PDF report", e);
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeBikeReport(Long userId, OutputStream out) throws IOException {
+        writeBikeReport(userId, ReportFormat.PDF, out, ReportProgressListener.NONE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeBikeReport(Long userId, ReportFormat format, OutputStream out, ReportProgressListener progress)
+            throws IOException {
+        ReportServicePort renderer = renderer(format);
+        logger.debug("Iniciando reporte en streaming para usuario ID: {}", userId);
+
+        long totalBikes = bikeReportRepositoryPort.countBikesByUserId(userId);
+        if (totalBikes == 0) {
+            logger.warn("No se encontraron bicicletas para el usuario ID: {}", userId);
+            throw new IllegalArgumentException("No bikes found for user with ID: " + userId);
+        }
+
+        // Las filas se leen del cursor y se escriben en el reporte de a una; el cursor vive lo que dura la transacción
+        CountingOutputStream counted = new CountingOutputStream(out);
+        try (Stream<BikeReportDTO> rows = bikeReportRepositoryPort.streamBikesByUserId(userId)) {
+            TimedIterator iterator = new TimedIterator(rows.iterator(), totalBikes, progress);
+            if (!iterator.hasNext()) {
+                throw new IllegalArgumentException("No bikes found for user with ID: " + userId);
+            }
+            BikeReportDTO first = iterator.next();
+            Iterator<BikeReportDTO> all = Stream.concat(Stream.of(first),
+                    StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false))
+                    .iterator();
+
+            long start = System.nanoTime();
+            renderer.writeBikeReport(all, first.getFullName(), totalBikes, counted);
+            // El tiempo esperando filas del cursor no es render
+            long renderNanos = System.nanoTime() - start - iterator.waitNanos;
+            reportMetrics.recordRender(renderNanos, iterator.rows, counted.count);
+            logger.debug("Reporte {} escrito para usuario {}: {} filas, {} bytes",
+                    format, userId, iterator.rows, counted.count);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeAllBikesReport(ReportFormat format, OutputStream out, ReportProgressListener progress)
+            throws IOException {
+        ReportServicePort renderer = renderer(format);
+        long totalBikes = bikeReportRepositoryPort.countAllBikes();
+        logger.debug("Iniciando reporte de flota: {} bicicletas", totalBikes);
+
+        CountingOutputStream counted = new CountingOutputStream(out);
+        try (Stream<BikeReportDTO> rows = bikeReportRepositoryPort.streamAllBikes()) {
+            TimedIterator iterator = new TimedIterator(rows.iterator(), totalBikes, progress);
+            long start = System.nanoTime();
+            renderer.writeFleetReport(iterator, totalBikes, counted);
+            long renderNanos = System.nanoTime() - start - iterator.waitNanos;
+            reportMetrics.recordRender(renderNanos, iterator.rows, counted.count);
+            logger.debug("Reporte de flota {} escrito: {} filas, {} bytes", format, iterator.rows, counted.count);
+        }
+    }
+
+    private ReportServicePort renderer(ReportFormat format) {
+        ReportServicePort renderer = reportServicePorts.get(format);
+        if (renderer == null) {
+            throw new IllegalArgumentException("Unsupported report format: " + format);
+        }
+        return renderer;
+    }
+
+    /**
+     * Cuenta filas, avisa el avance y mide el tiempo que el renderer pasa esperando la siguiente.
+     */
+    private static final class TimedIterator implements Iterator<BikeReportDTO> {
+
+        private final Iterator<BikeReportDTO> delegate;
+        private final long totalRows;
+        private final ReportProgressListener progress;
+        private long waitNanos;
+        private long rows;
+
+        TimedIterator(Iterator<BikeReportDTO> delegate, long totalRows, ReportProgressListener progress) {
+            this.delegate = delegate;
+            this.totalRows = totalRows;
+            this.progress = progress;
+        }
+
+        @Override
+        public boolean hasNext() {
+            long start = System.nanoTime();
+            boolean hasNext = delegate.hasNext();
+            waitNanos += System.nanoTime() - start;
+            return hasNext;
+        }
+
+        @Override
+        public BikeReportDTO next() {
+            long start = System.nanoTime();
+            BikeReportDTO next = delegate.next();
+            waitNanos += System.nanoTime() - start;
+            rows++;
+            progress.onProgress(rows, totalRows);
+            return next;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
\ No newline at end of file
@@ -3,8 +3,18 @@ package com.safe.report.infrastructure.adapter.input.web;
 
 import com.safe.BikeSafeApplication;
 import com.safe.report.application.service.BikeReportService;
+import com.safe.report.application.service.ReportJobService;
+import com.safe.report.domain.exception.ReportJobRejectedException;
 import com.safe.report.domain.model.BikeReportDTO;
+import com.safe.report.domain.model.ReportFormat;
+import com.safe.report.domain.model.ReportJob;
+import com.safe.report.domain.model.ReportJobStatus;
+import com.safe.report.domain.model.ReportJobType;
+import com.safe.user.infrastructure.adapters.input.security.SecurityService;
 import com.safe.user.infrastructure.adapters.input.web.MainLayout;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.dialog.Dialog;
@@ -13,10 +23,13 @@ import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.component.textfield.NumberField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
@@ -25,9 +38,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.io.ByteArrayInputStream;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Route(value = "reports", layout = MainLayout.class)
 @PageTitle("Generador de Reportes de Bicicletas")
@@ -35,16 +49,27 @@ public class ReporteView extends VerticalLayout {
 
     private static final Logger log = LoggerFactory.getLogger(ReporteView.class);
     private final BikeReportService bikeReportService;
+    private final ReportJobService reportJobService;
+    private final SecurityService securityService;
     private final NumberField userIdField;
+    private final Select<ReportFormat> formatSelect;
     private final Button generateButton;
     private final Button previewButton;
+    private final Button backgroundButton;
     private final Grid<BikeReportDTO> bikeGrid;
     private final Paragraph summaryParagraph;
+    private final VerticalLayout jobsLayout;
+    private final Map<String, JobRow> jobRows = new HashMap<>();
+    private Runnable jobListenerRemoval;
+    // Usuario de esta vista; la descarga corre fuera del contexto de seguridad y se valida con él
+    private String currentUserEmail;
 
     @Autowired
-    public ReporteView(BikeReportService bikeReportService) {
-        log.info("ReporteView " +  bikeReportService);
+    public ReporteView(BikeReportService bikeReportService, ReportJobService reportJobService,
+                       SecurityService securityService) {
         this.bikeReportService = bikeReportService;
+        this.reportJobService = reportJobService;
+        this.securityService = securityService;
 
         // Configurar layout principal
         setSizeFull();
@@ -63,18 +88,38 @@ public class ReporteView extends VerticalLayout {
         userIdField.setWidth("300px");
         userIdField.setValue(9.0); // Valor por defecto basado en tu ejemplo
 
+        // Formato del archivo: aplica a la descarga directa y a los reportes en segundo plano
+        formatSelect = new Select<>();
+        formatSelect.setLabel("Formato");
+        formatSelect.setItems(ReportFormat.values());
+        formatSelect.setItemLabelGenerator(ReportFormat::name);
+        formatSelect.setValue(ReportFormat.PDF);
+        formatSelect.setWidth("300px");
+
         // Botones
-        generateButton = new Button("Generar PDF", event -> generatePdfReport());
+        generateButton = new Button("Generar PDF", event -> generateReport());
         generateButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
         generateButton.setWidth("150px");
+        formatSelect.addValueChangeListener(event ->
+                generateButton.setText("Generar " + event.getValue().name()));
 
         previewButton = new Button("Vista Previa", event -> showPreview());
         previewButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
         previewButton.setWidth("150px");
 
-        HorizontalLayout buttonLayout = new HorizontalLayout(generateButton, previewButton);
+        backgroundButton = new Button("Generar en segundo plano", event -> submitUserReportJob());
+        backgroundButton.addThemeVariants(ButtonVariant.LUMO_CONTRAST);
+
+        HorizontalLayout buttonLayout = new HorizontalLayout(generateButton, previewButton, backgroundButton);
         buttonLayout.setSpacing(true);
 
+        // Reporte de toda la flota: solo administradores, siempre en segundo plano
+        if (securityService.hasRole("ADMIN")) {
+            Button fleetButton = new Button("Reporte de toda la flota", event -> submitFleetReportJob());
+            fleetButton.addThemeVariants(ButtonVariant.LUMO_CONTRAST);
+            buttonLayout.add(fleetButton);
+        }
+
         // Párrafo para mostrar resumen
         summaryParagraph = new Paragraph();
         summaryParagraph.getStyle().set("font-style", "italic");
@@ -83,8 +128,145 @@ public class ReporteView extends VerticalLayout {
         // Grid para mostrar datos
         bikeGrid = createBikeGrid();
 
+        // Reportes en segundo plano de esta sesión
+        jobsLayout = new VerticalLayout();
+        jobsLayout.setPadding(false);
+        jobsLayout.setSpacing(false);
+        jobsLayout.setWidth("100%");
+        jobsLayout.setMaxWidth("800px");
+
         // Agregar componentes al layout
-        add(title, userIdField, buttonLayout, summaryParagraph, bikeGrid);
+        add(title, userIdField, formatSelect, buttonLayout, summaryParagraph, bikeGrid, jobsLayout);
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        UI ui = attachEvent.getUI();
+        String requestedBy = securityService.getAuthenticatedUserEmail();
+        if (requestedBy == null) {
+            return;
+        }
+        currentUserEmail = requestedBy;
+        reportJobService.findJobs(requestedBy).forEach(this::showJob);
+        // El aviso llega desde un hilo del pool de reportes: se aplica con ui.access y viaja por push
+        jobListenerRemoval = reportJobService.addListener(job -> {
+            if (requestedBy.equals(job.requestedBy())) {
+                ui.access(() -> onJobUpdated(job));
+            }
+        });
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        super.onDetach(detachEvent);
+        if (jobListenerRemoval != null) {
+            jobListenerRemoval.run();
+            jobListenerRemoval = null;
+        }
+    }
+
+    private void submitUserReportJob() {
+        Long userId = getUserId();
+        if (userId == null) return;
+
+        try {
+            if (!bikeReportService.userHasBikes(userId)) {
+                showErrorNotification("No se encontraron bicicletas para el usuario con ID: " + userId);
+                return;
+            }
+            ReportJob job = reportJobService.submitUserReport(userId, formatSelect.getValue(),
+                    securityService.getAuthenticatedUserEmail());
+            showJob(job);
+            showSuccessNotification("Reporte en preparación. Se podrá descargar cuando esté listo.");
+        } catch (ReportJobRejectedException e) {
+            showErrorNotification("Hay demasiados reportes en preparación. Intente nuevamente en unos minutos.");
+        }
+    }
+
+    private void submitFleetReportJob() {
+        try {
+            ReportJob job = reportJobService.submitAllBikesReport(formatSelect.getValue(),
+                    securityService.getAuthenticatedUserEmail());
+            showJob(job);
+            showSuccessNotification("Reporte de flota en preparación. Se podrá descargar cuando esté listo.");
+        } catch (ReportJobRejectedException e) {
+            showErrorNotification("Hay demasiados reportes en preparación. Intente nuevamente en unos minutos.");
+        }
+    }
+
+    private void onJobUpdated(ReportJob job) {
+        JobRow row = jobRows.get(job.id());
+        ReportJobStatus previous = row != null ? row.status : null;
+        showJob(job);
+        if (previous != job.status()) {
+            if (job.status() == ReportJobStatus.COMPLETED) {
+                showSuccessNotification("Reporte listo para descargar: " + job.fileName());
+            } else if (job.status() == ReportJobStatus.FAILED) {
+                showErrorNotification("Error generando el reporte: " + job.error());
+            }
+        }
+    }
+
+    private void showJob(ReportJob job) {
+        JobRow row = jobRows.computeIfAbsent(job.id(), id -> {
+            JobRow created = new JobRow(job);
+            jobsLayout.addComponentAtIndex(0, created.layout);
+            return created;
+        });
+        row.update(job);
+    }
+
+    /**
+     * Fila con el avance de un reporte en segundo plano y su enlace de descarga.
+     */
+    private final class JobRow {
+
+        private final HorizontalLayout layout = new HorizontalLayout();
+        private final Span label = new Span();
+        private final ProgressBar progressBar = new ProgressBar(0, 100);
+        private final Anchor download = new Anchor();
+        private ReportJobStatus status;
+
+        private JobRow(ReportJob job) {
+            layout.setWidthFull();
+            layout.setAlignItems(Alignment.CENTER);
+            progressBar.setWidth("200px");
+            download.setText("Descargar");
+            download.getElement().setAttribute("download", true);
+            download.setVisible(false);
+            label.setText(job.type() == ReportJobType.ALL_BIKES
+                    ? "Flota completa"
+                    : "Usuario " + job.userId());
+            layout.add(label, progressBar, download);
+        }
+
+        private void update(ReportJob job) {
+            // Un aviso atrasado no debe pisar un estado más nuevo
+            if (status != null && (status.isFinished() || job.status().ordinal() < status.ordinal())) {
+                return;
+            }
+            status = job.status();
+            progressBar.setValue(job.progress());
+            switch (job.status()) {
+                case QUEUED -> progressBar.setIndeterminate(true);
+                case RUNNING -> progressBar.setIndeterminate(false);
+                case COMPLETED -> {
+                    progressBar.setVisible(false);
+                    StreamResource resource = new StreamResource(job.fileName(),
+                            (out, session) -> reportJobService.writeResult(job.id(), currentUserEmail, out));
+                    resource.setContentType(job.format().getContentType());
+                    resource.setCacheTime(0);
+                    download.setHref(resource);
+                    download.setVisible(true);
+                }
+                case FAILED -> {
+                    progressBar.setVisible(false);
+                    download.setVisible(false);
+                    label.setText(label.getText() + " (error)");
+                }
+            }
+        }
     }
 
     private Grid<BikeReportDTO> createBikeGrid() {
@@ -106,11 +288,10 @@ public class ReporteView extends VerticalLayout {
         return grid;
     }
 
-    private void generatePdfReport() {
+    private void generateReport() {
         Long userId = getUserId();
-        log.info("=========================================");
-        log.info("getUserId " +  getUserId());
-        log.info("=========================================");
+        ReportFormat format = formatSelect.getValue();
+        log.debug("Generando reporte {} para userId: {}", format, userId);
         if (userId == null) return;
 
         try {
@@ -120,13 +301,12 @@ public class ReporteView extends VerticalLayout {
                 return;
             }
 
-            // Generar PDF
-            ByteArrayInputStream pdfStream = bikeReportService.generateBikeReportPdf(userId);
-            String fileName = bikeReportService.generateFileName(userId);
+            String fileName = bikeReportService.generateFileName(userId, format);
 
-            // Crear recurso de descarga
-            StreamResource resource = new StreamResource(fileName, () -> pdfStream);
-            resource.setContentType("application/pdf");
+            // El reporte se genera al responder la descarga, escribiendo directo en la respuesta HTTP
+            StreamResource resource = new StreamResource(fileName,
+                    (out, session) -> bikeReportService.writeBikeReport(userId, format, out));
+            resource.setContentType(format.getContentType());
             resource.setCacheTime(0);
 
             // Crear enlace de descarga
@@ -138,7 +318,7 @@ public class ReporteView extends VerticalLayout {
             // Simular click para descargar
             downloadLink.getElement().callJsFunction("click");
 
-            showSuccessNotification("Reporte PDF generado correctamente: " + fileName);
+            showSuccessNotification("Descargando reporte " + format.name() + ": " + fileName);
 
         } catch (IllegalArgumentException e) {
             showErrorNotification(e.getMessage());
@@ -227,7 +407,6 @@ public class ReporteView extends VerticalLayout {
             showErrorNotification("Por favor, ingrese un ID de usuario válido");
             return null;
         }
-        log.info("userIdField.getValue().longValue(): " + userIdField.getValue().longValue() );
         return userIdField.getValue().longValue();
     }
 
@@ -0,0 +1,122 @@
+package com.safe.report.infrastructure.adapter.output.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.safe.bike.domain.event.BikeSavedEvent;
+import com.safe.report.domain.model.BikeReportDTO;
+import com.safe.report.domain.port.out.ReportCachePort;
+import com.safe.user.domain.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Las claves llevan la versión de datos del usuario. Invalidar incrementa la versión, así una
+ * carga que empezó antes del cambio guarda su resultado bajo la versión vieja y nadie lo vuelve a leer.
+ */
+@Component
+public class CaffeineReportCacheAdapter implements ReportCachePort {
+
+    private static final Logger log = LoggerFactory.getLogger(CaffeineReportCacheAdapter.class);
+
+    private final ConcurrentMap<Long, Long> versions = new ConcurrentHashMap<>();
+    private final Cache<ReportKey, List<BikeReportDTO>> rows;
+    private final Cache<ReportKey, byte[]> pdfs;
+
+    public CaffeineReportCacheAdapter(
+            @Value("${report.cache.max-rows:200000}") long maxRows,
+            @Value("${report.cache.max-pdf-bytes:67108864}") long maxPdfBytes,
+            @Value("${report.cache.ttl:PT30M}") Duration ttl
+    ) {
+        this.rows = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((ReportKey key, List<BikeReportDTO> value) -> Math.max(1, value.size()))
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        this.pdfs = Caffeine.newBuilder()
+                .maximumWeight(maxPdfBytes)
+                .weigher((ReportKey key, byte[] value) -> value.length)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public List<BikeReportDTO> getRows(Long userId, Supplier<List<BikeReportDTO>> loader) {
+        return rows.get(keyFor(userId), key -> List.copyOf(loader.get()));
+    }
+
+    @Override
+    public Optional<List<BikeReportDTO>> peekRows(Long userId) {
+        return Optional.ofNullable(rows.getIfPresent(keyFor(userId)));
+    }
+
+    @Override
+    public byte[] getPdf(Long userId, Supplier<byte[]> renderer) {
+        return pdfs.get(keyFor(userId), key -> renderer.get());
+    }
+
+    @Override
+    public Optional<byte[]> peekPdf(Long userId) {
+        return Optional.ofNullable(pdfs.getIfPresent(keyFor(userId)));
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        long version = versions.merge(userId, 1L, Long::sum);
+        // Las entradas de versiones anteriores ya no se alcanzan; se liberan sin esperar al TTL
+        rows.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+        pdfs.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+        log.debug("Caché de reporte invalidada para usuario {} (versión {})", userId, version);
+    }
+
+    /**
+     * Después del commit, para que una recarga inmediata ya vea los datos nuevos.
+     * Sin transacción activa se ejecuta en el momento. Si la bicicleta cambió de dueño,
+     * también se descarta el reporte del anterior, que todavía la lista.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBikeSaved(BikeSavedEvent event) {
+        if (event.userId() != null) {
+            invalidate(event.userId());
+        }
+        if (event.previousUserId() != null && !event.previousUserId().equals(event.userId())) {
+            invalidate(event.previousUserId());
+        }
+    }
+
+    /**
+     * Los reportes llevan nombre y apellido del dueño: se descartan si cambiaron o no se sabe.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+        UserChangedEvent.State before = event.before();
+        UserChangedEvent.State after = event.after();
+        if (before == null || after == null
+                || !Objects.equals(before.firstName(), after.firstName())
+                || !Objects.equals(before.lastName(), after.lastName())) {
+            invalidate(event.userId());
+        }
+    }
+
+    private ReportKey keyFor(Long userId) {
+        return new ReportKey(userId, versions.getOrDefault(userId, 0L));
+    }
+
+    private record ReportKey(Long userId, long version) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.safe.report.infrastructure.adapter.output.csv;
+
+import com.safe.report.domain.model.BikeReportDTO;
+import com.safe.report.domain.model.ReportFormat;
+import com.safe.report.domain.port.out.ReportServicePort;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * CSV según RFC 4180, en UTF-8, una fila por bicicleta. Pensado para consumo automático:
+ * mismas columnas en el reporte de un usuario y en el de la flota, fechas en ISO-8601.
+ */
+@Service
+public class CsvReportServiceAdapter implements ReportServicePort {
+
+    private static final String HEADER =
+            "bike_id,owner_first_name,owner_last_name,brand,model,type,serial_number,purchase_date";
+    private static final String LINE_END = "\r\n";
+
+    @Override
+    public ReportFormat getFormat() {
+        return ReportFormat.CSV;
+    }
+
+    @Override
+    public void writeBikeReport(Iterator<BikeReportDTO> bikeData, String userFullName, long totalBikes,
+                                OutputStream out) throws IOException {
+        writeCsv(bikeData, out);
+    }
+
+    @Override
+    public void writeFleetReport(Iterator<BikeReportDTO> bikeData, long totalBikes, OutputStream out)
+            throws IOException {
+        writeCsv(bikeData, out);
+    }
+
+    private void writeCsv(Iterator<BikeReportDTO> bikeData, OutputStream out) throws IOException {
+        // Sin cerrar el writer: el stream pertenece a quien llama
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write(LINE_END);
+        while (bikeData.hasNext()) {
+            BikeReportDTO bike = bikeData.next();
+            if (bike.bikeId() != null) {
+                writer.write(bike.bikeId().toString());
+            }
+            writer.write(',');
+            writeField(writer, bike.firstName());
+            writer.write(',');
+            writeField(writer, bike.lastName());
+            writer.write(',');
+            writeField(writer, bike.brand());
+            writer.write(',');
+            writeField(writer, bike.model());
+            writer.write(',');
+            writeField(writer, bike.type());
+            writer.write(',');
+            writeField(writer, bike.serialNumber());
+            writer.write(',');
+            if (bike.purchaseDate() != null) {
+                writer.write(bike.purchaseDate().toString());
+            }
+            writer.write(LINE_END);
+        }
+        writer.flush();
+    }
+
+    private static void writeField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuoting(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,41 @@
+package com.safe.report.infrastructure.adapter.output.metrics;
+
+import com.safe.report.domain.model.ReportMetricsSnapshot;
+import com.safe.report.domain.port.out.ReportMetricsPort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Histogramas en memoria desde el arranque de la aplicación.
+ */
+@Component
+public class InMemoryReportMetricsAdapter implements ReportMetricsPort {
+
+    private final Histogram queryNanos = new Histogram();
+    private final Histogram mappingNanos = new Histogram();
+    private final Histogram renderNanos = new Histogram();
+    private final Histogram rows = new Histogram();
+    private final Histogram bytes = new Histogram();
+
+    @Override
+    public void recordQuery(long nanos) {
+        queryNanos.record(nanos);
+    }
+
+    @Override
+    public void recordMapping(long nanos) {
+        mappingNanos.record(nanos);
+    }
+
+    @Override
+    public void recordRender(long nanos, long rowCount, long byteCount) {
+        renderNanos.record(nanos);
+        rows.record(rowCount);
+        bytes.record(byteCount);
+    }
+
+    @Override
+    public ReportMetricsSnapshot snapshot() {
+        return new ReportMetricsSnapshot(queryNanos.snapshot(), mappingNanos.snapshot(), renderNanos.snapshot(),
+                rows.snapshot(), bytes.snapshot());
+    }
+}
@@ -0,0 +1,121 @@
+package com.safe.report.infrastructure.adapter.output.pdf;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.safe.report.domain.model.BikeReportDTO;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Diseño de un reporte PDF armado una sola vez: fuentes, colores, anchos, celdas de encabezado
+ * y formato de fechas. Es inmutable y se comparte entre renders concurrentes; al generar un
+ * documento solo queda el trabajo por fila (extraer el texto y agregar la celda).
+ */
+public final class PdfReportTemplate {
+
+    static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, BaseColor.BLACK);
+    static final Font SUBTITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.BLACK);
+    static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.BLACK);
+    static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.WHITE);
+
+    private static final BaseColor HEADER_BACKGROUND = new BaseColor(52, 73, 94); // Color azul oscuro
+    private static final DateTimeFormatter PURCHASE_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final String MISSING = "N/A";
+
+    private static final Column ID = new Column("ID", 1f, bike -> bike.bikeId().toString());
+    private static final Column OWNER = new Column("Propietario", 2.5f, BikeReportDTO::getFullName);
+    private static final Column BRAND = new Column("Marca", 2f, bike -> orMissing(bike.brand()));
+    private static final Column TYPE = new Column("Tipo", 1.5f, bike -> orMissing(bike.type()));
+    private static final Column MODEL = new Column("Modelo", 2f, bike -> orMissing(bike.model()));
+    private static final Column SERIAL = new Column("Número de Serie", 2.5f, bike -> orMissing(bike.serialNumber()));
+    private static final Column PURCHASE_DATE = new Column("Fecha de Compra", 2f,
+            bike -> bike.purchaseDate() != null ? PURCHASE_DATE_FORMAT.format(bike.purchaseDate()) : MISSING);
+
+    /** Bicicletas de un usuario: el propietario va en el subtítulo. */
+    public static final PdfReportTemplate USER_BIKES = new PdfReportTemplate(
+            List.of(ID, BRAND, TYPE, MODEL, SERIAL, PURCHASE_DATE));
+
+    /** Flota completa: agrega la columna del propietario. */
+    public static final PdfReportTemplate FLEET = new PdfReportTemplate(
+            List.of(ID, OWNER, BRAND, TYPE, MODEL, SERIAL, PURCHASE_DATE));
+
+    private final Column[] columns;
+    private final float[] widths;
+    private final PdfPCell[] headerCells;
+
+    public PdfReportTemplate(List<Column> columns) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("A report template needs at least one column");
+        }
+        this.columns = columns.toArray(Column[]::new);
+        this.widths = new float[this.columns.length];
+        this.headerCells = new PdfPCell[this.columns.length];
+        for (int i = 0; i < this.columns.length; i++) {
+            widths[i] = this.columns[i].width();
+            headerCells[i] = headerCell(this.columns[i].header());
+        }
+    }
+
+    /**
+     * Tabla nueva con anchos y encabezados ya cargados. La celda por defecto queda como prototipo
+     * de las celdas de datos: addCell(Phrase) la copia en lugar de armar una celda desde cero.
+     */
+    public PdfPTable newTable() throws DocumentException {
+        PdfPTable table = new PdfPTable(columns.length);
+        table.setWidthPercentage(100);
+        table.setWidths(widths);
+        table.setHeaderRows(1);
+
+        PdfPCell dataCell = table.getDefaultCell();
+        dataCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        dataCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        dataCell.setPadding(6f);
+        dataCell.setBorderColor(BaseColor.GRAY);
+
+        // addCell copia la celda: los prototipos compartidos no se modifican
+        for (PdfPCell headerCell : headerCells) {
+            table.addCell(headerCell);
+        }
+        return table;
+    }
+
+    /**
+     * Agrega una fila de datos a una tabla creada con {@link #newTable()}.
+     */
+    public void addRow(PdfPTable table, BikeReportDTO bike) {
+        for (Column column : columns) {
+            table.addCell(new Phrase(column.value().apply(bike), NORMAL_FONT));
+        }
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    private static PdfPCell headerCell(String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, HEADER_FONT));
+        cell.setBackgroundColor(HEADER_BACKGROUND);
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        cell.setPadding(8f);
+        return cell;
+    }
+
+    private static String orMissing(String value) {
+        return value != null ? value : MISSING;
+    }
+
+    /**
+     * Columna del reporte: encabezado, ancho relativo y cómo se obtiene el texto de cada fila.
+     */
+    public record Column(String header, float width, Function<BikeReportDTO, String> value) {
+    }
+}
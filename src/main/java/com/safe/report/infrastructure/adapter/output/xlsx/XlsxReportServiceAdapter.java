@@ -0,0 +1,249 @@
+package com.safe.report.infrastructure.adapter.output.xlsx;
+
+import com.safe.report.domain.model.BikeReportDTO;
+import com.safe.report.domain.model.ReportFormat;
+import com.safe.report.domain.port.out.ReportServicePort;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * XLSX escrito en streaming: cada fila va directo a la entrada del ZIP, con strings en línea
+ * (sin tabla de strings compartidos), así la memoria no depende de la cantidad de filas.
+ * Las hojas se cortan en el límite de filas de Excel; el workbook y los tipos de contenido
+ * se escriben al final, cuando ya se sabe cuántas hojas hubo.
+ */
+@Service
+public class XlsxReportServiceAdapter implements ReportServicePort {
+
+    // Límite de Excel, contando la fila de encabezados
+    static final int MAX_ROWS_PER_SHEET = 1_048_576;
+
+    private static final String SHEET_NAME = "Bicicletas";
+    private static final String[] HEADERS = {
+            "ID", "Nombre", "Apellido", "Marca", "Modelo", "Tipo", "Número de Serie", "Fecha de Compra"
+    };
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PACKAGE_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    // Índices en cellXfs de styles.xml
+    private static final int STYLE_DATE = 1;
+    private static final int STYLE_HEADER = 2;
+
+    private static final String STYLES = XML_DECLARATION
+            + "<styleSheet xmlns=\"" + MAIN_NS + "\">"
+            + "<numFmts count=\"1\"><numFmt numFmtId=\"164\" formatCode=\"dd/mm/yyyy\"/></numFmts>"
+            + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+            + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+            + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+            + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+            + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"3\">"
+            + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+            + "<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+            + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>"
+            + "</cellXfs>"
+            + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+            + "</styleSheet>";
+
+    private static final String ROOT_RELS = XML_DECLARATION
+            + "<Relationships xmlns=\"" + PACKAGE_REL_NS + "\">"
+            + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+            + "</Relationships>";
+
+    private final int maxRowsPerSheet;
+
+    public XlsxReportServiceAdapter() {
+        this(MAX_ROWS_PER_SHEET);
+    }
+
+    // Para probar el corte de hojas sin escribir un millón de filas
+    XlsxReportServiceAdapter(int maxRowsPerSheet) {
+        this.maxRowsPerSheet = maxRowsPerSheet;
+    }
+
+    @Override
+    public ReportFormat getFormat() {
+        return ReportFormat.XLSX;
+    }
+
+    @Override
+    public void writeBikeReport(Iterator<BikeReportDTO> bikeData, String userFullName, long totalBikes,
+                                OutputStream out) throws IOException {
+        writeXlsx(bikeData, out);
+    }
+
+    @Override
+    public void writeFleetReport(Iterator<BikeReportDTO> bikeData, long totalBikes, OutputStream out)
+            throws IOException {
+        writeXlsx(bikeData, out);
+    }
+
+    private void writeXlsx(Iterator<BikeReportDTO> bikeData, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        // El costo dominante es comprimir: nivel rápido, el XML repetitivo comprime bien igual
+        zip.setLevel(Deflater.BEST_SPEED);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+
+        int sheets = 0;
+        do {
+            sheets++;
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheets + ".xml"));
+            writeSheet(writer, bikeData);
+            writer.flush();
+            zip.closeEntry();
+        } while (bikeData.hasNext());
+
+        writeEntry(zip, writer, "xl/styles.xml", STYLES);
+        writeEntry(zip, writer, "xl/workbook.xml", workbook(sheets));
+        writeEntry(zip, writer, "xl/_rels/workbook.xml.rels", workbookRels(sheets));
+        writeEntry(zip, writer, "_rels/.rels", ROOT_RELS);
+        writeEntry(zip, writer, "[Content_Types].xml", contentTypes(sheets));
+        // finish y no close: el stream pertenece a quien llama
+        zip.finish();
+        out.flush();
+    }
+
+    private void writeSheet(Writer writer, Iterator<BikeReportDTO> bikeData) throws IOException {
+        writer.write(XML_DECLARATION);
+        writer.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+
+        writer.write("<row>");
+        for (String header : HEADERS) {
+            writeString(writer, header, STYLE_HEADER);
+        }
+        writer.write("</row>");
+
+        int rows = 1;
+        while (rows < maxRowsPerSheet && bikeData.hasNext()) {
+            BikeReportDTO bike = bikeData.next();
+            writer.write("<row>");
+            writeNumber(writer, bike.bikeId());
+            writeString(writer, bike.firstName(), 0);
+            writeString(writer, bike.lastName(), 0);
+            writeString(writer, bike.brand(), 0);
+            writeString(writer, bike.model(), 0);
+            writeString(writer, bike.type(), 0);
+            writeString(writer, bike.serialNumber(), 0);
+            writeDate(writer, bike.purchaseDate());
+            writer.write("</row>");
+            rows++;
+        }
+
+        writer.write("</sheetData></worksheet>");
+    }
+
+    /**
+     * Las celdas no llevan referencia (r="A1"): una celda vacía se escribe igual para no correr las columnas.
+     */
+    private static void writeString(Writer writer, String value, int style) throws IOException {
+        if (value == null) {
+            writer.write("<c/>");
+            return;
+        }
+        writer.write(style == 0 ? "<c t=\"inlineStr\">" : "<c t=\"inlineStr\" s=\"" + style + "\">");
+        boolean preserve = !value.isEmpty()
+                && (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1)));
+        writer.write(preserve ? "<is><t xml:space=\"preserve\">" : "<is><t>");
+        writeEscaped(writer, value);
+        writer.write("</t></is></c>");
+    }
+
+    private static void writeNumber(Writer writer, Long value) throws IOException {
+        if (value == null) {
+            writer.write("<c/>");
+            return;
+        }
+        writer.write("<c><v>");
+        writer.write(Long.toString(value));
+        writer.write("</v></c>");
+    }
+
+    private static void writeDate(Writer writer, LocalDate value) throws IOException {
+        if (value == null) {
+            writer.write("<c/>");
+            return;
+        }
+        writer.write("<c s=\"" + STYLE_DATE + "\"><v>");
+        writer.write(Long.toString(ChronoUnit.DAYS.between(EXCEL_EPOCH, value)));
+        writer.write("</v></c>");
+    }
+
+    private static void writeEscaped(Writer writer, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> writer.write("&amp;");
+                case '<' -> writer.write("&lt;");
+                case '>' -> writer.write("&gt;");
+                default -> {
+                    // XML 1.0 no admite caracteres de control salvo tab y saltos de línea
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void writeEntry(ZipOutputStream zip, Writer writer, String name, String content)
+            throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private static String workbook(int sheets) {
+        StringBuilder xml = new StringBuilder(XML_DECLARATION)
+                .append("<workbook xmlns=\"").append(MAIN_NS).append("\" xmlns:r=\"").append(REL_NS).append("\"><sheets>");
+        for (int i = 1; i <= sheets; i++) {
+            String name = i == 1 ? SHEET_NAME : SHEET_NAME + " " + i;
+            xml.append("<sheet name=\"").append(name).append("\" sheetId=\"").append(i)
+                    .append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return xml.append("</sheets></workbook>").toString();
+    }
+
+    private static String workbookRels(int sheets) {
+        StringBuilder xml = new StringBuilder(XML_DECLARATION)
+                .append("<Relationships xmlns=\"").append(PACKAGE_REL_NS).append("\">");
+        for (int i = 1; i <= sheets; i++) {
+            xml.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(REL_NS)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        xml.append("<Relationship Id=\"rId").append(sheets + 1).append("\" Type=\"").append(REL_NS)
+                .append("/styles\" Target=\"styles.xml\"/>");
+        return xml.append("</Relationships>").toString();
+    }
+
+    private static String contentTypes(int sheets) {
+        StringBuilder xml = new StringBuilder(XML_DECLARATION)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= sheets; i++) {
+            xml.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return xml.append("</Types>").toString();
+    }
+}
@@ -0,0 +1,309 @@
+package com.safe.stats.application.service;
+
+import com.safe.bike.domain.event.BikeSavedEvent;
+import com.safe.stats.domain.model.BikeCountRow;
+import com.safe.stats.domain.model.FleetStats;
+import com.safe.stats.domain.model.UserCountRow;
+import com.safe.stats.domain.port.out.FleetStatsRepositoryPort;
+import com.safe.user.domain.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contadores de usuarios y bicicletas que se mantienen con cada alta, modificación o baja,
+ * así el tablero los lee sin consultar la base.
+ * <p>
+ * Los eventos traen los valores nuevos y, cuando se conocen, los anteriores. Si falta el estado
+ * anterior (por ejemplo, al modificar una bicicleta) los contadores se marcan como desactualizados
+ * y se recalculan contra la base en la próxima revisión. Además, se recalculan siempre cada cierto
+ * tiempo para corregir cambios que no pasaron por estos eventos.
+ */
+@Service
+public class FleetStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(FleetStatsService.class);
+
+    private final FleetStatsRepositoryPort fleetStatsRepositoryPort;
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    // Eventos recibidos desde el arranque: si cambia durante un recálculo, el resultado puede estar corrido
+    private final AtomicLong changes = new AtomicLong();
+    private volatile Counters counters;
+    private volatile boolean dirty;
+
+    public FleetStatsService(FleetStatsRepositoryPort fleetStatsRepositoryPort) {
+        this.fleetStatsRepositoryPort = fleetStatsRepositoryPort;
+    }
+
+    /**
+     * false hasta el primer recálculo; mientras tanto, quien lee debe consultar la base.
+     */
+    public boolean isReady() {
+        return counters != null;
+    }
+
+    public long getTotalUsers() {
+        return current().totalUsers.sum();
+    }
+
+    public long getActiveUsers() {
+        return current().activeUsers.sum();
+    }
+
+    public long getUsersWithLocation() {
+        return current().usersWithLocation.sum();
+    }
+
+    public long getUsersWithBikes() {
+        return current().owners.get();
+    }
+
+    public long getTotalBikes() {
+        return current().totalBikes.sum();
+    }
+
+    public long countUsersByProvincia(Integer provinciaId) {
+        return Counters.get(current().usersByProvincia, provinciaId);
+    }
+
+    public long countUsersByMunicipio(Integer municipioId) {
+        return Counters.get(current().usersByMunicipio, municipioId);
+    }
+
+    public long countBikesByBrand(Long brandId) {
+        return Counters.get(current().bikesByBrand, brandId);
+    }
+
+    public FleetStats snapshot() {
+        Counters c = current();
+        return new FleetStats(
+                c.totalUsers.sum(),
+                c.activeUsers.sum(),
+                c.usersWithLocation.sum(),
+                c.owners.get(),
+                c.totalBikes.sum(),
+                Counters.copy(c.usersByProvincia),
+                Counters.copy(c.usersByMunicipio),
+                Counters.copy(c.bikesByBrand),
+                Counters.copy(c.bikesByType),
+                Counters.copy(c.bikesByModel),
+                c.reconciledAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval:PT10M}",
+            initialDelayString = "${stats.reconcile-interval:PT10M}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${stats.dirty-check-interval:PT30S}")
+    public void reconcileIfDirty() {
+        if (dirty) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Recalcula todos los contadores contra la base y reemplaza los actuales.
+     * Si ya hay un recálculo en curso, no hace nada.
+     */
+    public void reconcile() {
+        if (!reconcileLock.tryLock()) {
+            return;
+        }
+        try {
+            dirty = false;
+            long changesAtStart = changes.get();
+            long start = System.nanoTime();
+
+            Counters fresh = new Counters(Instant.now());
+            fleetStatsRepositoryPort.countUsers().forEach(row -> fresh.addUsers(row, row.count()));
+            fleetStatsRepositoryPort.countBikes().forEach(row -> fresh.addBikes(row, row.count()));
+            fleetStatsRepositoryPort.countBikesByOwner().forEach(fresh::addOwnerBikes);
+
+            Counters previous = counters;
+            counters = fresh;
+            // Un evento que llegó mientras se consultaba puede haber quedado afuera o contado dos veces
+            if (changes.get() != changesAtStart) {
+                dirty = true;
+            }
+
+            if (previous != null && (previous.totalUsers.sum() != fresh.totalUsers.sum()
+                    || previous.totalBikes.sum() != fresh.totalBikes.sum())) {
+                log.info("Estadísticas corregidas al recalcular: usuarios {} -> {}, bicicletas {} -> {}",
+                        previous.totalUsers.sum(), fresh.totalUsers.sum(),
+                        previous.totalBikes.sum(), fresh.totalBikes.sum());
+            }
+            log.debug("Estadísticas recalculadas en {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            dirty = true;
+            log.warn("No se pudieron recalcular las estadísticas: {}", e.getMessage());
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        changes.incrementAndGet();
+        Counters c = counters;
+        if (c == null) {
+            return;
+        }
+        switch (event.type()) {
+            case CREATED -> c.addUser(event.after(), 1);
+            case UPDATED -> {
+                if (event.before() == null) {
+                    dirty = true;
+                } else if (!sameDimensions(event.before(), event.after())) {
+                    c.addUser(event.before(), -1);
+                    c.addUser(event.after(), 1);
+                }
+            }
+            // La baja puede arrastrar bicicletas: esas no llegan como evento
+            case DELETED -> {
+                if (event.before() != null) {
+                    c.addUser(event.before(), -1);
+                }
+                dirty = true;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBikeSaved(BikeSavedEvent event) {
+        changes.incrementAndGet();
+        Counters c = counters;
+        if (c == null) {
+            return;
+        }
+        if (!event.created()) {
+            // No se sabe qué marca, tipo o dueño tenía antes
+            dirty = true;
+            return;
+        }
+        c.addBikes(new BikeCountRow(event.brandId(), event.bikeTypeId(), event.bikeModelId(), 1), 1);
+        if (event.userId() != null) {
+            c.addOwnerBikes(event.userId(), 1L);
+        }
+    }
+
+    private Counters current() {
+        Counters c = counters;
+        if (c == null) {
+            throw new IllegalStateException("Fleet statistics are not loaded yet");
+        }
+        return c;
+    }
+
+    private static boolean sameDimensions(UserChangedEvent.State before, UserChangedEvent.State after) {
+        return Objects.equals(before.provinciaId(), after.provinciaId())
+                && Objects.equals(before.municipioId(), after.municipioId())
+                && isActive(before.role()) == isActive(after.role());
+    }
+
+    // Mismo criterio que UserRepositoryAdapter.findActiveUsers
+    private static boolean isActive(String role) {
+        return role == null || role.trim().isEmpty() || !"INACTIVE".equalsIgnoreCase(role.trim());
+    }
+
+    /**
+     * Un juego completo de contadores. El recálculo arma uno nuevo y lo reemplaza entero.
+     */
+    private static final class Counters {
+
+        private final LongAdder totalUsers = new LongAdder();
+        private final LongAdder activeUsers = new LongAdder();
+        private final LongAdder usersWithLocation = new LongAdder();
+        private final LongAdder totalBikes = new LongAdder();
+        private final Map<Integer, LongAdder> usersByProvincia = new ConcurrentHashMap<>();
+        private final Map<Integer, LongAdder> usersByMunicipio = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> bikesByBrand = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> bikesByType = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> bikesByModel = new ConcurrentHashMap<>();
+        private final Map<Long, Long> bikesByOwner = new ConcurrentHashMap<>();
+        private final AtomicLong owners = new AtomicLong();
+        private final Instant reconciledAt;
+
+        private Counters(Instant reconciledAt) {
+            this.reconciledAt = reconciledAt;
+        }
+
+        private void addUser(UserChangedEvent.State user, long delta) {
+            addUsers(new UserCountRow(user.provinciaId(), user.municipioId(), user.role(), delta), delta);
+        }
+
+        private void addUsers(UserCountRow row, long delta) {
+            totalUsers.add(delta);
+            if (isActive(row.role())) {
+                activeUsers.add(delta);
+            }
+            if (row.provinciaId() != null) {
+                usersWithLocation.add(delta);
+            }
+            add(usersByProvincia, row.provinciaId(), delta);
+            add(usersByMunicipio, row.municipioId(), delta);
+        }
+
+        private void addBikes(BikeCountRow row, long delta) {
+            totalBikes.add(delta);
+            add(bikesByBrand, row.brandId(), delta);
+            add(bikesByType, row.bikeTypeId(), delta);
+            add(bikesByModel, row.bikeModelId(), delta);
+        }
+
+        private void addOwnerBikes(Long userId, Long delta) {
+            // compute es atómico por clave: el paso de 0 a 1 bicicleta se cuenta una sola vez
+            bikesByOwner.compute(userId, (id, current) -> {
+                long previous = current == null ? 0 : current;
+                long next = previous + delta;
+                if (previous <= 0 && next > 0) {
+                    owners.incrementAndGet();
+                } else if (previous > 0 && next <= 0) {
+                    owners.decrementAndGet();
+                }
+                return next > 0 ? next : null;
+            });
+        }
+
+        private static <K> void add(Map<K, LongAdder> counters, K key, long delta) {
+            if (key != null) {
+                counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+            }
+        }
+
+        private static <K> long get(Map<K, LongAdder> counters, K key) {
+            LongAdder counter = key == null ? null : counters.get(key);
+            return counter == null ? 0 : counter.sum();
+        }
+
+        private static <K> Map<K, Long> copy(Map<K, LongAdder> counters) {
+            Map<K, Long> copy = new HashMap<>();
+            counters.forEach((key, counter) -> {
+                long value = counter.sum();
+                if (value != 0) {
+                    copy.put(key, value);
+                }
+            });
+            return Map.copyOf(copy);
+        }
+    }
+}
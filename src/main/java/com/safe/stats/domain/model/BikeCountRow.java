@@ -0,0 +1,7 @@
+package com.safe.stats.domain.model;
+
+/**
+ * Cantidad de bicicletas con la misma marca, tipo y modelo.
+ */
+public record BikeCountRow(Long brandId, Long bikeTypeId, Long bikeModelId, long count) {
+}
@@ -0,0 +1,27 @@
+package com.safe.stats.domain.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Foto de los contadores de usuarios y bicicletas para el tablero de administración.
+ *
+ * @param activeUsers       usuarios cuyo rol no es INACTIVE
+ * @param usersWithLocation usuarios con provincia cargada
+ * @param usersWithBikes    usuarios con al menos una bicicleta
+ * @param reconciledAt      última vez que los contadores se recalcularon contra la base
+ */
+public record FleetStats(
+        long totalUsers,
+        long activeUsers,
+        long usersWithLocation,
+        long usersWithBikes,
+        long totalBikes,
+        Map<Integer, Long> usersByProvincia,
+        Map<Integer, Long> usersByMunicipio,
+        Map<Long, Long> bikesByBrand,
+        Map<Long, Long> bikesByType,
+        Map<Long, Long> bikesByModel,
+        Instant reconciledAt
+) {
+}
@@ -0,0 +1,7 @@
+package com.safe.stats.domain.model;
+
+/**
+ * Cantidad de usuarios con la misma ubicación y el mismo rol.
+ */
+public record UserCountRow(Integer provinciaId, Integer municipioId, String role, long count) {
+}
@@ -0,0 +1,22 @@
+package com.safe.stats.domain.port.out;
+
+import com.safe.stats.domain.model.BikeCountRow;
+import com.safe.stats.domain.model.UserCountRow;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agregados completos, calculados en la base, para reconciliar los contadores incrementales.
+ */
+public interface FleetStatsRepositoryPort {
+
+    List<UserCountRow> countUsers();
+
+    List<BikeCountRow> countBikes();
+
+    /**
+     * Bicicletas por dueño; solo aparecen los usuarios que tienen alguna.
+     */
+    Map<Long, Long> countBikesByOwner();
+}
@@ -0,0 +1,76 @@
+package com.safe.stats.infrastructure.persistence;
+
+import com.safe.stats.domain.model.BikeCountRow;
+import com.safe.stats.domain.model.UserCountRow;
+import com.safe.stats.domain.port.out.FleetStatsRepositoryPort;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class FleetStatsRepositoryAdapter implements FleetStatsRepositoryPort {
+
+    private static final String USERS_SQL = """
+            SELECT provincia_id, municipio_id, role, count(*)
+            FROM users
+            GROUP BY provincia_id, municipio_id, role
+            """;
+
+    private static final String BIKES_SQL = """
+            SELECT brand_id, bike_type_id, model_bike_id, count(*)
+            FROM bike
+            GROUP BY brand_id, bike_type_id, model_bike_id
+            """;
+
+    private static final String BIKES_BY_OWNER_SQL = """
+            SELECT user_id, count(*)
+            FROM bike
+            GROUP BY user_id
+            """;
+
+    private final EntityManager entityManager;
+
+    public FleetStatsRepositoryAdapter(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<UserCountRow> countUsers() {
+        return rows(USERS_SQL).stream()
+                .map(row -> new UserCountRow(toInteger(row[0]), toInteger(row[1]), (String) row[2], toLong(row[3])))
+                .toList();
+    }
+
+    @Override
+    public List<BikeCountRow> countBikes() {
+        return rows(BIKES_SQL).stream()
+                .map(row -> new BikeCountRow(toLong(row[0]), toLong(row[1]), toLong(row[2]), toLong(row[3])))
+                .toList();
+    }
+
+    @Override
+    public Map<Long, Long> countBikesByOwner() {
+        List<Object[]> rows = rows(BIKES_BY_OWNER_SQL);
+        Map<Long, Long> bikesByOwner = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            bikesByOwner.put(toLong(row[0]), toLong(row[1]));
+        }
+        return bikesByOwner;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> rows(String sql) {
+        return entityManager.createNativeQuery(sql).getResultList();
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private static Integer toInteger(Object value) {
+        return value == null ? null : ((Number) value).intValue();
+    }
+}
@@ -13,6 +13,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 public class AuthService {
 
@@ -45,11 +47,12 @@ public class AuthService {
     public void logout(String token) {
         try {
             // Solo validar que el token sea válido y extraer usuario para logging
-            if (jwtUtil.validateToken(token)) {
-                String email = jwtUtil.extractUsername(token);
+            Optional<JwtUtil.VerifiedClaims> claims = jwtUtil.parseVerifiedClaims(token);
+            if (claims.isPresent()) {
+                String email = claims.get().subject();
 
-                // Agregar a blacklist sin preocuparse por la expiración específica
-                tokenBlacklistService.blacklistToken(token);
+                // Agregar a blacklist hasta que el token venza
+                tokenBlacklistService.revoke(claims.get(), token);
 
                 logger.info("Usuario {} ha cerrado sesión exitosamente", email);
             } else {
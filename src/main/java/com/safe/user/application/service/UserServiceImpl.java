@@ -1,5 +1,7 @@
 package com.safe.user.application.service;
 
+import com.safe.stats.application.service.FleetStatsService;
+import com.safe.user.domain.event.UserChangedEvent;
 import com.safe.user.domain.model.entity.User;
 import com.safe.user.infrastructure.adapters.output.persistence.repository.UserRepository;
 import com.safe.user.infrastructure.persistence.port.UserService;
@@ -7,6 +9,7 @@ import com.vaadin.flow.server.VaadinSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -25,13 +28,19 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final GeografiaService geografiaService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FleetStatsService fleetStatsService;
 
     public UserServiceImpl(UserRepository userRepository,
                            PasswordEncoder passwordEncoder,
-                           GeografiaService geografiaService) {
+                           GeografiaService geografiaService,
+                           ApplicationEventPublisher eventPublisher,
+                           FleetStatsService fleetStatsService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.geografiaService = geografiaService;
+        this.eventPublisher = eventPublisher;
+        this.fleetStatsService = fleetStatsService;
     }
 
     // ================================
@@ -78,6 +87,7 @@ public class UserServiceImpl implements UserService {
             // Remover campos de Spring Security que no existen en tu entidad
 
             User usuarioGuardado = userRepository.save(nuevoUsuario);
+            eventPublisher.publishEvent(UserChangedEvent.created(usuarioGuardado));
             logger.info("Usuario registrado exitosamente: {}", usuarioGuardado.getEmail());
 
             return usuarioGuardado;
@@ -258,6 +268,8 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("El email ya está en uso por otro usuario");
         }
 
+        UserChangedEvent.State before = UserChangedEvent.State.of(usuario);
+
         if (firstName != null && !firstName.trim().isEmpty()) {
             usuario.setFirstName(firstName.trim());
         }
@@ -268,7 +280,7 @@ public class UserServiceImpl implements UserService {
             usuario.setEmail(email.trim().toLowerCase());
         }
 
-        return userRepository.save(usuario);
+        return saveAndPublish(usuario, before);
     }
 
     @Override
@@ -285,11 +297,12 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("La combinación de Provincia, Municipio y Localidad no es válida - 2");
         }
 
+        UserChangedEvent.State before = UserChangedEvent.State.of(usuario);
         usuario.setProvinciaId(provinciaId);
         usuario.setMunicipioId(municipioId);
         usuario.setLocalidadId(localidadId);
 
-        return userRepository.save(usuario);
+        return saveAndPublish(usuario, before);
     }
 
     @Override
@@ -312,8 +325,9 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("La nueva contraseña no cumple los requisitos de seguridad");
         }
 
+        UserChangedEvent.State before = UserChangedEvent.State.of(usuario);
         usuario.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(usuario);
+        saveAndPublish(usuario, before);
         return true;
     }
 
@@ -331,8 +345,9 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("La nueva contraseña no cumple los requisitos de seguridad");
         }
 
+        UserChangedEvent.State before = UserChangedEvent.State.of(usuario);
         usuario.setPassword(passwordEncoder.encode(newPassword));
-        return userRepository.save(usuario);
+        return saveAndPublish(usuario, before);
     }
 
     // ================================
@@ -351,6 +366,8 @@ public class UserServiceImpl implements UserService {
 
         // Como no tienes campo enabled, este método no hace nada pero mantiene la interfaz
         logger.info("Método cambiarEstadoUsuario llamado para usuario {} - Sin campo enabled en entidad", userId);
+        // Aunque no se guarda nada, quien tenga al usuario en caché para autenticar lo vuelve a leer
+        eventPublisher.publishEvent(UserChangedEvent.updated(userId, UserChangedEvent.State.of(usuario), usuario));
         return usuario;
     }
 
@@ -366,6 +383,8 @@ public class UserServiceImpl implements UserService {
 
         // Como no tienes campo accountNonLocked, este método no hace nada pero mantiene la interfaz
         logger.info("Método cambiarBloqueoUsuario llamado para usuario {} - Sin campo accountNonLocked en entidad", userId);
+        // Aunque no se guarda nada, quien tenga al usuario en caché para autenticar lo vuelve a leer
+        eventPublisher.publishEvent(UserChangedEvent.updated(userId, UserChangedEvent.State.of(usuario), usuario));
         return usuario;
     }
 
@@ -380,15 +399,15 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("ID de usuario es obligatorio");
         }
 
-        if (!userRepository.existsById(userId)) {
-            throw new IllegalArgumentException("Usuario no encontrado con ID: " + userId);
-        }
+        User usuario = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado con ID: " + userId));
 
         try {
             userRepository.deleteById(userId);
         } catch (Exception e) {
             throw new RuntimeException("Error al eliminar usuario: " + e.getMessage(), e);
         }
+        eventPublisher.publishEvent(UserChangedEvent.deleted(userId, UserChangedEvent.State.of(usuario)));
     }
 
     @Override
@@ -523,9 +542,12 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public long contarUsuariosActivos() {
+        if (fleetStatsService.isReady()) {
+            return fleetStatsService.getActiveUsers();
+        }
         try {
-            // Como no tienes campo enabled, contamos todos los usuarios
-            return userRepository.count();
+            // Activo = rol distinto de INACTIVE, igual que en los contadores
+            return userRepository.countActive();
         } catch (Exception e) {
             logger.error("Error al contar usuarios: {}", e.getMessage());
             return 0;
@@ -538,6 +560,9 @@ public class UserServiceImpl implements UserService {
         if (provinciaId == null) {
             return 0;
         }
+        if (fleetStatsService.isReady()) {
+            return fleetStatsService.countUsersByProvincia(provinciaId);
+        }
         try {
             return userRepository.countByProvinciaId(provinciaId);
         } catch (Exception e) {
@@ -551,10 +576,22 @@ public class UserServiceImpl implements UserService {
     public Map<String, Long> obtenerEstadisticasPorUbicacion() {
         Map<String, Long> estadisticas = new HashMap<>();
 
+        // Con los contadores cargados no se consulta la base; las dos ramas devuelven las mismas claves
+        if (fleetStatsService.isReady()) {
+            estadisticas.put("total_usuarios", fleetStatsService.getTotalUsers());
+            estadisticas.put("usuarios_activos", fleetStatsService.getActiveUsers());
+            estadisticas.put("usuarios_con_ubicacion", fleetStatsService.getUsersWithLocation());
+            estadisticas.put("usuarios_con_bicicletas", fleetStatsService.getUsersWithBikes());
+            estadisticas.put("total_bicicletas", fleetStatsService.getTotalBikes());
+            return estadisticas;
+        }
+
         try {
             estadisticas.put("total_usuarios", contarTotalUsuarios());
-            estadisticas.put("usuarios_activos", contarUsuariosActivos()); // Será igual a total_usuarios
+            estadisticas.put("usuarios_activos", contarUsuariosActivos());
             estadisticas.put("usuarios_con_ubicacion", userRepository.countByProvinciaIdIsNotNull());
+            estadisticas.put("usuarios_con_bicicletas", userRepository.countUsersWithBikes());
+            estadisticas.put("total_bicicletas", userRepository.countBikes());
         } catch (Exception e) {
             logger.error("Error al obtener estadísticas: {}", e.getMessage());
         }
@@ -595,6 +632,15 @@ public class UserServiceImpl implements UserService {
     // MÉTODOS AUXILIARES
     // ================================
 
+    /**
+     * Guarda y avisa el cambio; los listeners lo reciben cuando la transacción confirma.
+     */
+    private User saveAndPublish(User usuario, UserChangedEvent.State before) {
+        User guardado = userRepository.save(usuario);
+        eventPublisher.publishEvent(UserChangedEvent.updated(guardado.getId(), before, guardado));
+        return guardado;
+    }
+
     private void validateRegistrationInputs(String email, String password, String firstName, String lastName, String username) {
         if (userRepository == null) {
             throw new RuntimeException("UserRepository no está disponible");
@@ -704,7 +750,13 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User save(User user) {
-        return userRepository.save(user);
+        if (user.getId() == null) {
+            User saved = userRepository.save(user);
+            eventPublisher.publishEvent(UserChangedEvent.created(saved));
+            return saved;
+        }
+        // Puede llegar una entidad ya modificada: los valores anteriores no se conocen
+        return saveAndPublish(user, null);
     }
 
     @Override
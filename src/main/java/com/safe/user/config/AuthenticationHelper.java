@@ -3,6 +3,7 @@ package com.safe.user.config;
 import com.safe.user.application.service.UserServiceImpl;
 import com.safe.user.domain.model.entity.User;
 import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.WrappedSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -48,14 +49,15 @@ public class AuthenticationHelper {
             }
 
             // Validar que el token siga siendo válido
-            if (!jwtUtil.validateToken(token)) {
+            Optional<JwtUtil.VerifiedClaims> claims = jwtUtil.parseVerifiedClaims(token);
+            if (claims.isEmpty()) {
                 logger.warn("Token inválido o expirado para usuario: {}", email);
                 clearAuthentication(); // Limpiar sesión inválida
                 return false;
             }
 
             // Validar que el token corresponda al usuario correcto
-            String tokenEmail = jwtUtil.extractUsername(token);
+            String tokenEmail = claims.get().subject();
             if (!email.equalsIgnoreCase(tokenEmail)) {
                 logger.warn("Email en sesión no coincide con email en token");
                 clearAuthentication();
@@ -113,18 +115,25 @@ public class AuthenticationHelper {
         if (session != null) {
             session.setAttribute("authToken", null);
             session.setAttribute("userEmail", null);
+            WrappedSession httpSession = session.getSession();
+            if (httpSession != null) {
+                httpSession.removeAttribute("authToken");
+            }
             logger.info("Sesión de usuario limpiada");
         }
     }
 
     /**
-     * Establece la autenticación en la sesión de Vaadin
+     * Establece la autenticación en la sesión de Vaadin. El token se copia también a la sesión HTTP:
+     * los atributos de VaadinSession no son atributos de HttpSession, y JwtAuthenticationFilter
+     * lee el token de la sesión HTTP sin tomar el lock de Vaadin.
      */
     public void setAuthentication(String token, String email) {
         VaadinSession session = VaadinSession.getCurrent();
         if (session != null) {
             session.setAttribute("authToken", token);
             session.setAttribute("userEmail", email);
+            session.getSession().setAttribute("authToken", token);
             logger.info("Autenticación establecida para usuario: {}", email);
         }
     }
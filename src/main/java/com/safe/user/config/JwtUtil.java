@@ -1,7 +1,11 @@
 package com.safe.user.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,26 +13,50 @@ import org.springframework.stereotype.Component;
 
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
-    @Value("${jwt.secret:}") // Permite vacío para usar generación segura
-    private String secret;
 
-    @Value("${jwt.expiration:86400}")
-    private int expiration;
+    private final int expiration;
+    // La clave y el parser se arman una vez: son inmutables y se comparten entre requests
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    // Tokens ya verificados, por SHA-256 del token: no se guarda el token en memoria
+    private final Cache<ByteBuffer, VerifiedClaims> verifiedTokens;
+
+    public JwtUtil(@Value("${jwt.secret:}") String secret, // Permite vacío para usar generación segura
+                   @Value("${jwt.expiration:86400}") int expiration,
+                   @Value("${jwt.verified-cache.maximum-size:10000}") long verifiedCacheSize) {
+        this.expiration = expiration;
+        this.signingKey = createSigningKey(secret);
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedTokens = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new UntilTokenExpires())
+                .build()
+                : null;
+    }
 
-    private SecretKey getSigningKey() {
+    private static SecretKey createSigningKey(String secret) {
         // Si no se proporciona una clave segura, genera una para HS256
         if (secret == null || secret.isEmpty()) {
+            logger.warn("jwt.secret vacío: se usa una clave aleatoria y los tokens no sobreviven a un reinicio");
             return Keys.secretKeyFor(SignatureAlgorithm.HS256);
         }
-        // Asegura que la clave tenga al menos 512 bits (64 bytes)
+        // Asegura que la clave tenga al menos 256 bits (32 bytes)
         if (secret.getBytes().length < 32) {
             throw new IllegalArgumentException(
                     "La clave JWT debe tener al menos 32 caracteres (512 bits) para HS256"
@@ -46,61 +74,67 @@ public class JwtUtil {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString()) // jti: identifica el token al revocarlo
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000L)) // ⚠️ ¿está en segundos?
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256) // ✅ Usa getSigningKey()
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return getClaims(token).getSubject();
-    }
-
-
-    private boolean isTokenExpired(String token) {
-        return getClaims(token).getExpiration().before(new Date());
-    }
-
-    private Claims getClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    public boolean validateToken(String token) {
+    /**
+     * Verifica firma y vencimiento una sola vez y devuelve los datos del token, o vacío si no es válido.
+     * Un token ya verificado se resuelve desde la caché hasta que vence, sin volver a parsearlo.
+     */
+    public Optional<VerifiedClaims> parseVerifiedClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            logger.warn("Token vacío o nulo");
+            return Optional.empty();
+        }
         try {
-            Claims claims = extractAllClaims(token);
-            return !isTokenExpired(token);
+            if (verifiedTokens == null) {
+                return Optional.of(verify(token));
+            }
+            ByteBuffer digest = digest(token);
+            VerifiedClaims claims = verifiedTokens.getIfPresent(digest);
+            if (claims == null) {
+                claims = verify(token);
+                verifiedTokens.put(digest, claims);
+            } else if (claims.isExpired()) {
+                verifiedTokens.invalidate(digest);
+                logger.warn("Token expirado: {}", claims.expiration());
+                return Optional.empty();
+            }
+            return Optional.of(claims);
         } catch (ExpiredJwtException e) {
             logger.warn("Token expirado: {}", e.getMessage());
-            return false;
         } catch (UnsupportedJwtException e) {
             logger.warn("Token no soportado: {}", e.getMessage());
-            return false;
         } catch (MalformedJwtException e) {
             logger.warn("Token malformado: {}", e.getMessage());
-            return false;
         } catch (SignatureException e) {
             logger.warn("Firma del token inválida: {}", e.getMessage());
-            return false;
         } catch (IllegalArgumentException e) {
             logger.warn("Token vacío o nulo: {}", e.getMessage());
-            return false;
         } catch (Exception e) {
             logger.error("Error inesperado validando token: {}", e.getMessage());
-            return false;
         }
+        return Optional.empty();
+    }
+
+    public String extractUsername(String token) {
+        return parseVerifiedClaims(token)
+                .map(VerifiedClaims::subject)
+                .orElseThrow(() -> new JwtException("Invalid or expired JWT"));
+    }
+
+    public boolean validateToken(String token) {
+        return parseVerifiedClaims(token).isPresent();
     }
 
     public boolean validateToken(String token, String username) {
-        try {
-            final String extractedUsername = extractUsername(token);
-            return (extractedUsername.equals(username) && validateToken(token));
-        } catch (Exception e) {
-            logger.warn("Error validando token para usuario {}: {}", username, e.getMessage());
-            return false;
-        }
+        return parseVerifiedClaims(token)
+                .map(claims -> claims.subject() != null && claims.subject().equals(username))
+                .orElse(false);
     }
 
 
@@ -114,11 +148,73 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey()) // ✅ Usa el mismo método
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
+    private VerifiedClaims verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedClaims(claims.getSubject(), claims.getId(),
+                claims.getIssuedAt(), claims.getExpiration());
+    }
 
-}
\ No newline at end of file
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Datos de un token con firma válida. Es inmutable, así que se comparte desde la caché.
+     */
+    public record VerifiedClaims(String subject, String tokenId, Date issuedAt, Date expiration) {
+
+        public VerifiedClaims {
+            issuedAt = issuedAt == null ? null : new Date(issuedAt.getTime());
+            expiration = expiration == null ? null : new Date(expiration.getTime());
+        }
+
+        @Override
+        public Date issuedAt() {
+            return issuedAt == null ? null : new Date(issuedAt.getTime());
+        }
+
+        @Override
+        public Date expiration() {
+            return expiration == null ? null : new Date(expiration.getTime());
+        }
+
+        public boolean isExpired() {
+            return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Cada token verificado sale de la caché cuando vence; uno sin vencimiento queda hasta que lo desplace otro.
+     */
+    private static final class UntilTokenExpires implements Expiry<ByteBuffer, VerifiedClaims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedClaims claims, long currentTime) {
+            if (claims.expiration == null) {
+                return Long.MAX_VALUE;
+            }
+            long remainingMillis = claims.expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedClaims claims, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedClaims claims, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
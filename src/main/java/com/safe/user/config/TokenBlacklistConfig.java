@@ -0,0 +1,37 @@
+package com.safe.user.config;
+
+import com.safe.user.infrastructure.adapters.output.external.InMemoryRevokedTokenStore;
+import com.safe.user.infrastructure.adapters.output.external.RedisRevokedTokenStore;
+import com.safe.user.infrastructure.adapters.output.external.RevokedTokenStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class TokenBlacklistConfig {
+
+    /**
+     * redis comparte las revocaciones entre instancias; memory las deja en esta instancia sola.
+     * En memoria es el único registro: su límite va aparte del de la caché local y debe alcanzar
+     * para todas las revocaciones vigentes durante la vida de un token.
+     */
+    @Bean
+    public RevokedTokenStore revokedTokenStore(
+            @Value("${security.token-blacklist.store:memory}") String store,
+            @Value("${security.token-blacklist.redis-key-prefix:safebike:revoked-token:}") String keyPrefix,
+            @Value("${security.token-blacklist.memory-store.maximum-size:1000000}") long maximumSize,
+            @Value("${jwt.expiration:86400}") long tokenLifetimeSeconds,
+            ObjectProvider<StringRedisTemplate> redisTemplate
+    ) {
+        return switch (store) {
+            case "redis" -> new RedisRevokedTokenStore(redisTemplate.getObject(), keyPrefix,
+                    Duration.ofSeconds(tokenLifetimeSeconds));
+            case "memory" -> new InMemoryRevokedTokenStore(maximumSize, true);
+            default -> throw new IllegalArgumentException("Unknown token blacklist store: " + store);
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.safe.user.domain.event;
+
+import com.safe.user.domain.model.entity.User;
+
+/**
+ * Se publica después de crear, modificar o borrar un usuario.
+ *
+ * @param userId ID del usuario
+ * @param type   tipo de cambio
+ * @param before datos antes del cambio; null en CREATED o si quien guardó no los conocía
+ * @param after  datos después del cambio; null en DELETED
+ */
+public record UserChangedEvent(Long userId, ChangeType type, State before, State after) {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static UserChangedEvent created(User user) {
+        return new UserChangedEvent(user.getId(), ChangeType.CREATED, null, State.of(user));
+    }
+
+    public static UserChangedEvent updated(Long userId, State before, User after) {
+        return new UserChangedEvent(userId, ChangeType.UPDATED, before, State.of(after));
+    }
+
+    public static UserChangedEvent deleted(Long userId, State before) {
+        return new UserChangedEvent(userId, ChangeType.DELETED, before, null);
+    }
+
+    /**
+     * Los datos del usuario que les importan a quienes escuchan: estadísticas, cachés y autenticación.
+     */
+    public record State(
+            String email,
+            String firstName,
+            String lastName,
+            String role,
+            Integer provinciaId,
+            Integer municipioId
+    ) {
+        public static State of(User user) {
+            return new State(user.getEmail(), user.getFirstName(), user.getLastName(), user.getRole(),
+                    user.getProvinciaId(), user.getMunicipioId());
+        }
+    }
+}
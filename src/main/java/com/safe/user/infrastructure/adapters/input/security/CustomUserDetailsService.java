@@ -1,39 +1,104 @@
 package com.safe.user.infrastructure.adapters.input.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.safe.user.application.service.UserServiceImpl;
+import com.safe.user.domain.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 
+/**
+ * Resuelve el usuario de cada request autenticado. Los datos de autenticación (email, hash y rol)
+ * se guardan un rato por email para no ir a la base en cada request, incluidos los de Vaadin.
+ * Se descartan cuando el usuario cambia o se borra; el TTL acota lo que se escape a eso.
+ */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
+
     private final UserServiceImpl userService;
+    private final Cache<String, AuthUser> authUsers;
 
-    public CustomUserDetailsService(UserServiceImpl userService) {
+    public CustomUserDetailsService(UserServiceImpl userService,
+                                    @Value("${security.user-details-cache.ttl:PT1M}") Duration ttl,
+                                    @Value("${security.user-details-cache.maximum-size:10000}") long maximumSize) {
         this.userService = userService;
+        this.authUsers = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        com.safe.user.domain.model.entity.User user = userService.findByEmail(email);
-
-        if (user == null) {
-            throw new UsernameNotFoundException("Usuario no encontrado: " + email);
+        if (email == null) {
+            throw new UsernameNotFoundException("Usuario no encontrado: null");
         }
+        AuthUser authUser = authUsers.getIfPresent(key(email));
+        if (authUser == null) {
+            com.safe.user.domain.model.entity.User user = userService.findByEmail(email);
 
-        var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole()));
+            if (user == null) {
+                throw new UsernameNotFoundException("Usuario no encontrado: " + email);
+            }
+
+            authUser = new AuthUser(user.getEmail(), user.getPassword(), user.getRole());
+            authUsers.put(key(email), authUser);
+        }
 
+        // Siempre un UserDetails nuevo: Spring Security borra la contraseña del que usa al autenticar
         return User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(authorities)
+                .username(authUser.email())
+                .password(authUser.password())
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_" + authUser.role())))
                 .build();
     }
 
-}
\ No newline at end of file
+    public void evict(String email) {
+        if (email != null) {
+            authUsers.invalidate(key(email));
+        }
+    }
+
+    /**
+     * Cualquier cambio puede tocar contraseña, rol o estado, que no viajan todos en el evento:
+     * se descarta el usuario. Si no se conoce su email, se descartan todos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+        if (event.before() == null) {
+            // Pudo cambiar el email y no se sabe cuál era
+            authUsers.invalidateAll();
+            logger.debug("Caché de autenticación vaciada por cambio en el usuario {}", event.userId());
+            return;
+        }
+        evict(event.before().email());
+        if (event.after() != null) {
+            evict(event.after().email());
+        }
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record AuthUser(String email, String password, String role) {
+    }
+
+}
@@ -19,23 +19,28 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    private static final String ROUTE_CLASS_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".ROUTE_CLASS";
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final JwtRouteClassifier routeClassifier;
 
     // ✅ SOLUCIÓN: Usar @Lazy para romper el ciclo de dependencias
     public JwtAuthenticationFilter(JwtUtil jwtUtil,
                                    UserDetailsService userDetailsService,
-                                   TokenBlacklistService tokenBlacklistService) {
+                                   TokenBlacklistService tokenBlacklistService,
+                                   JwtRouteClassifier routeClassifier) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
         this.tokenBlacklistService = tokenBlacklistService;
+        this.routeClassifier = routeClassifier;
     }
 
     @Override
@@ -50,33 +55,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 logger.debug("Procesando token JWT");
 
+                // Validar token (una sola verificación de firma) y establecer contexto de seguridad
+                Optional<JwtUtil.VerifiedClaims> claims = jwtUtil.parseVerifiedClaims(token);
+
                 // Verificar si el token está en blacklist
-                if (tokenBlacklistService.isTokenBlacklisted(token)) {
+                if (claims.isPresent() && tokenBlacklistService.isRevoked(claims.get(), token)) {
                     logger.warn("Token está en blacklist");
                     filterChain.doFilter(request, response);
                     return;
                 }
 
-                // Validar token y establecer contexto de seguridad
-                if (jwtUtil.validateToken(token)) {
-                    String username = jwtUtil.extractUsername(token);
+                if (claims.isPresent() && claims.get().subject() != null) {
+                    String username = claims.get().subject();
                     logger.debug("Token válido para usuario: {}", username);
 
                     // ✅ El UserDetailsService se carga de forma lazy
                     UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-                    if (jwtUtil.validateToken(token, username)) {
-                        UsernamePasswordAuthenticationToken authentication =
-                                new UsernamePasswordAuthenticationToken(
-                                        userDetails,
-                                        null,
-                                        userDetails.getAuthorities()
-                                );
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-
-                        logger.debug("Usuario autenticado establecido en SecurityContext: {}", username);
-                    }
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    userDetails,
+                                    null,
+                                    userDetails.getAuthorities()
+                            );
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+
+                    logger.debug("Usuario autenticado establecido en SecurityContext: {}", username);
                 }
             }
         } catch (Exception e) {
@@ -86,53 +91,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private String extractTokenFromRequest(HttpServletRequest request) {
-        // 1. Intentar obtener desde header Authorization
-        String bearerToken = request.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-
-        // 2. Intentar obtener desde cookie
-        if (request.getCookies() != null) {
-            for (var cookie : request.getCookies()) {
-                if ("authToken".equals(cookie.getName())) {
-                    return cookie.getValue();
-                }
-            }
-        }
-
-        // 3. Intentar obtener desde sesión (para integración con Vaadin)
-        var session = request.getSession(false);
-        if (session != null) {
-            Object token = session.getAttribute("authToken");
-            if (token instanceof String) {
-                return (String) token;
-            }
-        }
-
-        // 4. Intentar desde parámetro de query
-        String queryToken = request.getParameter("token");
-        if (queryToken != null && !queryToken.trim().isEmpty()) {
-            return queryToken;
+    /**
+     * Recursos estáticos, push y heartbeat no pasan por el filtro. Para el resto, el tipo de ruta
+     * queda en el request para no volver a clasificarlo.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        JwtRouteClassifier.RouteClass routeClass = routeClassifier.classify(request);
+        if (routeClass == JwtRouteClassifier.RouteClass.SKIP) {
+            return true;
         }
-
-        return null;
+        request.setAttribute(ROUTE_CLASS_ATTRIBUTE, routeClass);
+        return false;
     }
 
-    @Override
-    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
-        String path = request.getRequestURI();
-
-        // No filtrar rutas públicas
-        return path.equals("/") ||
-                path.startsWith("/login") ||
-                path.startsWith("/register") ||
-                path.startsWith("/VAADIN/") ||
-                path.startsWith("/frontend/") ||
-                path.startsWith("/images/") ||
-                path.contains("manifest.json") ||
-                path.contains("sw.js") ||
-                path.contains("favicon.ico");
+    private String extractTokenFromRequest(HttpServletRequest request) {
+        JwtRouteClassifier.RouteClass routeClass =
+                request.getAttribute(ROUTE_CLASS_ATTRIBUTE) instanceof JwtRouteClassifier.RouteClass classified
+                        ? classified
+                        : routeClassifier.classify(request);
+        return routeClass.extractToken(request);
     }
 }
\ No newline at end of file
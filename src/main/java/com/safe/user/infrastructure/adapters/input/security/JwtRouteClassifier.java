@@ -0,0 +1,146 @@
+package com.safe.user.infrastructure.adapters.input.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decide, para cada request, si JwtAuthenticationFilter tiene que buscar un token y dónde.
+ * Los patrones se compilan una vez al arrancar en rutas exactas y prefijos ("/x/**"); por request
+ * hay una búsqueda en un set y unas pocas comparaciones de prefijo, sin parsear la ruta.
+ * <ul>
+ *     <li>SKIP: recursos estáticos, push, heartbeat y páginas públicas. No se busca token.</li>
+ *     <li>API: solo el header Authorization.</li>
+ *     <li>VAADIN: vistas y UIDL; solo la sesión HTTP, si ya existe.</li>
+ * </ul>
+ * El token de VAADIN es el atributo "authToken" de la HttpSession, que AuthenticationHelper copia al
+ * iniciar sesión. El de VaadinSession no sirve acá: vive en la VaadinSession y leerlo pide su lock.
+ */
+@Component
+public class JwtRouteClassifier {
+
+    static final String SESSION_TOKEN_ATTRIBUTE = "authToken";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String HEARTBEAT_PARAMETER = "v-r=heartbeat";
+
+    private final PathSet skipPaths;
+    private final PathSet apiPaths;
+
+    public JwtRouteClassifier(
+            @Value("${security.jwt-filter.skip-paths:/VAADIN/**,/frontend/**,/images/**,/icons/**,/login/**,/register/**,"
+                    + "/favicon.ico,/manifest.json,/manifest.webmanifest,/sw.js,/sw-runtime-resources-precache.js,"
+                    + "/offline.html,/offline-stub.html}") String[] skipPaths,
+            @Value("${security.jwt-filter.api-paths:/api/**}") String[] apiPaths) {
+        this.skipPaths = new PathSet(skipPaths);
+        this.apiPaths = new PathSet(apiPaths);
+    }
+
+    public RouteClass classify(HttpServletRequest request) {
+        if (isHeartbeat(request.getQueryString())) {
+            return RouteClass.SKIP;
+        }
+        String path = pathWithinApplication(request);
+        if (skipPaths.matches(path)) {
+            return RouteClass.SKIP;
+        }
+        if (apiPaths.matches(path)) {
+            return RouteClass.API;
+        }
+        return RouteClass.VAADIN;
+    }
+
+    // Vaadin manda el heartbeat a la raíz con v-r=heartbeat en la query
+    private static boolean isHeartbeat(String query) {
+        return query != null && (query.startsWith(HEARTBEAT_PARAMETER) || query.contains("&" + HEARTBEAT_PARAMETER));
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return contextPath != null && !contextPath.isEmpty() && uri.startsWith(contextPath)
+                ? uri.substring(contextPath.length())
+                : uri;
+    }
+
+    /**
+     * Rutas exactas y prefijos "/x/**" (que incluyen "/x"). Otros comodines no se aceptan.
+     */
+    private static final class PathSet {
+
+        private final Set<String> exact = new HashSet<>();
+        private final String[] prefixes;
+
+        private PathSet(String[] patterns) {
+            List<String> prefixList = new ArrayList<>();
+            for (String raw : patterns) {
+                String pattern = raw.trim();
+                if (pattern.isEmpty()) {
+                    continue;
+                }
+                String base = pattern.endsWith("/**") ? pattern.substring(0, pattern.length() - 3) : pattern;
+                if (!base.startsWith("/") || base.contains("*") || base.contains("{")) {
+                    throw new IllegalArgumentException("Unsupported JWT filter path pattern: " + pattern);
+                }
+                exact.add(base);
+                if (base.length() < pattern.length()) {
+                    prefixList.add(base + "/");
+                }
+            }
+            this.prefixes = prefixList.toArray(String[]::new);
+        }
+
+        private boolean matches(String path) {
+            if (exact.contains(path)) {
+                return true;
+            }
+            for (String prefix : prefixes) {
+                if (path.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Tipo de ruta y de dónde sale su token.
+     */
+    public enum RouteClass {
+
+        SKIP {
+            @Override
+            public String extractToken(HttpServletRequest request) {
+                return null;
+            }
+        },
+
+        API {
+            @Override
+            public String extractToken(HttpServletRequest request) {
+                String bearerToken = request.getHeader("Authorization");
+                return bearerToken != null && bearerToken.startsWith(BEARER_PREFIX)
+                        ? bearerToken.substring(BEARER_PREFIX.length())
+                        : null;
+            }
+        },
+
+        VAADIN {
+            @Override
+            public String extractToken(HttpServletRequest request) {
+                // getSession(false): una request sin sesión no crea una
+                HttpSession session = request.getSession(false);
+                return session != null && session.getAttribute(SESSION_TOKEN_ATTRIBUTE) instanceof String token
+                        ? token
+                        : null;
+            }
+        };
+
+        public abstract String extractToken(HttpServletRequest request);
+    }
+}
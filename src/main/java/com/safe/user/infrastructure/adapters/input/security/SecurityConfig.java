@@ -34,7 +34,7 @@ public class SecurityConfig {
                         // ✅ PERMITIR recursos estáticos de Vaadin
                         .requestMatchers("/VAADIN/**", "/vaadinServlet/**", "/frontend/**").permitAll()
                         // ✅ REQUERIR autenticación para rutas protegidas
-                        .requestMatchers("/bike-form", "/photo-upload", "/reports").authenticated()
+                        .requestMatchers("/bike-form", "/photo-upload", "/photo-gallery", "/reports").authenticated()
                         // ✅ Por defecto, todo lo demás requiere autenticación
                         .anyRequest().authenticated()
                 )
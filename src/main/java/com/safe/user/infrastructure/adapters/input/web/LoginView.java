@@ -117,13 +117,8 @@ public class LoginView extends VerticalLayout implements BeforeEnterObserver {
             if (token != null && !token.trim().isEmpty()) {
                 logger.info("Login exitoso para usuario: {}", emailValue);
 
-                // Con esto (manejo directo de sesión):
-                getUI().ifPresent(ui -> {
-                    ui.getSession().setAttribute("authToken", token);
-                    ui.getSession().setAttribute("userEmail", emailValue);
-
-                    logger.info("Token y email guardados en sesión para usuario: {}", emailValue);
-                });
+                // Guarda token y email en la sesión de Vaadin y el token en la sesión HTTP para el filtro JWT
+                authHelper.setAuthentication(token, emailValue);
 
                 // Mostrar notificación de éxito
                 Notification.show("🎉 ¡Login exitoso!", 2000, Notification.Position.TOP_CENTER)
@@ -0,0 +1,97 @@
+package com.safe.user.infrastructure.adapters.output.external;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revocaciones en memoria de esta instancia, cada una con su propio vencimiento. Sirve como
+ * almacén de una sola instancia (desarrollo, pruebas) y como caché local delante de Redis.
+ */
+public class InMemoryRevokedTokenStore implements RevokedTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryRevokedTokenStore.class);
+    private static final long EVICTION_LOG_INTERVAL = 10_000;
+
+    private final Cache<String, Long> revoked;
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Caché local delante de otro almacén: descartar por tamaño es esperable, lo que falta se
+     * vuelve a consultar.
+     */
+    public InMemoryRevokedTokenStore(long maximumSize) {
+        this(maximumSize, false);
+    }
+
+    /**
+     * @param warnOnEviction true cuando es el único almacén: descartar una revocación por tamaño
+     *                       vuelve a aceptar el token, así que se avisa en el log
+     */
+    public InMemoryRevokedTokenStore(long maximumSize, boolean warnOnEviction) {
+        Caffeine<String, Long> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilDeadline());
+        if (warnOnEviction) {
+            builder.evictionListener((String tokenId, Long deadline, RemovalCause cause) -> {
+                if (cause == RemovalCause.SIZE) {
+                    logEviction(maximumSize);
+                }
+            });
+        }
+        this.revoked = builder.build();
+    }
+
+    @Override
+    public void revoke(String tokenId, Duration ttl) {
+        revoked.put(tokenId, System.nanoTime() + ttl.toNanos());
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return revoked.getIfPresent(tokenId) != null;
+    }
+
+    /**
+     * En memoria solo revoca esta instancia, que ya conoce todas sus revocaciones.
+     */
+    @Override
+    public List<Revocation> findRevokedSince(Instant since) {
+        return List.of();
+    }
+
+    private void logEviction(long maximumSize) {
+        long count = evictions.incrementAndGet();
+        if (count == 1 || count % EVICTION_LOG_INTERVAL == 0) {
+            logger.warn("Almacén de tokens revocados lleno ({} entradas): se descartaron {} revocaciones vigentes",
+                    maximumSize, count);
+        }
+    }
+
+    // El valor es el System.nanoTime() en que vence la revocación
+    private static final class UntilDeadline implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String key, Long deadline, long currentTime) {
+            return Math.max(0, deadline - System.nanoTime());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Long deadline, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, deadline, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Long deadline, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.safe.user.infrastructure.adapters.output.external;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Revocaciones compartidas entre todas las instancias: una clave por token con TTL propio,
+ * así Redis las borra solas cuando el token vence.
+ * <p>
+ * Además, cada revocación se anota en un sorted set por fecha de revocación, que las instancias
+ * leen para enterarse de lo revocado en otras. Se recorta a la vida máxima de un token.
+ */
+public class RedisRevokedTokenStore implements RevokedTokenStore {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final String logKey;
+    private final Duration logRetention;
+
+    public RedisRevokedTokenStore(StringRedisTemplate redisTemplate, String keyPrefix, Duration logRetention) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.logKey = keyPrefix + "log";
+        this.logRetention = logRetention;
+    }
+
+    @Override
+    public void revoke(String tokenId, Duration ttl) {
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForValue().set(keyPrefix + tokenId, "1", ttl);
+        redisTemplate.opsForZSet().add(logKey, tokenId, now);
+        redisTemplate.opsForZSet().removeRangeByScore(logKey, Double.NEGATIVE_INFINITY, now - logRetention.toMillis());
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(keyPrefix + tokenId));
+    }
+
+    @Override
+    public List<Revocation> findRevokedSince(Instant since) {
+        Set<ZSetOperations.TypedTuple<String>> entries = redisTemplate.opsForZSet()
+                .rangeByScoreWithScores(logKey, since.toEpochMilli(), Double.POSITIVE_INFINITY);
+        if (entries == null) {
+            return List.of();
+        }
+        List<Revocation> revocations = new ArrayList<>(entries.size());
+        for (ZSetOperations.TypedTuple<String> entry : entries) {
+            if (entry.getValue() != null && entry.getScore() != null) {
+                revocations.add(new Revocation(entry.getValue(), Instant.ofEpochMilli(entry.getScore().longValue())));
+            }
+        }
+        return revocations;
+    }
+}
@@ -0,0 +1,129 @@
+package com.safe.user.infrastructure.adapters.output.external;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de los tokens revocados: si dice que un token no está, seguro no está y no
+ * hace falta consultar ninguna caché ni Redis. Si dice que está, puede ser un falso positivo.
+ * <p>
+ * Tiene dos generaciones que rotan cada ventana. Lo nuevo entra en la actual y, al rotar, la actual
+ * pasa a ser la anterior y la anterior se descarta. Con una ventana igual a la vida de un token,
+ * cada revocación sigue en el filtro hasta que su token vence y sale sola a más tardar una ventana después.
+ * La consulta no mira el reloj: la rotación la disparan las altas y {@link #rotateIfDue()}, que se
+ * llama periódicamente. Si se atrasa, las revocaciones duran de más, nunca de menos.
+ */
+public class RevokedTokenFilter {
+
+    private final long windowNanos;
+    private final int bits;
+    private final int hashes;
+    private volatile Generation current;
+    private volatile Generation previous;
+    private volatile long rotatedAt;
+
+    /**
+     * @param window             cada cuánto rota; no menos que la vida de un token
+     * @param expectedPerWindow  revocaciones esperadas por ventana
+     * @param falsePositiveRate  tasa de falsos positivos buscada con esa cantidad
+     */
+    public RevokedTokenFilter(Duration window, int expectedPerWindow, double falsePositiveRate) {
+        if (window.isZero() || window.isNegative() || expectedPerWindow <= 0
+                || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid revoked token filter settings");
+        }
+        this.windowNanos = window.toNanos();
+        // Tamaño óptimo: m = -n ln(p) / ln(2)^2 bits y k = m/n ln(2) funciones de hash
+        long optimalBits = (long) Math.ceil(-expectedPerWindow * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedPerWindow * Math.log(2)));
+        this.current = new Generation(bits);
+        this.previous = new Generation(bits);
+        this.rotatedAt = System.nanoTime();
+    }
+
+    public void add(String tokenId) {
+        rotateIfDue();
+        long hash1 = hash(tokenId);
+        long hash2 = mix(hash1 ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        Generation generation = current;
+        for (int i = 0; i < hashes; i++) {
+            generation.set(index(hash1 + i * hash2));
+        }
+    }
+
+    public boolean mightContain(String tokenId) {
+        long hash1 = hash(tokenId);
+        long hash2 = mix(hash1 ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        return current.containsAll(this, hash1, hash2) || previous.containsAll(this, hash1, hash2);
+    }
+
+    public void rotateIfDue() {
+        if (System.nanoTime() - rotatedAt < windowNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (System.nanoTime() - rotatedAt >= windowNanos) {
+                previous = current;
+                current = new Generation(bits);
+                rotatedAt = System.nanoTime();
+            }
+        }
+    }
+
+    // Lleva los 32 bits altos a [0, bits) con una multiplicación en lugar de un módulo
+    private int index(long combinedHash) {
+        return (int) (((combinedHash >>> 32) * bits) >>> 32);
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres, sin copiar el jti a bytes. El segundo hash del doble
+    // hashing sale de mezclar el primero: alcanza para IDs aleatorios y recorre el jti una sola vez
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+
+        private Generation(int bits) {
+            this.words = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        private void set(int bit) {
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long value;
+            do {
+                value = words.get(word);
+                if ((value & mask) != 0) {
+                    return;
+                }
+            } while (!words.compareAndSet(word, value, value | mask));
+        }
+
+        private boolean containsAll(RevokedTokenFilter filter, long hash1, long hash2) {
+            for (int i = 0; i < filter.hashes; i++) {
+                int bit = filter.index(hash1 + i * hash2);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.safe.user.infrastructure.adapters.output.external;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Dónde se guardan los tokens revocados. Cada revocación dura lo que le queda de vida al token:
+ * después ya no hace falta, porque el token vencido no pasa la validación.
+ */
+public interface RevokedTokenStore {
+
+    void revoke(String tokenId, Duration ttl);
+
+    boolean isRevoked(String tokenId);
+
+    /**
+     * Revocaciones registradas desde el instante dado, incluidas las de otras instancias.
+     * Cada instancia las usa para completar su filtro local.
+     */
+    List<Revocation> findRevokedSince(Instant since);
+
+    record Revocation(String tokenId, Instant revokedAt) {
+    }
+}
@@ -1,29 +1,180 @@
 package com.safe.user.infrastructure.adapters.output.external;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.safe.user.config.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
 
+/**
+ * Tokens revocados (logout) en dos niveles: una caché local y el almacén compartido
+ * (Redis en producción). Cada revocación dura lo que le queda de vida al token.
+ * <p>
+ * Delante de todo hay un filtro de Bloom con los IDs revocados: casi ningún token está revocado
+ * y, para esos, la consulta termina en el filtro sin tocar cachés ni red. El filtro se completa
+ * con las revocaciones de otras instancias leyendo el almacén cada pocos segundos; ese intervalo
+ * es la demora máxima en ver acá una revocación hecha en otra instancia.
+ * <p>
+ * Cuando el filtro dice que puede estar, la caché local guarda las revocaciones conocidas hasta que
+ * el token vence y, por unos segundos, los falsos positivos que el almacén dio como no revocados.
+ * Si el almacén no responde, se usa solo lo local y se vuelve a probar después de una pausa,
+ * para no frenar cada request.
+ */
 @Service
 public class TokenBlacklistService {
 
-    @Autowired
-    private CacheManager cacheManager;
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
 
-    // Método simplificado - solo recibe el token
+    // Revocaciones que llegan al almacén con el reloj de otra instancia algo atrasado
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private final RevokedTokenStore store;
+    private final JwtUtil jwtUtil;
+    private final RevokedTokenFilter filter;
+    private final InMemoryRevokedTokenStore revokedNearCache;
+    private final Cache<String, Boolean> notRevokedNearCache;
+    private final long storeRetryNanos;
+    private volatile long storeUnavailableUntil;
+    private volatile Instant syncedUntil;
+
+    public TokenBlacklistService(RevokedTokenStore store,
+                                 JwtUtil jwtUtil,
+                                 @Value("${security.token-blacklist.near-cache.maximum-size:10000}") long nearCacheSize,
+                                 @Value("${security.token-blacklist.near-cache.not-revoked-ttl:PT5S}") Duration notRevokedTtl,
+                                 @Value("${security.token-blacklist.store-retry:PT10S}") Duration storeRetry,
+                                 @Value("${jwt.expiration:86400}") long tokenLifetimeSeconds,
+                                 @Value("${security.token-blacklist.filter.expected-revocations:100000}") int expectedRevocations,
+                                 @Value("${security.token-blacklist.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.store = store;
+        this.jwtUtil = jwtUtil;
+        // Rotar cada vida de token garantiza que una revocación sigue en el filtro hasta que el token vence
+        Duration tokenLifetime = Duration.ofSeconds(tokenLifetimeSeconds);
+        this.filter = new RevokedTokenFilter(tokenLifetime, expectedRevocations, falsePositiveRate);
+        this.syncedUntil = Instant.now().minus(tokenLifetime);
+        this.revokedNearCache = new InMemoryRevokedTokenStore(nearCacheSize);
+        this.notRevokedNearCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheSize)
+                .expireAfterWrite(notRevokedTtl)
+                .build();
+        this.storeRetryNanos = storeRetry.toNanos();
+        this.storeUnavailableUntil = System.nanoTime();
+    }
+
+    /**
+     * Revoca el token hasta su vencimiento. Un token inválido o vencido no necesita revocarse.
+     */
     public void blacklistToken(String token) {
-        Cache blacklistCache = cacheManager.getCache("tokenBlacklist");
-        if (blacklistCache != null) {
-            // El cache ya tiene configurado el TTL en la configuración (5 minutos)
-            blacklistCache.put(token, true);
+        jwtUtil.parseVerifiedClaims(token).ifPresent(claims -> revoke(claims, token));
+    }
+
+    public void revoke(JwtUtil.VerifiedClaims claims, String token) {
+        Duration ttl = remainingLifetime(claims);
+        if (ttl.isZero()) {
+            return;
+        }
+        String tokenId = tokenId(claims, token);
+        filter.add(tokenId);
+        revokedNearCache.revoke(tokenId, ttl);
+        notRevokedNearCache.invalidate(tokenId);
+        try {
+            store.revoke(tokenId, ttl);
+        } catch (RuntimeException e) {
+            // Queda revocado en esta instancia; las demás lo aceptan hasta que vuelva el almacén
+            logger.error("No se pudo registrar la revocación en el almacén compartido: {}", e.getMessage());
+            markStoreUnavailable();
         }
     }
 
     public boolean isTokenBlacklisted(String token) {
-        Cache blacklistCache = cacheManager.getCache("tokenBlacklist");
-        return blacklistCache != null && blacklistCache.get(token) != null;
+        return jwtUtil.parseVerifiedClaims(token)
+                .map(claims -> isRevoked(claims, token))
+                .orElse(false);
+    }
+
+    public boolean isRevoked(JwtUtil.VerifiedClaims claims, String token) {
+        String tokenId = tokenId(claims, token);
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+        if (revokedNearCache.isRevoked(tokenId)) {
+            return true;
+        }
+        if (notRevokedNearCache.getIfPresent(tokenId) != null || System.nanoTime() - storeUnavailableUntil < 0) {
+            return false;
+        }
+        try {
+            if (store.isRevoked(tokenId)) {
+                revokedNearCache.revoke(tokenId, remainingLifetime(claims));
+                return true;
+            }
+            notRevokedNearCache.put(tokenId, Boolean.TRUE);
+            return false;
+        } catch (RuntimeException e) {
+            logger.warn("Almacén de tokens revocados no disponible, se usa solo la caché local: {}", e.getMessage());
+            markStoreUnavailable();
+            return false;
+        }
+    }
+
+    /**
+     * Agrega al filtro lo revocado en otras instancias desde la última lectura. La primera lectura
+     * trae todo lo revocado durante la vida de un token.
+     */
+    @Scheduled(fixedDelayString = "${security.token-blacklist.sync-interval:PT5S}")
+    public void syncRevocations() {
+        filter.rotateIfDue();
+        if (System.nanoTime() - storeUnavailableUntil < 0) {
+            return;
+        }
+        Instant started = Instant.now();
+        try {
+            List<RevokedTokenStore.Revocation> revocations = store.findRevokedSince(syncedUntil.minus(CLOCK_SKEW));
+            for (RevokedTokenStore.Revocation revocation : revocations) {
+                filter.add(revocation.tokenId());
+            }
+            syncedUntil = started;
+            logger.debug("Filtro de tokens revocados sincronizado: {} revocaciones leídas", revocations.size());
+        } catch (RuntimeException e) {
+            // La próxima lectura vuelve a pedir desde syncedUntil: no se pierde nada
+            logger.warn("No se pudieron leer las revocaciones del almacén compartido: {}", e.getMessage());
+            markStoreUnavailable();
+        }
+    }
+
+    private void markStoreUnavailable() {
+        storeUnavailableUntil = System.nanoTime() + storeRetryNanos;
+    }
+
+    private static Duration remainingLifetime(JwtUtil.VerifiedClaims claims) {
+        if (claims.expiration() == null) {
+            // Sin vencimiento: la revocación dura lo mismo que un token nuevo
+            return Duration.ofDays(1);
+        }
+        long remaining = claims.expiration().getTime() - System.currentTimeMillis();
+        return remaining > 0 ? Duration.ofMillis(remaining) : Duration.ZERO;
+    }
+
+    // Los tokens emitidos antes de agregar jti se identifican por su SHA-256
+    private static String tokenId(JwtUtil.VerifiedClaims claims, String token) {
+        if (claims.tokenId() != null) {
+            return claims.tokenId();
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return "sha256:" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
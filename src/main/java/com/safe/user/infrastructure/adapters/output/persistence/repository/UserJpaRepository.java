@@ -3,12 +3,73 @@ package com.safe.user.infrastructure.adapters.output.persistence.repository;
 
 import com.safe.user.domain.model.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 
+
+/**
+ * Las consultas nativas usan las mismas expresiones que los índices de sql/user.sql
+ * (upper(username), upper(email), upper(btrim(role)) y el trigrama sobre lower(email));
+ * si se cambia una, hay que cambiar el índice o deja de usarse.
+ */
 @Repository
 public interface UserJpaRepository extends JpaRepository<UserEntity, Long> {
 
+    String EXISTS_BY_USERNAME_SQL = """
+            SELECT EXISTS (SELECT 1 FROM users u WHERE upper(u.username) = upper(:username))
+            """;
+
+    String EXISTS_BY_EMAIL_SQL = """
+            SELECT EXISTS (SELECT 1 FROM users u WHERE upper(u.email) = upper(:email))
+            """;
+
+    // role es NOT NULL: un rol vacío cuenta como activo, igual que antes
+    String ACTIVE_SQL = """
+            SELECT u.* FROM users u WHERE upper(btrim(u.role)) <> 'INACTIVE'
+            """;
+
+    String COUNT_ACTIVE_SQL = """
+            SELECT count(*) FROM users u WHERE upper(btrim(u.role)) <> 'INACTIVE'
+            """;
+
+    // :role llega sin espacios y en mayúsculas; '' trae los usuarios con rol vacío
+    String BY_ROLE_SQL = """
+            SELECT u.* FROM users u WHERE upper(btrim(u.role)) = :role
+            """;
+
+    String COUNT_BY_ROLE_SQL = """
+            SELECT count(*) FROM users u WHERE upper(btrim(u.role)) = :role
+            """;
+
+    // :pattern llega en minúsculas, con % y _ escapados y rodeado de %
+    String BY_EMAIL_PATTERN_SQL = """
+            SELECT u.* FROM users u WHERE lower(u.email) LIKE :pattern ESCAPE '\\'
+            """;
+
     UserEntity findByEmailIgnoreCase(String email);
 
-}
\ No newline at end of file
+    @Query(value = EXISTS_BY_USERNAME_SQL, nativeQuery = true)
+    boolean existsByUsernameIgnoreCase(@Param("username") String username);
+
+    @Query(value = EXISTS_BY_EMAIL_SQL, nativeQuery = true)
+    boolean existsByEmailIgnoreCase(@Param("email") String email);
+
+    @Query(value = ACTIVE_SQL, nativeQuery = true)
+    List<UserEntity> findActive();
+
+    @Query(value = COUNT_ACTIVE_SQL, nativeQuery = true)
+    long countActive();
+
+    @Query(value = BY_ROLE_SQL, nativeQuery = true)
+    List<UserEntity> findByNormalizedRole(@Param("role") String role);
+
+    @Query(value = COUNT_BY_ROLE_SQL, nativeQuery = true)
+    long countByNormalizedRole(@Param("role") String role);
+
+    @Query(value = BY_EMAIL_PATTERN_SQL, nativeQuery = true)
+    List<UserEntity> findByEmailLike(@Param("pattern") String pattern);
+
+}
@@ -38,6 +38,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     long countByProvinciaIdIsNotNull();
     long countByProvinciaIdIsNull();
 
+    // Mismo criterio de usuario activo que UserJpaRepository y los contadores de FleetStatsService
+    @Query(value = UserJpaRepository.COUNT_ACTIVE_SQL, nativeQuery = true)
+    long countActive();
+
+    @Query(value = "SELECT count(DISTINCT b.user_id) FROM bike b", nativeQuery = true)
+    long countUsersWithBikes();
+
+    @Query(value = "SELECT count(*) FROM bike b", nativeQuery = true)
+    long countBikes();
+
     // CONSULTAS PERSONALIZADAS CON @Query
     @Query("SELECT u FROM User u WHERE " +
             "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
@@ -1,5 +1,6 @@
 package com.safe.user.infrastructure.persistence.repositories;
 
+import com.safe.user.domain.event.UserChangedEvent;
 import com.safe.user.domain.model.entity.UserEntity;
 import com.safe.user.infrastructure.adapters.output.persistence.repository.UserJpaRepository;
 import com.safe.user.infrastructure.persistence.mappers.UserPersistenceMapper;
@@ -8,10 +9,12 @@ import com.safe.user.infrastructure.persistence.port.UserRepositoryPort;
 import com.safe.user.domain.model.entity.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -22,10 +25,13 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
 
     private final UserJpaRepository userJpaRepository;
     private final UserPersistenceMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserRepositoryAdapter(UserJpaRepository userJpaRepository, UserPersistenceMapper userMapper) {
+    public UserRepositoryAdapter(UserJpaRepository userJpaRepository, UserPersistenceMapper userMapper,
+                                 ApplicationEventPublisher eventPublisher) {
         this.userJpaRepository = userJpaRepository;
         this.userMapper = userMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     // ================================
@@ -136,6 +142,11 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
             logger.info("Usuario guardado exitosamente en BD con ID: {}", savedUser.getId());
             logger.debug("Usuario guardado convertido a dominio: {}", savedUser);
 
+            // Por este camino no se conocen los valores anteriores de un usuario modificado
+            eventPublisher.publishEvent(user.getId() == null
+                    ? UserChangedEvent.created(savedUser)
+                    : UserChangedEvent.updated(savedUser.getId(), null, savedUser));
+
             return savedUser;
         } catch (Exception e) {
             logger.error("Error al guardar el usuario en la base de datos: {}", user, e);
@@ -157,6 +168,7 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
             if (userJpaRepository.existsById(id)) {
                 userJpaRepository.deleteById(id);
                 logger.info("Usuario eliminado exitosamente de la base de datos con ID: {}", id);
+                eventPublisher.publishEvent(UserChangedEvent.deleted(id, null));
             } else {
                 logger.warn("No se puede eliminar: Usuario con ID {} no existe en la base de datos", id);
                 throw new IllegalArgumentException("Usuario con ID " + id + " no existe en la base de datos");
@@ -181,9 +193,7 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
         }
 
         try {
-            String normalizedEmail = email.trim().toLowerCase();
-            UserEntity userEntity = userJpaRepository.findByEmailIgnoreCase(normalizedEmail);
-            boolean exists = userEntity != null;
+            boolean exists = userJpaRepository.existsByEmailIgnoreCase(email.trim());
 
             logger.debug("Email {} existe en BD: {}", email, exists);
             return exists;
@@ -203,12 +213,8 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
         }
 
         try {
-            String normalizedUsername = username.trim();
-
-            // ✅ IMPLEMENTACIÓN EFICIENTE: Buscar en todos los usuarios
-            List<UserEntity> allUsers = userJpaRepository.findAll();
-            boolean exists = allUsers.stream()
-                    .anyMatch(user -> normalizedUsername.equalsIgnoreCase(user.getUsername()));
+            // Solo consulta el índice: no trae ninguna fila a memoria
+            boolean exists = userJpaRepository.existsByUsernameIgnoreCase(username.trim());
 
             logger.debug("Username {} existe en BD: {}", username, exists);
             return exists;
@@ -237,16 +243,10 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
         logger.debug("Buscando usuarios activos en BD");
 
         try {
-            List<UserEntity> allUsers = userJpaRepository.findAll();
-            List<UserEntity> activeUsers = allUsers.stream()
-                    .filter(user -> {
-                        String role = user.getRole();
-                        // Considerar activo si role es null, vacío, o diferente de "INACTIVE"
-                        return role == null || role.trim().isEmpty() || !"INACTIVE".equalsIgnoreCase(role.trim());
-                    })
-                    .collect(Collectors.toList());
-
-            logger.debug("Usuarios activos encontrados: {} de {} total", activeUsers.size(), allUsers.size());
+            // Activo si el rol es vacío o distinto de "INACTIVE"; el filtro lo aplica la base
+            List<UserEntity> activeUsers = userJpaRepository.findActive();
+
+            logger.debug("Usuarios activos encontrados: {}", activeUsers.size());
             return activeUsers;
         } catch (Exception e) {
             logger.error("Error al buscar usuarios activos en BD", e);
@@ -264,30 +264,10 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
         }
 
         try {
-            String normalizedRole = role.trim();
-            List<UserEntity> allUsers = userJpaRepository.findAll();
-            List<UserEntity> usersByRole;
-
-            if (normalizedRole.isEmpty()) {
-                // Buscar usuarios con rol null o vacío
-                usersByRole = allUsers.stream()
-                        .filter(user -> {
-                            String userRole = user.getRole();
-                            return userRole == null || userRole.trim().isEmpty();
-                        })
-                        .collect(Collectors.toList());
-            } else {
-                // Buscar usuarios con el rol específico
-                usersByRole = allUsers.stream()
-                        .filter(user -> {
-                            String userRole = user.getRole();
-                            return userRole != null && normalizedRole.equalsIgnoreCase(userRole.trim());
-                        })
-                        .collect(Collectors.toList());
-            }
+            // Un rol vacío trae los usuarios con rol vacío
+            List<UserEntity> usersByRole = userJpaRepository.findByNormalizedRole(normalizeRole(role));
 
-            logger.debug("Usuarios con rol '{}' encontrados: {} de {} total",
-                    role, usersByRole.size(), allUsers.size());
+            logger.debug("Usuarios con rol '{}' encontrados: {}", role, usersByRole.size());
             return usersByRole;
         } catch (Exception e) {
             logger.error("Error al buscar usuarios por rol '{}' en BD", role, e);
@@ -327,8 +307,7 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
         logger.debug("Contando usuarios activos en BD");
 
         try {
-            List<UserEntity> activeUsers = findActiveUsers();
-            long count = activeUsers.size();
+            long count = userJpaRepository.countActive();
             logger.debug("Total de usuarios activos: {}", count);
             return count;
         } catch (Exception e) {
@@ -343,9 +322,12 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
     public long countByRole(String role) {
         logger.debug("Contando usuarios por rol: {}", role);
 
+        if (role == null) {
+            return 0;
+        }
+
         try {
-            List<UserEntity> usersByRole = findByRole(role);
-            long count = usersByRole.size();
+            long count = userJpaRepository.countByNormalizedRole(normalizeRole(role));
             logger.debug("Total de usuarios con rol '{}': {}", role, count);
             return count;
         } catch (Exception e) {
@@ -366,14 +348,12 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
         }
 
         try {
-            String pattern = emailPattern.trim().toLowerCase();
-            List<UserEntity> allUsers = userJpaRepository.findAll();
-            List<UserEntity> matchingUsers = allUsers.stream()
-                    .filter(user -> {
-                        String email = user.getEmail();
-                        return email != null && email.toLowerCase().contains(pattern);
-                    })
-                    .collect(Collectors.toList());
+            // El patrón es texto literal: se escapan los comodines de LIKE
+            String pattern = emailPattern.trim().toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\")
+                    .replace("%", "\\%")
+                    .replace("_", "\\_");
+            List<UserEntity> matchingUsers = userJpaRepository.findByEmailLike("%" + pattern + "%");
 
             logger.debug("Usuarios con email que contiene '{}': {} encontrados",
                     emailPattern, matchingUsers.size());
@@ -384,6 +364,10 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
         }
     }
 
+    private static String normalizeRole(String role) {
+        return role.trim().toUpperCase(Locale.ROOT);
+    }
+
     /**
      * ✅ NUEVO: Validar integridad de datos del usuario
      */
@@ -0,0 +1,38 @@
+-- Contenido de fotos fuera de la tabla (photo.store.type=filesystem)
+ALTER TABLE photo_file ALTER COLUMN file_data DROP NOT NULL;
+ALTER TABLE photo_file ADD COLUMN content_hash VARCHAR(64);
+ALTER TABLE photo_file ADD COLUMN content_length BIGINT;
+
+CREATE INDEX idx_photo_file_content_hash ON photo_file (content_hash);
+
+-- Miniaturas y vistas medias, una por variante y contenido (photo.store.type=database)
+CREATE TABLE photo_derivative (
+    content_hash VARCHAR(64) NOT NULL,
+    variant VARCHAR(16) NOT NULL,
+    data BYTEA NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (content_hash, variant)
+);
+
+CREATE INDEX idx_photo_file_id_exif ON photo_file (id_exif);
+
+-- Ubicación resuelta por geocodificación inversa del GPS de la foto
+ALTER TABLE photo_exif ADD COLUMN localidad_id INTEGER REFERENCES localidades(localidad_id);
+ALTER TABLE photo_exif ADD COLUMN municipio_id INTEGER REFERENCES municipios(municipio_id);
+ALTER TABLE photo_exif ADD COLUMN provincia_id INTEGER REFERENCES provincias(provincia_id);
+
+CREATE INDEX idx_photo_exif_localidad ON photo_exif (localidad_id);
+
+-- Fotos asociadas a usuarios y bicicletas; una foto deduplicada puede estar en varias bicicletas
+CREATE TABLE photo_link (
+    id BIGSERIAL PRIMARY KEY,
+    exif_id VARCHAR(255) NOT NULL REFERENCES photo_exif(id),
+    user_id BIGINT NOT NULL,
+    bike_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT unique_photo_link UNIQUE (exif_id, user_id, bike_id)
+);
+
+-- Paginación por clave de la galería
+CREATE INDEX idx_photo_link_user_page ON photo_link (user_id, created_at DESC, id DESC);
+CREATE INDEX idx_photo_link_bike_page ON photo_link (user_id, bike_id, created_at DESC, id DESC);
@@ -8,4 +8,18 @@ CREATE TABLE "user" (
     phone VARCHAR(20),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
\ No newline at end of file
+);
+
+-- Búsquedas de la tabla users sin recorrerla entera (UserJpaRepository).
+-- Las expresiones tienen que coincidir con las de las consultas para que se use el índice.
+
+-- Existencia y búsqueda por username/email sin distinguir mayúsculas
+CREATE INDEX idx_users_username_upper ON users (upper(username));
+CREATE INDEX idx_users_email_upper ON users (upper(email));
+
+-- Usuarios y conteos por rol
+CREATE INDEX idx_users_role_normalized ON users (upper(btrim(role)));
+
+-- Búsqueda por fragmento de email (LIKE '%texto%'); requiere pg_trgm
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
@@ -0,0 +1,132 @@
+package com.safe.loadphoto.service;
+
+import com.safe.loadphoto.domain.model.PhotoIngestResult;
+import com.safe.loadphoto.domain.model.PhotoUpload;
+import com.safe.loadphoto.domain.port.out.PhotoExifRepositoryPort;
+import com.safe.loadphoto.domain.port.out.PhotoFileRepositoryPort;
+import com.safe.loadphoto.domain.port.out.PhotoLinkRepositoryPort;
+import com.safe.loadphoto.infrastructure.adapter.ExifAdapter;
+import com.safe.loadphoto.infrastructure.adapter.ImageDerivativeAdapter;
+import com.safe.location.domain.port.in.GeocodificacionInversaPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class PhotoExifServiceBatchTest {
+
+    @TempDir
+    Path spoolDirectory;
+
+    private final PhotoExifRepositoryPort exifRepository = mock(PhotoExifRepositoryPort.class);
+    private final PhotoFileRepositoryPort fileRepository = mock(PhotoFileRepositoryPort.class);
+    private final PhotoLinkRepositoryPort linkRepository = mock(PhotoLinkRepositoryPort.class);
+    private PhotoIngestWorkerPool workerPool;
+    private PhotoExifService service;
+
+    @BeforeEach
+    void setUp() {
+        workerPool = new PhotoIngestWorkerPool(2, 8);
+        service = new PhotoExifService(mock(ExifAdapter.class), mock(ImageDerivativeAdapter.class),
+                exifRepository, fileRepository, linkRepository, spoolDirectory, 64 * 1024, workerPool,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                mock(ApplicationEventPublisher.class), mock(GeocodificacionInversaPort.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        workerPool.shutdown();
+    }
+
+    @Test
+    void inBatchDuplicateReusesTheStoredExifOnceCommitted() throws IOException {
+        byte[] photo = jpeg(Color.RED);
+
+        List<PhotoIngestResult> results = service.extractAndSaveExifBatch(List.of(
+                upload("a.jpg", photo), upload("b.jpg", photo), upload("c.jpg", jpeg(Color.BLUE))));
+
+        assertThat(results).allMatch(PhotoIngestResult::isSuccess);
+        assertThat(results.get(0).duplicate()).isFalse();
+        assertThat(results.get(1).duplicate()).isTrue();
+        assertThat(results.get(1).photoExif().getId()).isEqualTo(results.get(0).photoExif().getId());
+        assertThat(service.getIngestStats().dedupHits()).isEqualTo(1);
+        assertThat(service.getIngestStats().bytesSaved()).isEqualTo(photo.length);
+    }
+
+    @Test
+    void inBatchDuplicateFailsWithTheBatchWhenSaveRollsBack() throws IOException {
+        doThrow(new IllegalStateException("constraint violation")).when(exifRepository).saveAll(anyList());
+        byte[] photo = jpeg(Color.RED);
+
+        List<PhotoIngestResult> results = service.extractAndSaveExifBatch(List.of(
+                upload("a.jpg", photo), upload("b.jpg", photo), upload("c.jpg", jpeg(Color.BLUE))));
+
+        assertThat(results).noneMatch(PhotoIngestResult::isSuccess);
+        assertThat(results).allMatch(result -> result.photoExif() == null);
+        assertThat(service.getIngestStats().dedupHits()).isZero();
+        assertThat(service.getIngestStats().bytesSaved()).isZero();
+    }
+
+    @Test
+    void failedLinkMarksOnlyThatPhoto() throws Exception {
+        doThrow(new IllegalStateException("fk violation")).doNothing()
+                .when(linkRepository).link(any(), any(), any());
+
+        List<PhotoIngestResult> results = service.extractAndSaveExifBatchAsync(List.of(
+                        upload("a.jpg", jpeg(Color.RED)), upload("b.jpg", jpeg(Color.BLUE))), 1L, 2L)
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(results).hasSize(2);
+        assertThat(results).filteredOn(PhotoIngestResult::isSuccess).hasSize(1);
+        assertThat(results).filteredOn(result -> !result.isSuccess())
+                .singleElement()
+                .satisfies(result -> assertThat(result.error()).isEqualTo("Error linking photo"));
+    }
+
+    @Test
+    void linksEveryPhotoOfASuccessfulBatch() throws Exception {
+        doNothing().when(linkRepository).link(any(), any(), any());
+
+        List<PhotoIngestResult> results = service.extractAndSaveExifBatchAsync(List.of(
+                        upload("a.jpg", jpeg(Color.RED)), upload("b.jpg", jpeg(Color.RED))), 1L, 2L)
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(results).allMatch(PhotoIngestResult::isSuccess);
+    }
+
+    private static PhotoUpload upload(String fileName, byte[] content) {
+        return new PhotoUpload(fileName, new ByteArrayInputStream(content));
+    }
+
+    private static byte[] jpeg(Color color) throws IOException {
+        BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                image.setRGB(x, y, color.getRGB());
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,222 @@
+package com.safe.loadphoto.service;
+
+import com.safe.loadphoto.domain.event.PhotoExifSavedEvent;
+import com.safe.loadphoto.domain.model.PhotoExif;
+import com.safe.loadphoto.domain.model.PhotoLocation;
+import com.safe.loadphoto.domain.port.out.PhotoExifRepositoryPort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PhotoSpatialIndexTest {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    @Test
+    void radiusSearchMatchesBruteForce() {
+        Random random = new Random(7);
+        List<PhotoLocation> stored = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            stored.add(new PhotoLocation("p" + i, -34.6 + random.nextGaussian() * 0.3, -58.4 + random.nextGaussian() * 0.3));
+        }
+        PhotoSpatialIndex index = new PhotoSpatialIndex(new FakeRepository(stored), 0.05);
+        index.load();
+
+        for (int q = 0; q < 50; q++) {
+            double lat = -34.6 + random.nextGaussian() * 0.3;
+            double lon = -58.4 + random.nextGaussian() * 0.3;
+            double radius = 500 + random.nextDouble() * 10_000;
+            List<String> expected = stored.stream()
+                    .filter(p -> haversine(lat, lon, p.latitude(), p.longitude()) <= radius)
+                    .sorted(Comparator.comparingDouble(p -> haversine(lat, lon, p.latitude(), p.longitude())))
+                    .limit(20)
+                    .map(PhotoLocation::exifId)
+                    .toList();
+
+            assertThat(index.findWithinRadius(lat, lon, radius, 20))
+                    .extracting(PhotoLocation::exifId)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void radiusSearchAroundThePoleFindsPointsOnTheFarSide() {
+        List<PhotoLocation> stored = List.of(
+                new PhotoLocation("near", 89.5, 0.0),
+                new PhotoLocation("across", 89.5, 180.0),
+                new PhotoLocation("side", 89.5, 90.0),
+                new PhotoLocation("out", 85.0, 180.0));
+        PhotoSpatialIndex index = new PhotoSpatialIndex(new FakeRepository(stored), 0.5);
+        index.load();
+
+        // 89.5° a 0° y 89.5° a 180° están a ~111 km pasando por el polo
+        assertThat(index.findWithinRadius(89.5, 0.0, 150_000, 10))
+                .extracting(PhotoLocation::exifId)
+                .containsExactlyInAnyOrder("near", "across", "side");
+    }
+
+    @Test
+    void largeRadiusMatchesBruteForce() {
+        Random random = new Random(11);
+        List<PhotoLocation> stored = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            stored.add(new PhotoLocation("p" + i,
+                    Math.toDegrees(Math.asin(2 * random.nextDouble() - 1)), 360 * random.nextDouble() - 180));
+        }
+        PhotoSpatialIndex index = new PhotoSpatialIndex(new FakeRepository(stored), 1.0);
+        index.load();
+
+        for (int q = 0; q < 50; q++) {
+            double lat = 170 * random.nextDouble() - 85;
+            double lon = 360 * random.nextDouble() - 180;
+            double radius = 500_000 + random.nextDouble() * 3_000_000;
+            List<String> expected = stored.stream()
+                    .filter(p -> haversine(lat, lon, p.latitude(), p.longitude()) <= radius)
+                    .map(PhotoLocation::exifId)
+                    .toList();
+
+            assertThat(index.findWithinRadius(lat, lon, radius, Integer.MAX_VALUE))
+                    .extracting(PhotoLocation::exifId)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    void negativeLimitIsRejected() {
+        PhotoSpatialIndex index = new PhotoSpatialIndex(new FakeRepository(List.of()), 0.05);
+        index.load();
+
+        assertThatThrownBy(() -> index.findWithinRadius(0, 0, 1_000, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.findWithinBoundingBox(-1, -1, 1, 1, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void boundingBoxAcrossAntimeridian() {
+        List<PhotoLocation> stored = List.of(
+                new PhotoLocation("east", 0.0, 179.95),
+                new PhotoLocation("west", 0.0, -179.95),
+                new PhotoLocation("far", 0.0, 170.0));
+        PhotoSpatialIndex index = new PhotoSpatialIndex(new FakeRepository(stored), 0.05);
+        index.load();
+
+        assertThat(index.findWithinBoundingBox(-1, 179.0, 1, -179.0, 10))
+                .extracting(PhotoLocation::exifId)
+                .containsExactlyInAnyOrder("east", "west");
+    }
+
+    @Test
+    void photoSavedDuringLoadIsIndexed() {
+        List<PhotoLocation> stored = List.of(new PhotoLocation("old", 10.0, 10.0));
+        FakeRepository repository = new FakeRepository(stored);
+        PhotoSpatialIndex index = new PhotoSpatialIndex(repository, 0.05);
+        // El alta llega mientras la carga recorre la tabla
+        repository.duringScan = () -> index.onPhotoExifSaved(PhotoExifSavedEvent.of(exif("new", 10.01, 10.01)));
+
+        index.load();
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.findWithinRadius(10.0, 10.0, 5_000, 10))
+                .extracting(PhotoLocation::exifId)
+                .containsExactlyInAnyOrder("old", "new");
+    }
+
+    @Test
+    void photoSeenByScanAndEventIsIndexedOnce() {
+        List<PhotoLocation> stored = List.of(new PhotoLocation("same", 10.0, 10.0));
+        FakeRepository repository = new FakeRepository(stored);
+        PhotoSpatialIndex index = new PhotoSpatialIndex(repository, 0.05);
+        repository.duringScan = () -> index.onPhotoExifSaved(PhotoExifSavedEvent.of(exif("same", 10.0, 10.0)));
+
+        index.load();
+        index.onPhotoExifSaved(PhotoExifSavedEvent.of(exif("same", 10.0, 10.0)));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.findWithinRadius(10.0, 10.0, 1_000, 10)).hasSize(1);
+    }
+
+    @Test
+    void failedLoadStillIndexesNewPhotos() {
+        List<PhotoLocation> stored = List.of(new PhotoLocation("read", 10.0, 10.0), new PhotoLocation("lost", 10.0, 10.0));
+        FakeRepository repository = new FakeRepository(stored);
+        PhotoSpatialIndex index = new PhotoSpatialIndex(repository, 0.05);
+        repository.duringScan = () -> {
+            index.onPhotoExifSaved(PhotoExifSavedEvent.of(exif("during", 10.01, 10.01)));
+            throw new IllegalStateException("connection reset");
+        };
+
+        index.load();
+        index.onPhotoExifSaved(PhotoExifSavedEvent.of(exif("after", 10.02, 10.02)));
+
+        assertThat(index.findWithinRadius(10.0, 10.0, 5_000, 10))
+                .extracting(PhotoLocation::exifId)
+                .containsExactlyInAnyOrder("read", "during", "after");
+    }
+
+    @Test
+    void photosWithoutGpsAreIgnored() {
+        PhotoSpatialIndex index = new PhotoSpatialIndex(new FakeRepository(List.of()), 0.05);
+        index.load();
+
+        index.onPhotoExifSaved(PhotoExifSavedEvent.of(exif("no-gps", null, null)));
+
+        assertThat(index.size()).isZero();
+    }
+
+    private static PhotoExif exif(String id, Double latitude, Double longitude) {
+        return new PhotoExif(id, id + ".jpg", latitude, longitude, null, null, null);
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static final class FakeRepository implements PhotoExifRepositoryPort {
+
+        private final List<PhotoLocation> locations;
+        private Runnable duringScan = () -> { };
+
+        private FakeRepository(List<PhotoLocation> locations) {
+            this.locations = locations;
+        }
+
+        @Override
+        public void forEachLocation(Consumer<PhotoLocation> consumer) {
+            for (int i = 0; i < locations.size(); i++) {
+                consumer.accept(locations.get(i));
+                if (i == 0) {
+                    duringScan.run();
+                }
+            }
+        }
+
+        @Override
+        public PhotoExif save(PhotoExif photoExif) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void saveAll(List<PhotoExif> photoExifs) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<PhotoExif> findById(String id) {
+            return Optional.empty();
+        }
+    }
+}
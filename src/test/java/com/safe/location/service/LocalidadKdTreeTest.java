@@ -0,0 +1,138 @@
+package com.safe.location.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class LocalidadKdTreeTest {
+
+    private static final long SEED = 20251018L;
+
+    @Test
+    void emptyTreeHasNoNeighbour() {
+        LocalidadKdTree tree = LocalidadKdTree.build(new double[0], new double[0]);
+
+        assertThat(tree.size()).isZero();
+        assertThat(tree.nearest(0, 0)).isNull();
+    }
+
+    @Test
+    void matchesBruteForceOnRandomPoints() {
+        Random random = new Random(SEED);
+        int n = 5_000;
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            lons[i] = 360 * random.nextDouble() - 180;
+        }
+
+        assertMatchesBruteForce(lats, lons, random, 2_000);
+    }
+
+    @Test
+    void matchesBruteForceNearPolesAndAntimeridian() {
+        Random random = new Random(SEED + 1);
+        int n = 2_000;
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            switch (i % 3) {
+                // Cerca de los polos la longitud casi no cambia la distancia
+                case 0 -> {
+                    lats[i] = (random.nextBoolean() ? 1 : -1) * (89 + random.nextDouble());
+                    lons[i] = 360 * random.nextDouble() - 180;
+                }
+                // A los dos lados del antimeridiano: vecinos reales con longitudes de signo opuesto
+                case 1 -> {
+                    lats[i] = 120 * random.nextDouble() - 60;
+                    lons[i] = (random.nextBoolean() ? 180 : -180) - Math.signum(random.nextGaussian()) * random.nextDouble();
+                }
+                default -> {
+                    lats[i] = 180 * random.nextDouble() - 90;
+                    lons[i] = 360 * random.nextDouble() - 180;
+                }
+            }
+        }
+
+        assertMatchesBruteForce(lats, lons, random, 2_000);
+    }
+
+    @Test
+    void findsNeighbourAcrossAntimeridian() {
+        double[] lats = {0.0, 0.0};
+        double[] lons = {-179.9, 170.0};
+        LocalidadKdTree tree = LocalidadKdTree.build(lats, lons);
+
+        LocalidadKdTree.Neighbour neighbour = tree.nearest(0.0, 179.9);
+
+        assertThat(neighbour.index()).isZero();
+        assertThat(LocalidadKdTree.chordSquaredToMeters(neighbour.chordSquared(), 6_371_008.8))
+                .isCloseTo(22_239.0, offset(10.0));
+    }
+
+    @Test
+    void handlesDuplicatePoints() {
+        double[] lats = new double[100];
+        double[] lons = new double[100];
+        Arrays.fill(lats, -34.6);
+        Arrays.fill(lons, -58.4);
+        lats[42] = 10.0;
+        lons[42] = 10.0;
+        LocalidadKdTree tree = LocalidadKdTree.build(lats, lons);
+
+        assertThat(tree.nearest(10.1, 10.1).index()).isEqualTo(42);
+        assertThat(tree.nearest(-34.6, -58.4).chordSquared()).isZero();
+    }
+
+    private static void assertMatchesBruteForce(double[] lats, double[] lons, Random random, int queries) {
+        LocalidadKdTree tree = LocalidadKdTree.build(lats.clone(), lons.clone());
+        assertThat(tree.size()).isEqualTo(lats.length);
+
+        for (int q = 0; q < queries; q++) {
+            // La mitad de las consultas cae cerca de un punto existente, donde importan los empates cercanos
+            double lat;
+            double lon;
+            if (q % 2 == 0) {
+                int near = random.nextInt(lats.length);
+                lat = Math.max(-90, Math.min(90, lats[near] + random.nextGaussian() * 0.01));
+                lon = lons[near] + random.nextGaussian() * 0.01;
+                lon = lon > 180 ? lon - 360 : lon < -180 ? lon + 360 : lon;
+            } else {
+                lat = 180 * random.nextDouble() - 90;
+                lon = 360 * random.nextDouble() - 180;
+            }
+
+            double expected = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < lats.length; i++) {
+                expected = Math.min(expected, chordSquared(lat, lon, lats[i], lons[i]));
+            }
+
+            LocalidadKdTree.Neighbour neighbour = tree.nearest(lat, lon);
+            // Se compara la distancia y no el índice: con empates cualquiera de los empatados es correcto
+            assertThat(chordSquared(lat, lon, lats[neighbour.index()], lons[neighbour.index()]))
+                    .as("consulta (%s, %s)", lat, lon)
+                    .isCloseTo(expected, offset(1e-15));
+            assertThat(neighbour.chordSquared()).isCloseTo(expected, offset(1e-15));
+        }
+    }
+
+    private static double chordSquared(double lat1, double lon1, double lat2, double lon2) {
+        double[] a = unit(lat1, lon1);
+        double[] b = unit(lat2, lon2);
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        double dz = a[2] - b[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static double[] unit(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        return new double[]{Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+    }
+}
@@ -0,0 +1,83 @@
+package com.safe.report.application.service;
+
+import com.safe.report.domain.model.ReportFormat;
+import com.safe.report.domain.model.ReportJob;
+import com.safe.report.domain.model.ReportJobStatus;
+import com.safe.report.domain.port.in.BikeReportUseCasePort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ReportJobServiceTest {
+
+    private static final String OWNER = "owner@safebike.test";
+
+    @TempDir
+    Path spoolDirectory;
+
+    private ReportJobService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        BikeReportUseCasePort reports = mock(BikeReportUseCasePort.class);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("id;serial\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reports).writeBikeReport(eq(7L), eq(ReportFormat.CSV), any(), any());
+        service = new ReportJobService(reports, spoolDirectory, 1, 4, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void requesterDownloadsTheFinishedReport() throws Exception {
+        ReportJob job = awaitCompleted(service.submitUserReport(7L, ReportFormat.CSV, OWNER));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeResult(job.id(), OWNER, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id;serial\n");
+    }
+
+    @Test
+    void otherUsersCannotDownloadTheReport() throws Exception {
+        ReportJob job = awaitCompleted(service.submitUserReport(7L, ReportFormat.CSV, OWNER));
+
+        assertThatThrownBy(() -> service.writeResult(job.id(), "other@safebike.test", new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.writeResult(job.id(), null, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.findJobs("other@safebike.test")).isEmpty();
+    }
+
+    private ReportJob awaitCompleted(ReportJob submitted) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            ReportJob job = service.getJob(submitted.id()).orElseThrow();
+            if (job.status().isFinished()) {
+                assertThat(job.status()).isEqualTo(ReportJobStatus.COMPLETED);
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Report job did not finish: " + submitted.id());
+    }
+}
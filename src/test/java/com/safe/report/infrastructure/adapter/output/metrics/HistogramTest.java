@@ -0,0 +1,125 @@
+package com.safe.report.infrastructure.adapter.output.metrics;
+
+import com.safe.report.domain.model.HistogramSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistogramTest {
+
+    @Test
+    void everyValueFallsInsideItsBucket() {
+        Random random = new Random(13);
+        for (int i = 0; i < 100_000; i++) {
+            long value = i < 1_000 ? i : (random.nextLong() >>> 1) >>> random.nextInt(63);
+            int index = Histogram.index(value);
+            long upper = Histogram.upperBound(index);
+
+            assertThat(upper).as("valor %d", value).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(Histogram.upperBound(index - 1)).as("valor %d", value).isLessThan(value);
+            }
+            // El ancho del bucket acota el error relativo a 1/8
+            assertThat((double) (upper - value)).as("valor %d", value).isLessThanOrEqualTo(value / 8.0);
+        }
+    }
+
+    @Test
+    void extremeValuesHaveBuckets() {
+        assertThat(Histogram.upperBound(Histogram.index(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+        assertThat(Histogram.index(0)).isZero();
+    }
+
+    @Test
+    void emptyHistogramGivesEmptySnapshot() {
+        assertThat(new Histogram().snapshot()).isEqualTo(HistogramSnapshot.EMPTY);
+    }
+
+    @Test
+    void percentilesAreWithinOneEighthOfExact() {
+        Random random = new Random(42);
+        Histogram histogram = new Histogram();
+        long[] values = new long[50_000];
+        for (int i = 0; i < values.length; i++) {
+            // Latencias con cola larga, en microsegundos
+            values[i] = (long) Math.exp(5 + random.nextGaussian() * 1.5);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(values.length);
+        assertThat(snapshot.sum()).isEqualTo(Arrays.stream(values).sum());
+        assertThat(snapshot.max()).isEqualTo(values[values.length - 1]);
+        assertWithinOneEighth(snapshot.p50(), exactPercentile(values, 0.50));
+        assertWithinOneEighth(snapshot.p95(), exactPercentile(values, 0.95));
+        assertWithinOneEighth(snapshot.p99(), exactPercentile(values, 0.99));
+    }
+
+    @Test
+    void percentileNeverExceedsMax() {
+        Histogram histogram = new Histogram();
+        histogram.record(1_000);
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.p99()).isEqualTo(1_000);
+    }
+
+    @Test
+    void negativeValuesCountAsZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(1);
+        assertThat(snapshot.sum()).isZero();
+        assertThat(snapshot.p50()).isZero();
+    }
+
+    @Test
+    void concurrentRecordsAreNotLost() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        int threads = 8;
+        int perThread = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i % 1_000);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(histogram.snapshot().count()).isEqualTo((long) threads * perThread);
+    }
+
+    private static long exactPercentile(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static void assertWithinOneEighth(long approximate, long exact) {
+        assertThat(approximate).isGreaterThanOrEqualTo(exact);
+        assertThat((double) (approximate - exact)).isLessThanOrEqualTo(exact / 8.0);
+    }
+}
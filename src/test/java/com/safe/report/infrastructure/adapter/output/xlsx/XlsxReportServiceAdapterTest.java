@@ -0,0 +1,172 @@
+package com.safe.report.infrastructure.adapter.output.xlsx;
+
+import com.safe.report.domain.model.BikeReportDTO;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxReportServiceAdapterTest {
+
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    @Test
+    void writesAWellFormedPackage() throws Exception {
+        Map<String, Document> parts = write(new XlsxReportServiceAdapter(), List.of(bike(1L, "Ana")));
+
+        assertThat(parts).containsOnlyKeys(
+                "xl/worksheets/sheet1.xml", "xl/styles.xml", "xl/workbook.xml",
+                "xl/_rels/workbook.xml.rels", "_rels/.rels", "[Content_Types].xml");
+        assertThat(parts.get("[Content_Types].xml").getDocumentElement().getElementsByTagName("Override").getLength())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void writesHeaderAndTypedCells() throws Exception {
+        Map<String, Document> parts = write(new XlsxReportServiceAdapter(), List.of(bike(42L, "Ana")));
+
+        List<List<Element>> rows = rows(parts.get("xl/worksheets/sheet1.xml"));
+        assertThat(rows).hasSize(2);
+        assertThat(text(rows.get(0).get(0))).isEqualTo("ID");
+        assertThat(rows.get(0).get(0).getAttribute("s")).isEqualTo("2");
+
+        List<Element> cells = rows.get(1);
+        assertThat(cells).hasSize(8);
+        assertThat(value(cells.get(0))).isEqualTo("42");
+        assertThat(cells.get(1).getAttribute("t")).isEqualTo("inlineStr");
+        assertThat(text(cells.get(1))).isEqualTo("Ana");
+        // 2024-01-01 es el día 45292 desde la época de Excel (1899-12-30)
+        assertThat(value(cells.get(7))).isEqualTo("45292");
+        assertThat(cells.get(7).getAttribute("s")).isEqualTo("1");
+    }
+
+    @Test
+    void escapesTextAndKeepsColumnsForNulls() throws Exception {
+        BikeReportDTO bike = new BikeReportDTO(null, " Ana & <Bea> ", "O'Neil \"x\"", "Marca\u0001", null, null,
+                "SN-1", null);
+
+        Map<String, Document> parts = write(new XlsxReportServiceAdapter(), List.of(bike));
+
+        List<Element> cells = rows(parts.get("xl/worksheets/sheet1.xml")).get(1);
+        assertThat(cells).hasSize(8);
+        assertThat(cells.get(0).hasChildNodes()).isFalse();
+        assertThat(text(cells.get(1))).isEqualTo(" Ana & <Bea> ");
+        assertThat(((Element) cells.get(1).getElementsByTagNameNS(MAIN_NS, "t").item(0))
+                .getAttribute("xml:space")).isEqualTo("preserve");
+        assertThat(text(cells.get(2))).isEqualTo("O'Neil \"x\"");
+        // Los caracteres de control no son XML válido: se descartan
+        assertThat(text(cells.get(3))).isEqualTo("Marca");
+        assertThat(cells.get(4).hasChildNodes()).isFalse();
+        assertThat(text(cells.get(6))).isEqualTo("SN-1");
+        assertThat(cells.get(7).hasChildNodes()).isFalse();
+    }
+
+    @Test
+    void splitsSheetsAtTheRowLimit() throws Exception {
+        // 3 filas por hoja: encabezado y 2 de datos
+        List<BikeReportDTO> bikes = IntStream.rangeClosed(1, 5).mapToObj(i -> bike((long) i, "U" + i)).toList();
+
+        Map<String, Document> parts = write(new XlsxReportServiceAdapter(3), bikes);
+
+        assertThat(rows(parts.get("xl/worksheets/sheet1.xml"))).hasSize(3);
+        assertThat(rows(parts.get("xl/worksheets/sheet2.xml"))).hasSize(3);
+        List<List<Element>> last = rows(parts.get("xl/worksheets/sheet3.xml"));
+        assertThat(last).hasSize(2);
+        assertThat(value(last.get(1).get(0))).isEqualTo("5");
+
+        NodeList sheets = parts.get("xl/workbook.xml").getElementsByTagNameNS(MAIN_NS, "sheet");
+        assertThat(sheets.getLength()).isEqualTo(3);
+        assertThat(((Element) sheets.item(2)).getAttribute("name")).isEqualTo("Bicicletas 3");
+        assertThat(parts.get("[Content_Types].xml").getDocumentElement().getElementsByTagName("Override").getLength())
+                .isEqualTo(5);
+    }
+
+    @Test
+    void emptyReportStillHasOneSheetWithHeaders() throws Exception {
+        Map<String, Document> parts = write(new XlsxReportServiceAdapter(), List.of());
+
+        assertThat(rows(parts.get("xl/worksheets/sheet1.xml"))).hasSize(1);
+        assertThat(parts).doesNotContainKey("xl/worksheets/sheet2.xml");
+    }
+
+    @Test
+    void leavesTheTargetStreamOpen() throws IOException {
+        ClosingTrackingStream out = new ClosingTrackingStream();
+
+        new XlsxReportServiceAdapter().writeFleetReport(List.of(bike(1L, "Ana")).iterator(), 1, out);
+
+        assertThat(out.closed).isFalse();
+        assertThat(out.size()).isPositive();
+    }
+
+    private static BikeReportDTO bike(Long id, String firstName) {
+        return new BikeReportDTO(id, firstName, "Pérez", "Trek", "Marlin 5", "MTB", "SN-" + id,
+                LocalDate.of(2024, 1, 1));
+    }
+
+    private static Map<String, Document> write(XlsxReportServiceAdapter adapter, List<BikeReportDTO> bikes)
+            throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        adapter.writeBikeReport(bikes.iterator(), "Ana Pérez", bikes.size(), out);
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Map<String, Document> parts = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                // Cada parte tiene que ser XML bien formado
+                byte[] content = zip.readAllBytes();
+                parts.put(entry.getName(), factory.newDocumentBuilder().parse(new ByteArrayInputStream(content)));
+            }
+        }
+        return parts;
+    }
+
+    private static List<List<Element>> rows(Document sheet) {
+        NodeList rowNodes = sheet.getElementsByTagNameNS(MAIN_NS, "row");
+        List<List<Element>> rows = new ArrayList<>();
+        for (int i = 0; i < rowNodes.getLength(); i++) {
+            NodeList cellNodes = ((Element) rowNodes.item(i)).getElementsByTagNameNS(MAIN_NS, "c");
+            List<Element> cells = new ArrayList<>();
+            for (int j = 0; j < cellNodes.getLength(); j++) {
+                cells.add((Element) cellNodes.item(j));
+            }
+            rows.add(cells);
+        }
+        return rows;
+    }
+
+    private static String text(Element cell) {
+        return cell.getElementsByTagNameNS(MAIN_NS, "t").item(0).getTextContent();
+    }
+
+    private static String value(Element cell) {
+        return cell.getElementsByTagNameNS(MAIN_NS, "v").item(0).getTextContent();
+    }
+
+    private static final class ClosingTrackingStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.safe.user.infrastructure.adapters.output.external;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RevokedTokenFilterTest {
+
+    private static final int EXPECTED = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void hasNoFalseNegatives() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(Duration.ofHours(1), EXPECTED, FALSE_POSITIVE_RATE);
+        List<String> revoked = tokenIds(EXPECTED);
+        revoked.forEach(filter::add);
+
+        assertThat(revoked).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(Duration.ofHours(1), EXPECTED, FALSE_POSITIVE_RATE);
+        tokenIds(EXPECTED).forEach(filter::add);
+
+        // La generación anterior está vacía: la tasa medida es la de la actual, llena hasta lo esperado
+        int probes = 200_000;
+        long falsePositives = tokenIds(probes).stream().filter(filter::mightContain).count();
+        double rate = (double) falsePositives / probes;
+
+        assertThat(rate).isLessThan(FALSE_POSITIVE_RATE * 1.5);
+    }
+
+    @Test
+    void revocationSurvivesOneRotationAndDropsAfterTwo() throws InterruptedException {
+        Duration window = Duration.ofMillis(50);
+        RevokedTokenFilter filter = new RevokedTokenFilter(window, 1_000, FALSE_POSITIVE_RATE);
+        List<String> revoked = tokenIds(1_000);
+        revoked.forEach(filter::add);
+
+        waitForRotation(filter, window);
+        assertThat(revoked).allMatch(filter::mightContain);
+
+        waitForRotation(filter, window);
+        assertThat(revoked).noneMatch(filter::mightContain);
+    }
+
+    @Test
+    void rotationIsSkippedBeforeTheWindowEnds() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(Duration.ofHours(1), 1_000, FALSE_POSITIVE_RATE);
+        filter.add("jti-1");
+
+        filter.rotateIfDue();
+        filter.rotateIfDue();
+
+        assertThat(filter.mightContain("jti-1")).isTrue();
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new RevokedTokenFilter(Duration.ZERO, EXPECTED, FALSE_POSITIVE_RATE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RevokedTokenFilter(Duration.ofHours(1), 0, FALSE_POSITIVE_RATE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RevokedTokenFilter(Duration.ofHours(1), EXPECTED, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void waitForRotation(RevokedTokenFilter filter, Duration window) throws InterruptedException {
+        Thread.sleep(window.toMillis() + 20);
+        filter.rotateIfDue();
+    }
+
+    private static List<String> tokenIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        return ids;
+    }
+}